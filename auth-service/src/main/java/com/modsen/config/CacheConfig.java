@@ -0,0 +1,18 @@
+package com.modsen.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables the in-process caches used by the service.
+ *
+ * <p>The cache advice runs outside the transaction advice, so entries are evicted only after the
+ * modifying transaction has committed and a concurrent reader cannot put stale data back.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+  public static final String USER_DETAILS_CACHE = "user-details";
+}
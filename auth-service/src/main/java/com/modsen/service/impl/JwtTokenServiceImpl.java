@@ -7,12 +7,15 @@ import com.modsen.repository.UserRepository;
 import com.modsen.service.api.TokenService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import java.security.Key;
 import java.util.Date;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
@@ -42,6 +45,16 @@ public class JwtTokenServiceImpl implements TokenService {
 
   private final UserRepository userRepository;
 
+  private Key signInKey;
+  private JwtParser jwtParser;
+
+  /** Decodes the signing key and builds the token parser once, on startup. */
+  @PostConstruct
+  void init() {
+    signInKey = getSignInKey();
+    jwtParser = Jwts.parserBuilder().setSigningKey(signInKey).requireIssuer(issuer).build();
+  }
+
   /**
    * Generates a JWT for the given user.
    *
@@ -57,7 +70,7 @@ public class JwtTokenServiceImpl implements TokenService {
         .claim(AUTHORITIES, authorities)
         .setIssuedAt(new Date())
         .setExpiration(new Date(System.currentTimeMillis() + access))
-        .signWith(getSignInKey(), SignatureAlgorithm.HS512)
+        .signWith(signInKey, SignatureAlgorithm.HS512)
         .compact();
   }
 
@@ -74,7 +87,7 @@ public class JwtTokenServiceImpl implements TokenService {
         .setIssuer(issuer)
         .setIssuedAt(new Date())
         .setExpiration(new Date(System.currentTimeMillis() + refresh))
-        .signWith(getSignInKey(), SignatureAlgorithm.HS512)
+        .signWith(signInKey, SignatureAlgorithm.HS512)
         .compact();
   }
 
@@ -91,9 +104,6 @@ public class JwtTokenServiceImpl implements TokenService {
   }
 
   private User validateTokenAndGetUserByEmail(String refreshToken) {
-    if (!validateToken(refreshToken)) {
-      throw new InvalidTokenException();
-    }
     var email = getEmail(refreshToken);
     return userRepository
         .findByEmail(email)
@@ -109,45 +119,29 @@ public class JwtTokenServiceImpl implements TokenService {
    */
   @Override
   public String getEmail(String token) {
-    checkToken(token);
     return getClaims(token).getSubject();
   }
 
   /**
-   * Validates the provided JWT token, checking its expiration.
+   * Parses and verifies the provided JWT in a single pass, checking its signature, issuer and
+   * expiration. The parser rejects expired tokens itself; tokens without an expiration are rejected
+   * here, since they would never expire.
    *
-   * @param token the JWT to validate
-   * @throws InvalidTokenException if the token is expired or invalid
+   * @param token the JWT to parse claims from
+   * @return the claims contained in the JWT
+   * @throws InvalidTokenException if the token is expired, has no expiration or is invalid
    */
-  private void checkToken(String token) {
-    boolean isValid;
+  private Claims getClaims(String token) {
+    Claims claims;
     try {
-      isValid = validateToken(token);
-    } catch (JwtException exception) {
-      isValid = false;
+      claims = jwtParser.parseClaimsJws(token).getBody();
+    } catch (JwtException | IllegalArgumentException exception) {
+      throw new InvalidTokenException();
     }
-    if (!isValid) {
+    if (Objects.isNull(claims.getExpiration())) {
       throw new InvalidTokenException();
     }
-  }
-
-  private boolean validateToken(String token) {
-    return !getClaims(token).getExpiration().before(new Date());
-  }
-
-  /**
-   * Parses the claims from the provided JWT.
-   *
-   * @param token the JWT to parse claims from
-   * @return the claims contained in the JWT
-   */
-  private Claims getClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSignInKey())
-        .requireIssuer(issuer)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    return claims;
   }
 
   /**
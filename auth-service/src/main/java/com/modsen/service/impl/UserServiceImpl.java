@@ -1,5 +1,8 @@
 package com.modsen.service.impl;
 
+import static com.modsen.config.CacheConfig.USER_DETAILS_CACHE;
+import static org.springframework.security.core.userdetails.User.withUsername;
+
 import com.modsen.exception.EntityAlreadyExistsException;
 import com.modsen.exception.EntityNotFoundException;
 import com.modsen.exception.InvalidEmailException;
@@ -14,8 +17,12 @@ import com.modsen.model.entity.User;
 import com.modsen.repository.UserRepository;
 import com.modsen.service.api.TokenService;
 import com.modsen.service.api.UserService;
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +30,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Implementation of the UserService interface, providing methods to manage users, including user
@@ -38,6 +47,7 @@ public class UserServiceImpl implements UserService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final TokenService tokenService;
+  private final CacheManager cacheManager;
 
   /**
    * Generates an authorization token for a user based on their email and password.
@@ -74,14 +84,24 @@ public class UserServiceImpl implements UserService {
   /**
    * Loads a user by their email address.
    *
+   * <p>The result is an immutable snapshot of the user's credentials and authorities, cached per
+   * email so that authenticating a request does not hit the database every time.
+   *
    * @param email the email address of the user
    * @return the UserDetails object for the user
    * @throws EntityNotFoundException if the user with the given email does not exist
    */
   @Override
+  @Cacheable(cacheNames = USER_DETAILS_CACHE, key = "#email")
   public UserDetails loadUserByUsername(String email) {
     return userRepository
         .findByEmail(email)
+        .map(
+            user ->
+                withUsername(user.getEmail())
+                    .password(user.getPassword())
+                    .authorities(user.getAuthorities())
+                    .build())
         .orElseThrow(() -> new EntityNotFoundException(User.class, email));
   }
 
@@ -136,13 +156,14 @@ public class UserServiceImpl implements UserService {
   }
 
   @Override
+  @Transactional
   public UserResponse update(Long id, UserRequest userRequest) {
-    return userRepository
-        .findById(id)
-        .map(current -> userMapper.update(userRequest, current))
-        .map(userRepository::save)
-        .map(userMapper::toUserResponse)
-        .orElseThrow(() -> new EntityNotFoundException(User.class, id));
+    var current =
+        userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(User.class, id));
+    var previousEmail = current.getEmail();
+    var user = userRepository.save(userMapper.update(userRequest, current));
+    evictUserDetails(previousEmail, user.getEmail());
+    return userMapper.toUserResponse(user);
   }
 
   @Override
@@ -154,5 +175,31 @@ public class UserServiceImpl implements UserService {
             .map(userMapper::toUserResponse)
             .orElseThrow(() -> new EntityNotFoundException(User.class, id));
     userRepository.deleteById(user.id());
+    evictUserDetails(user.email());
+  }
+
+  /**
+   * Evicts the cached details of the given emails once the current transaction commits, so a
+   * concurrent login cannot put the old details back.
+   *
+   * @param emails the emails the user had before and after the change
+   */
+  private void evictUserDetails(String... emails) {
+    var cache = cacheManager.getCache(USER_DETAILS_CACHE);
+    if (Objects.isNull(cache)) {
+      return;
+    }
+    Runnable eviction = () -> Arrays.stream(emails).filter(Objects::nonNull).forEach(cache::evict);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      eviction.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            eviction.run();
+          }
+        });
   }
 }
@@ -0,0 +1,143 @@
+package com.modsen.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.modsen.config.CacheConfig;
+import com.modsen.data.UserTestData;
+import com.modsen.mapper.TokenMapper;
+import com.modsen.mapper.UserMapper;
+import com.modsen.repository.UserRepository;
+import com.modsen.service.api.TokenService;
+import com.modsen.service.api.UserService;
+import com.modsen.service.impl.UserServiceImpl;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig(
+    classes = {CacheConfig.class, UserServiceImpl.class, UserDetailsCacheTest.Config.class})
+class UserDetailsCacheTest {
+
+  @Autowired private UserService userService;
+  @Autowired private CacheManager cacheManager;
+
+  @MockitoBean private UserMapper userMapper;
+  @MockitoBean private TokenMapper tokenMapper;
+  @MockitoBean private UserRepository userRepository;
+  @MockitoBean private PasswordEncoder passwordEncoder;
+  @MockitoBean private TokenService tokenService;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE).clear();
+  }
+
+  @Test
+  void loadUserByUsernameShouldHitDatabaseOnceForRepeatedLookups() {
+    // given
+    var user = UserTestData.builder().build().buildUser();
+
+    when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+    // when
+    userService.loadUserByUsername(user.getEmail());
+    var actual = userService.loadUserByUsername(user.getEmail());
+
+    // then
+    assertEquals(user.getEmail(), actual.getUsername());
+    verify(userRepository).findByEmail(user.getEmail());
+  }
+
+  @Test
+  void updateShouldEvictCachedUserDetails() {
+    // given
+    var user = UserTestData.builder().build().buildUser();
+    var userRequest = UserTestData.builder().build().buildUserRequest();
+    var userResponse = UserTestData.builder().build().buildUserResponse();
+
+    when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+    when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+    when(userMapper.update(userRequest, user)).thenReturn(user);
+    when(userRepository.save(user)).thenReturn(user);
+    when(userMapper.toUserResponse(user)).thenReturn(userResponse);
+
+    // when
+    userService.loadUserByUsername(user.getEmail());
+    userService.update(user.getId(), userRequest);
+    userService.loadUserByUsername(user.getEmail());
+
+    // then
+    verify(userRepository, times(2)).findByEmail(user.getEmail());
+  }
+
+  @Test
+  void updateShouldEvictPreviousAndNewEmailOnly() {
+    // given
+    var user = UserTestData.builder().withEmail("old@example.com").build().buildUser();
+    var updated = UserTestData.builder().withEmail("new@example.com").build().buildUser();
+    var other = UserTestData.builder().withId(2L).withEmail("other@example.com").build();
+    var userRequest =
+        UserTestData.builder().withEmail("new@example.com").build().buildUserRequest();
+
+    when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+    when(userRepository.findByEmail(updated.getEmail())).thenReturn(Optional.of(updated));
+    when(userRepository.findByEmail("other@example.com"))
+        .thenReturn(Optional.of(other.buildUser()));
+    when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+    when(userMapper.update(userRequest, user)).thenReturn(updated);
+    when(userRepository.save(updated)).thenReturn(updated);
+    userService.loadUserByUsername(user.getEmail());
+    userService.loadUserByUsername(updated.getEmail());
+    userService.loadUserByUsername("other@example.com");
+
+    // when
+    userService.update(user.getId(), userRequest);
+    userService.loadUserByUsername(user.getEmail());
+    userService.loadUserByUsername(updated.getEmail());
+    userService.loadUserByUsername("other@example.com");
+
+    // then
+    verify(userRepository, times(2)).findByEmail(user.getEmail());
+    verify(userRepository, times(2)).findByEmail(updated.getEmail());
+    verify(userRepository).findByEmail("other@example.com");
+  }
+
+  @Test
+  void deleteShouldEvictCachedUserDetails() {
+    // given
+    var user = UserTestData.builder().build().buildUser();
+    var userResponse = UserTestData.builder().build().buildUserResponse();
+
+    when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+    when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+    when(userMapper.toUserResponse(user)).thenReturn(userResponse);
+
+    // when
+    userService.loadUserByUsername(user.getEmail());
+    userService.delete(user.getId());
+    userService.loadUserByUsername(user.getEmail());
+
+    // then
+    verify(userRepository, times(2)).findByEmail(user.getEmail());
+  }
+
+  @Configuration
+  static class Config {
+
+    @Bean
+    CacheManager cacheManager() {
+      return new CaffeineCacheManager(CacheConfig.USER_DETAILS_CACHE);
+    }
+  }
+}
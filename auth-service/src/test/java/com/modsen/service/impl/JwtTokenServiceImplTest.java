@@ -2,13 +2,16 @@ package com.modsen.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.modsen.data.UserTestData;
+import com.modsen.exception.InvalidTokenException;
 import com.modsen.repository.UserRepository;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import java.util.Date;
@@ -81,6 +84,44 @@ class JwtTokenServiceImplTest {
     assertEquals(user.getEmail(), email);
   }
 
+  @Test
+  void getEmailShouldThrowInvalidTokenExceptionWhenTokenIsMalformed() {
+    // given
+    var token = "token";
+
+    // when & then
+    assertThrows(InvalidTokenException.class, () -> tokenService.getEmail(token));
+  }
+
+  @Test
+  void getEmailShouldThrowInvalidTokenExceptionWhenTokenHasNoExpiration() {
+    // given
+    var token =
+        Jwts.builder()
+            .setSubject("email")
+            .setIssuer(issuer)
+            .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS512)
+            .compact();
+
+    // when & then
+    assertThrows(InvalidTokenException.class, () -> tokenService.getEmail(token));
+  }
+
+  @Test
+  void getEmailShouldThrowInvalidTokenExceptionWhenTokenIsExpired() {
+    // given
+    var token =
+        Jwts.builder()
+            .setSubject("email")
+            .setIssuer(issuer)
+            .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+            .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS512)
+            .compact();
+
+    // when & then
+    assertThrows(InvalidTokenException.class, () -> tokenService.getEmail(token));
+  }
+
   @Test
   void shouldReturnUpdateRefreshToken() {
     var user = UserTestData.builder().build().buildUser();
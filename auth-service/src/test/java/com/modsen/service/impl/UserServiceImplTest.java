@@ -24,6 +24,7 @@ import com.modsen.repository.UserRepository;
 import com.modsen.service.api.TokenService;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.IntStream;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -31,6 +32,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -57,6 +59,8 @@ class UserServiceImplTest {
 
   @Mock private PasswordEncoder passwordEncoder;
 
+  @Mock private CacheManager cacheManager;
+
   @Nested
   class GetAuthorizationToken {
 
@@ -140,6 +144,20 @@ class UserServiceImplTest {
       verify(userRepository).findByEmail(user.getEmail());
     }
 
+    @Test
+    void shouldReturnUserDetailsWithUserAuthorities() {
+      // given
+      var user = UserTestData.builder().build().buildUser();
+
+      when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+      // when
+      var userDetails = userService.loadUserByUsername(user.getEmail());
+
+      // then
+      assertEquals(Set.copyOf(user.getAuthorities()), Set.copyOf(userDetails.getAuthorities()));
+    }
+
     @Test
     void shouldThrowEntityNotFoundExceptionWhenUserIsNotFound() {
       // given
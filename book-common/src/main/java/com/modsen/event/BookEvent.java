@@ -0,0 +1,41 @@
+package com.modsen.event;
+
+import java.time.Instant;
+
+/**
+ * The envelope published for every change to a book.
+ *
+ * @param schemaVersion the version of the binary schema the event was written with
+ * @param type the kind of change
+ * @param bookId the book identifier, also used as the record key
+ * @param bookVersion the row version after the change, or {@code null} if unknown
+ * @param occurredAt the moment the change was made
+ * @param book the book after the change; {@code null} for deletions
+ * @param previousIsbn the ISBN the book had before an update or deletion; {@code null} for
+ *     creations and for events written before schema version 2
+ */
+public record BookEvent(
+    int schemaVersion,
+    BookEventType type,
+    Long bookId,
+    Long bookVersion,
+    Instant occurredAt,
+    BookSnapshot book,
+    String previousIsbn) {
+
+  public static BookEvent of(BookEventType type, Long bookId, Long bookVersion, BookSnapshot book) {
+    return of(type, bookId, bookVersion, book, null);
+  }
+
+  public static BookEvent of(
+      BookEventType type, Long bookId, Long bookVersion, BookSnapshot book, String previousIsbn) {
+    return new BookEvent(
+        BookEventCodec.SCHEMA_VERSION,
+        type,
+        bookId,
+        bookVersion,
+        Instant.now(),
+        book,
+        previousIsbn);
+  }
+}
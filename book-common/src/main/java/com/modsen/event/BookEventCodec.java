@@ -0,0 +1,131 @@
+package com.modsen.event;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Binary serde for {@link BookEvent}.
+ *
+ * <p>Layout: magic byte, schema version, type code, book id, book version ({@code -1} when
+ * unknown), occurrence time in epoch milliseconds, a snapshot flag and, when the flag is set, five
+ * length-prefixed UTF-8 strings ({@code -1} length for {@code null}). Version 2 appends the
+ * previous ISBN as one more such string.
+ *
+ * <p>Compatibility rule: a new schema version may only append fields. Readers ignore trailing bytes
+ * they do not know, so an old consumer can read events from a newer producer, and a new consumer
+ * can still read every version from {@link #MIN_SCHEMA_VERSION} up. Producer and consumer share
+ * this one implementation, so both sides always agree on the layout of each version.
+ */
+public final class BookEventCodec {
+  public static final byte MAGIC = (byte) 0xB7;
+  public static final int SCHEMA_VERSION = 2;
+  public static final int MIN_SCHEMA_VERSION = 1;
+  private static final int NULL_LENGTH = -1;
+  private static final long UNKNOWN_VERSION = -1L;
+
+  private BookEventCodec() {}
+
+  public static byte[] encode(BookEvent event) {
+    var bytes = new ByteArrayOutputStream(128);
+    try (var output = new DataOutputStream(bytes)) {
+      output.writeByte(MAGIC);
+      output.writeByte(SCHEMA_VERSION);
+      output.writeByte(event.type().getCode());
+      output.writeLong(event.bookId());
+      output.writeLong(Objects.requireNonNullElse(event.bookVersion(), UNKNOWN_VERSION));
+      output.writeLong(event.occurredAt().toEpochMilli());
+      var book = event.book();
+      output.writeBoolean(Objects.nonNull(book));
+      if (Objects.nonNull(book)) {
+        writeString(output, book.isbn());
+        writeString(output, book.name());
+        writeString(output, book.genre());
+        writeString(output, book.description());
+        writeString(output, book.author());
+      }
+      writeString(output, event.previousIsbn());
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes an event.
+   *
+   * @param payload the binary event
+   * @return the event
+   * @throws IllegalArgumentException if the payload is not a book event or its schema version is no
+   *     longer supported
+   */
+  public static BookEvent decode(byte[] payload) {
+    if (Objects.isNull(payload) || payload.length < 2 || payload[0] != MAGIC) {
+      throw new IllegalArgumentException("Payload is not a book event");
+    }
+    try (var input = new DataInputStream(new ByteArrayInputStream(payload))) {
+      input.readByte();
+      int schemaVersion = input.readUnsignedByte();
+      if (schemaVersion < MIN_SCHEMA_VERSION) {
+        throw new IllegalArgumentException(
+            "Unsupported book event schema version: " + schemaVersion);
+      }
+      var type = BookEventType.fromCode(input.readByte());
+      var bookId = input.readLong();
+      var bookVersion = input.readLong();
+      var occurredAt = Instant.ofEpochMilli(input.readLong());
+      var book =
+          input.readBoolean()
+              ? new BookSnapshot(
+                  readString(input),
+                  readString(input),
+                  readString(input),
+                  readString(input),
+                  readString(input))
+              : null;
+      var previousIsbn = schemaVersion >= 2 ? readString(input) : null;
+      return new BookEvent(
+          schemaVersion,
+          type,
+          bookId,
+          bookVersion == UNKNOWN_VERSION ? null : bookVersion,
+          occurredAt,
+          book,
+          previousIsbn);
+    } catch (IOException exception) {
+      throw new IllegalArgumentException("Truncated book event", exception);
+    }
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    if (Objects.isNull(value)) {
+      output.writeInt(NULL_LENGTH);
+      return;
+    }
+    var bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    var length = input.readInt();
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    if (length < 0) {
+      throw new IOException("Negative string length: " + length);
+    }
+    var bytes = input.readNBytes(length);
+    if (bytes.length != length) {
+      throw new EOFException();
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
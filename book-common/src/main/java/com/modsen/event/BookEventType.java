@@ -0,0 +1,27 @@
+package com.modsen.event;
+
+import java.util.Arrays;
+
+/** The change a {@link BookEvent} describes, with the stable code used in its binary form. */
+public enum BookEventType {
+  CREATED((byte) 1),
+  UPDATED((byte) 2),
+  DELETED((byte) 3);
+
+  private final byte code;
+
+  BookEventType(byte code) {
+    this.code = code;
+  }
+
+  public byte getCode() {
+    return code;
+  }
+
+  public static BookEventType fromCode(byte code) {
+    return Arrays.stream(values())
+        .filter(type -> type.code == code)
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown book event type: " + code));
+  }
+}
@@ -0,0 +1,13 @@
+package com.modsen.event;
+
+/**
+ * The state of a book carried by a {@link BookEvent}.
+ *
+ * @param isbn the ISBN
+ * @param name the title
+ * @param genre the genre name
+ * @param description the description
+ * @param author the author
+ */
+public record BookSnapshot(
+    String isbn, String name, String genre, String description, String author) {}
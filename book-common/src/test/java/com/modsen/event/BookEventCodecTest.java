@@ -0,0 +1,117 @@
+package com.modsen.event;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The fixtures below are the schema version 1 and 2 wire formats, written by book-storage-service
+ * and read by book-tracker-service; they must never change, only new fixtures may be added.
+ */
+class BookEventCodecTest {
+  private static final String CREATED_V1 =
+      "b70101000000000000002a00000000000000030000018bcfe5680001000000046973626e000000046e616d65"
+          + "0000000746494354494f4e0000000b6465736372697074696f6e00000006617574686f72";
+  private static final String DELETED_V1 =
+      "b70103000000000000002affffffffffffffff0000018bcfe5680000";
+  private static final String UPDATED_V2 =
+      "b70202000000000000002a00000000000000030000018bcfe5680001000000046973626e000000046e616d65"
+          + "0000000746494354494f4e0000000b6465736372697074696f6e00000006617574686f72"
+          + "000000036f6c64";
+  private static final Instant OCCURRED_AT = Instant.ofEpochMilli(1_700_000_000_000L);
+
+  private static final BookEvent CREATED =
+      new BookEvent(
+          1,
+          BookEventType.CREATED,
+          42L,
+          3L,
+          OCCURRED_AT,
+          new BookSnapshot("isbn", "name", "FICTION", "description", "author"),
+          null);
+  private static final BookEvent UPDATED =
+      new BookEvent(
+          2,
+          BookEventType.UPDATED,
+          42L,
+          3L,
+          OCCURRED_AT,
+          new BookSnapshot("isbn", "name", "FICTION", "description", "author"),
+          "old");
+
+  @Nested
+  class Compatibility {
+
+    @Test
+    void encodeShouldProduceVersionTwoWireFormat() {
+      // when
+      var actual = BookEventCodec.encode(UPDATED);
+
+      // then
+      assertArrayEquals(HexFormat.of().parseHex(UPDATED_V2), actual);
+    }
+
+    @Test
+    void decodeShouldReadVersionTwoFixtures() {
+      // when
+      var actual = BookEventCodec.decode(HexFormat.of().parseHex(UPDATED_V2));
+
+      // then
+      assertEquals(UPDATED, actual);
+    }
+
+    @Test
+    void decodeShouldReadVersionOneFixtures() {
+      // when
+      var created = BookEventCodec.decode(HexFormat.of().parseHex(CREATED_V1));
+      var deleted = BookEventCodec.decode(HexFormat.of().parseHex(DELETED_V1));
+
+      // then
+      assertEquals(CREATED, created);
+      assertEquals(
+          new BookEvent(1, BookEventType.DELETED, 42L, null, OCCURRED_AT, null, null), deleted);
+    }
+
+    @Test
+    void decodeShouldIgnoreFieldsAppendedByNewerSchemaVersions() {
+      // given
+      var v2 = HexFormat.of().parseHex(UPDATED_V2);
+      var v3 = Arrays.copyOf(v2, v2.length + 4);
+      v3[1] = 3;
+
+      // when
+      var actual = BookEventCodec.decode(v3);
+
+      // then
+      assertEquals(3, actual.schemaVersion());
+      assertEquals(UPDATED.book(), actual.book());
+      assertEquals(UPDATED.previousIsbn(), actual.previousIsbn());
+    }
+  }
+
+  @Test
+  void decodeShouldRejectPayloadWithoutMagicByte() {
+    // given
+    var legacy = "42".getBytes(StandardCharsets.UTF_8);
+
+    // when & then
+    assertThrows(IllegalArgumentException.class, () -> BookEventCodec.decode(legacy));
+  }
+
+  @Test
+  void decodeShouldRejectTruncatedPayload() {
+    // given
+    var v1 = HexFormat.of().parseHex(CREATED_V1);
+    var truncated = Arrays.copyOf(v1, v1.length - 3);
+
+    // when & then
+    assertThrows(IllegalArgumentException.class, () -> BookEventCodec.decode(truncated));
+  }
+}
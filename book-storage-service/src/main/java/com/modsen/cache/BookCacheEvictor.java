@@ -0,0 +1,48 @@
+package com.modsen.cache;
+
+import static com.modsen.config.CacheConfig.BOOKS_BY_ISBN_CACHE;
+import static com.modsen.config.CacheConfig.BOOKS_CACHE;
+
+import com.modsen.index.TransactionCallbacks;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the cached entries of a single book, by its id and by each ISBN it was cached under.
+ *
+ * <p>Changes made here are evicted once their transaction commits, so a concurrent reader cannot
+ * put the old state back; changes reported by the book events of other instances are evicted right
+ * away.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCacheEvictor {
+  private final CacheManager cacheManager;
+
+  /**
+   * Evicts a book once the current transaction commits, or immediately outside a transaction.
+   *
+   * @param id the book identifier
+   * @param isbns the ISBNs the book had before and after the change; {@code null} ones are skipped
+   */
+  public void evict(Long id, String... isbns) {
+    TransactionCallbacks.afterCommit(
+        () -> {
+          evict(BOOKS_CACHE, id);
+          for (var isbn : isbns) {
+            if (Objects.nonNull(isbn)) {
+              evict(BOOKS_BY_ISBN_CACHE, isbn);
+            }
+          }
+        });
+  }
+
+  private void evict(String cacheName, Object key) {
+    var cache = cacheManager.getCache(cacheName);
+    if (Objects.nonNull(cache)) {
+      cache.evict(key);
+    }
+  }
+}
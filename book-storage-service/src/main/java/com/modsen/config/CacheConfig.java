@@ -0,0 +1,44 @@
+package com.modsen.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables the in-process book caches.
+ *
+ * <p>The cache advice runs outside the transaction advice, so entries are evicted only after the
+ * modifying transaction has committed and a concurrent reader cannot put stale data back.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+  public static final String BOOKS_CACHE = "books";
+  public static final String BOOKS_BY_ISBN_CACHE = "books-by-isbn";
+  public static final String BOOKS_BY_FILTER_CACHE = "books-by-filter";
+
+  /**
+   * Registers the filtered listing cache with its own, smaller bounds. Its keys include the catalog
+   * version, so entries of older versions are never read again and only need to age out.
+   */
+  @Bean
+  public CacheManagerCustomizer<CaffeineCacheManager> filterCacheCustomizer(
+      @Value("${books.filter-cache.maximum-size:1000}") long maximumSize,
+      @Value("${books.filter-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+    return cacheManager ->
+        cacheManager.registerCustomCache(
+            BOOKS_BY_FILTER_CACHE,
+            Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build());
+  }
+}
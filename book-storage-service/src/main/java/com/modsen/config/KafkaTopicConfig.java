@@ -1,24 +1,46 @@
 package com.modsen.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 
 @Configuration
 public class KafkaTopicConfig {
 
   public static final String TOPIC_BOOK_CREATED = "book-created";
   public static final String TOPIC_BOOK_DELETED = "book-deleted";
-  public static final int NUM_PARTITIONS = 1;
-  public static final short REPLICATION_FACTOR = (short) 1;
+  public static final String TOPIC_BOOK_UPDATED = "book-updated";
+  public static final String TOPIC_BOOK_EVENTS = "book-events";
+
+  @Value("${topic.partitions:6}")
+  private int partitions;
+
+  @Value("${topic.replication-factor:1}")
+  private int replicationFactor;
 
   @Bean
   public NewTopic bookCreatedTopic() {
-    return new NewTopic(TOPIC_BOOK_CREATED, NUM_PARTITIONS, REPLICATION_FACTOR);
+    return topic(TOPIC_BOOK_CREATED);
   }
 
   @Bean
   public NewTopic bookDeleted() {
-    return new NewTopic(TOPIC_BOOK_DELETED, NUM_PARTITIONS, REPLICATION_FACTOR);
+    return topic(TOPIC_BOOK_DELETED);
+  }
+
+  @Bean
+  public NewTopic bookUpdated() {
+    return topic(TOPIC_BOOK_UPDATED);
+  }
+
+  @Bean
+  public NewTopic bookEvents() {
+    return topic(TOPIC_BOOK_EVENTS);
+  }
+
+  private NewTopic topic(String name) {
+    return TopicBuilder.name(name).partitions(partitions).replicas(replicationFactor).build();
   }
 }
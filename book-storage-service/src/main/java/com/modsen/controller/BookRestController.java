@@ -1,14 +1,50 @@
 package com.modsen.controller;
 
+import com.modsen.exception.BookVersionMismatchException;
+import com.modsen.index.AutocompleteIndex;
+import com.modsen.index.GenreFacetIndex;
+import com.modsen.index.IsbnBloomFilter;
+import com.modsen.model.dto.request.BookFilter;
 import com.modsen.model.dto.request.BookRequest;
+import com.modsen.model.dto.response.BookBatchResponse;
+import com.modsen.model.dto.response.BookFacetResponse;
+import com.modsen.model.dto.response.BookFuzzyMatchResponse;
+import com.modsen.model.dto.response.BookImportResponse;
+import com.modsen.model.dto.response.BookLookupResponse;
 import com.modsen.model.dto.response.BookResponse;
+import com.modsen.model.dto.response.BookSearchResponse;
+import com.modsen.model.dto.response.BookSuggestionResponse;
+import com.modsen.model.dto.response.BookVersionResponse;
+import com.modsen.model.dto.response.CursorPageResponse;
+import com.modsen.model.entity.enums.BookField;
+import com.modsen.model.entity.enums.BookImportFormat;
+import com.modsen.model.entity.enums.BookSortKey;
+import com.modsen.model.entity.enums.BookView;
+import com.modsen.model.entity.enums.GenreType;
+import com.modsen.model.entity.enums.SuggestionType;
+import com.modsen.service.api.BookExportService;
+import com.modsen.service.api.BookImportService;
 import com.modsen.service.api.BookService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,9 +56,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 @Validated
 @RestController
@@ -31,7 +70,27 @@ import org.springframework.web.bind.annotation.RestController;
 public class BookRestController {
 
   protected static final String BOOK_API_PATH = "/api/v0/books";
+  private static final int MAX_BATCH_SIZE = 10_000;
+  private static final int MAX_LOOKUP_SIZE = 50_000;
+  private static final int MAX_FACET_AUTHORS = 1_000;
+  private static final int MAX_QUERY_LENGTH = 256;
+  private static final int MAX_SUGGESTIONS = 50;
+  private static final String TEXT_CSV = "text/csv";
+  private static final String GZIP = "gzip";
+  private static final String ANY_ENCODING = "*";
+  private static final String QUALITY = "q=";
+  private static final String BOOK_ETAG = "%d-%d";
+  private static final String CATALOG_ETAG = "catalog-%d";
+  private static final String ANY_ETAG = "*";
   private final BookService bookService;
+  private final BookImportService bookImportService;
+  private final BookExportService bookExportService;
+  private final IsbnBloomFilter isbnBloomFilter;
+  private final GenreFacetIndex genreFacetIndex;
+  private final AutocompleteIndex autocompleteIndex;
+
+  @Value("${books.export.timeout:30m}")
+  private Duration exportTimeout;
 
   @PostMapping
   @PreAuthorize("hasAuthority('book:create')")
@@ -41,46 +100,255 @@ public class BookRestController {
         .body(bookService.create(bookRequest));
   }
 
+  @PostMapping("/batch")
+  @PreAuthorize("hasAuthority('book:create')")
+  public ResponseEntity<BookBatchResponse> createAll(
+      @RequestBody @Size(max = MAX_BATCH_SIZE) List<BookRequest> bookRequests) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(bookService.createAll(bookRequests));
+  }
+
+  @PostMapping(value = "/import", consumes = TEXT_CSV)
+  @PreAuthorize("hasAuthority('book:create')")
+  public ResponseEntity<BookImportResponse> importCsv(InputStream inputStream) {
+    return importBooks(inputStream, BookImportFormat.CSV);
+  }
+
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("hasAuthority('book:create')")
+  public ResponseEntity<BookImportResponse> importNdjson(InputStream inputStream) {
+    return importBooks(inputStream, BookImportFormat.NDJSON);
+  }
+
+  /**
+   * Streams the whole catalog. The export runs asynchronously with a timeout of its own, so a long
+   * export does not require a long timeout for every other async request.
+   */
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("hasAuthority('book:read')")
+  public WebAsyncTask<Void> exportAll(
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      HttpServletResponse response) {
+    var gzip = acceptsGzip(acceptEncoding);
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+    }
+    return new WebAsyncTask<>(
+        exportTimeout.toMillis(),
+        () -> {
+          bookExportService.exportAll(response.getOutputStream(), gzip);
+          return null;
+        });
+  }
+
+  @PostMapping("/isbn-filter/rebuild")
+  @PreAuthorize("hasAuthority('book:delete')")
+  public ResponseEntity<Void> rebuildIsbnFilter() {
+    isbnBloomFilter.rebuild();
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/autocomplete")
+  @PreAuthorize("hasAuthority('book:read')")
+  public ResponseEntity<List<BookSuggestionResponse>> autocomplete(
+      @RequestParam @NotBlank @Size(max = MAX_QUERY_LENGTH) String prefix,
+      @RequestParam(required = false) SuggestionType type,
+      @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_SUGGESTIONS) int limit) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(autocompleteIndex.suggest(prefix, type, limit));
+  }
+
+  @PostMapping("/autocomplete/rebuild")
+  @PreAuthorize("hasAuthority('book:delete')")
+  public ResponseEntity<Void> rebuildAutocomplete() {
+    autocompleteIndex.rebuild();
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/facets")
+  @PreAuthorize("hasAuthority('book:read')")
+  public ResponseEntity<BookFacetResponse> getFacets(
+      @RequestParam(required = false) Set<GenreType> genres,
+      @RequestParam(defaultValue = "20") @Min(0) @Max(MAX_FACET_AUTHORS) int authorLimit) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(genreFacetIndex.facets(Objects.requireNonNullElse(genres, Set.of()), authorLimit));
+  }
+
+  @PostMapping("/facets/rebuild")
+  @PreAuthorize("hasAuthority('book:delete')")
+  public ResponseEntity<Void> rebuildFacets() {
+    genreFacetIndex.rebuild();
+    return ResponseEntity.noContent().build();
+  }
+
   @GetMapping
   @PreAuthorize("hasAuthority('book:read')")
-  public ResponseEntity<Page<BookResponse>> getAll(@PageableDefault(20) Pageable pageable) {
+  public ResponseEntity<Page<?>> getAll(
+      @PageableDefault(20) Pageable pageable,
+      @RequestParam(defaultValue = "FULL") BookView view,
+      @RequestParam(required = false) Set<String> fields,
+      WebRequest webRequest) {
+    var eTag = catalogETag();
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
+    Page<?> books;
+    if (Objects.nonNull(fields)) {
+      books = bookService.getAll(pageable, BookField.parse(fields));
+    } else if (view == BookView.SUMMARY) {
+      books = bookService.getAllSummaries(pageable);
+    } else {
+      books = bookService.getAll(pageable);
+    }
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(eTag)
+        .body(books);
+  }
+
+  @GetMapping("/filter")
+  @PreAuthorize("hasAuthority('book:read')")
+  public ResponseEntity<Page<BookResponse>> getAll(
+      BookFilter filter, @PageableDefault(20) Pageable pageable, WebRequest webRequest) {
+    var catalogVersion = bookService.getCatalogVersion();
+    var eTag = catalogETag(catalogVersion);
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
     return ResponseEntity.status(HttpStatus.OK)
         .contentType(MediaType.APPLICATION_JSON)
-        .body(bookService.getAll(pageable));
+        .eTag(eTag)
+        .body(bookService.getAll(filter, pageable, catalogVersion));
+  }
+
+  @GetMapping("/scroll")
+  @PreAuthorize("hasAuthority('book:read')")
+  public ResponseEntity<CursorPageResponse<BookResponse>> scroll(
+      @RequestParam(defaultValue = "ID") BookSortKey sort,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size,
+      WebRequest webRequest) {
+    var eTag = catalogETag();
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(eTag)
+        .body(bookService.getAll(sort, cursor, size));
   }
 
   @GetMapping("/ids")
   @PreAuthorize("hasAuthority('book:read')")
-  public ResponseEntity<Page<BookResponse>> getBooksByIds(
-      @RequestParam List<Long> bookIds, @PageableDefault(20) Pageable pageable) {
+  public ResponseEntity<Page<?>> getBooksByIds(
+      @RequestParam List<Long> bookIds,
+      @PageableDefault(20) Pageable pageable,
+      @RequestParam(defaultValue = "FULL") BookView view,
+      @RequestParam(required = false) Set<String> fields,
+      WebRequest webRequest) {
+    var eTag = catalogETag();
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
+    Page<?> books;
+    if (Objects.nonNull(fields)) {
+      books = bookService.getBooksByIds(bookIds, pageable, BookField.parse(fields));
+    } else if (view == BookView.SUMMARY) {
+      books = bookService.getSummariesByIds(bookIds, pageable);
+    } else {
+      books = bookService.getBooksByIds(bookIds, pageable);
+    }
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(eTag)
+        .body(books);
+  }
+
+  @PostMapping("/ids")
+  @PreAuthorize("hasAuthority('book:read')")
+  public ResponseEntity<BookLookupResponse<Long>> getAllByIds(
+      @RequestBody @Size(max = MAX_LOOKUP_SIZE) List<Long> ids) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(bookService.getAllByIds(ids));
+  }
+
+  @PostMapping("/isbns")
+  @PreAuthorize("hasAuthority('book:read')")
+  public ResponseEntity<BookLookupResponse<String>> getAllByIsbns(
+      @RequestBody @Size(max = MAX_LOOKUP_SIZE) List<String> isbns) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(bookService.getAllByIsbns(isbns));
+  }
+
+  @GetMapping("/search")
+  @PreAuthorize("hasAuthority('book:read')")
+  public ResponseEntity<CursorPageResponse<BookSearchResponse>> search(
+      @RequestParam @NotBlank @Size(max = MAX_QUERY_LENGTH) String query,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(bookService.search(query, cursor, size));
+  }
+
+  @GetMapping("/fuzzy")
+  @PreAuthorize("hasAuthority('book:read')")
+  public ResponseEntity<List<BookFuzzyMatchResponse>> findFuzzyMatches(
+      @RequestParam @NotBlank @Size(max = MAX_QUERY_LENGTH) String query,
+      @RequestParam(defaultValue = "0.4") @DecimalMin("0.0") @DecimalMax("1.0") double threshold,
+      @RequestParam(defaultValue = "10") int limit) {
     return ResponseEntity.status(HttpStatus.OK)
         .contentType(MediaType.APPLICATION_JSON)
-        .body(bookService.getBooksByIds(bookIds, pageable));
+        .body(bookService.findFuzzyMatches(query, threshold, limit));
   }
 
   @GetMapping("/{id}")
   @PreAuthorize("hasAuthority('book:read')")
-  public ResponseEntity<BookResponse> getById(@PathVariable Long id) {
+  public ResponseEntity<BookResponse> getById(@PathVariable Long id, WebRequest webRequest) {
+    if (isConditional(webRequest)
+        && webRequest.checkNotModified(bookETag(bookService.getVersion(id)))) {
+      return null;
+    }
+    var bookResponse = bookService.getById(id);
     return ResponseEntity.status(HttpStatus.OK)
         .contentType(MediaType.APPLICATION_JSON)
-        .body(bookService.getById(id));
+        .eTag(bookETag(bookResponse))
+        .body(bookResponse);
   }
 
   @GetMapping("/isbn/{isbn}")
   @PreAuthorize("hasAuthority('book:read')")
-  public ResponseEntity<BookResponse> getByIsbn(@PathVariable String isbn) {
+  public ResponseEntity<BookResponse> getByIsbn(@PathVariable String isbn, WebRequest webRequest) {
+    if (isConditional(webRequest)
+        && webRequest.checkNotModified(bookETag(bookService.getVersionByIsbn(isbn)))) {
+      return null;
+    }
+    var bookResponse = bookService.getByIsbn(isbn);
     return ResponseEntity.status(HttpStatus.OK)
         .contentType(MediaType.APPLICATION_JSON)
-        .body(bookService.getByIsbn(isbn));
+        .eTag(bookETag(bookResponse))
+        .body(bookResponse);
   }
 
   @PutMapping("/{id}")
   @PreAuthorize("hasAuthority('book:create')")
   public ResponseEntity<BookResponse> update(
-      @PathVariable Long id, @Valid @RequestBody BookRequest bookRequest) {
+      @PathVariable Long id,
+      @Valid @RequestBody BookRequest bookRequest,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    var bookResponse = bookService.update(id, bookRequest, expectedVersion(id, ifMatch));
     return ResponseEntity.status(HttpStatus.OK)
         .contentType(MediaType.APPLICATION_JSON)
-        .body(bookService.update(id, bookRequest));
+        .eTag(bookETag(bookResponse))
+        .body(bookResponse);
   }
 
   @DeleteMapping("/{id}")
@@ -89,4 +357,100 @@ public class BookRestController {
     bookService.delete(id);
     return ResponseEntity.noContent().build();
   }
+
+  private ResponseEntity<BookImportResponse> importBooks(
+      InputStream inputStream, BookImportFormat format) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(bookImportService.importBooks(inputStream, format));
+  }
+
+  /**
+   * The ETag of a single book. It is taken from the (usually cached) response itself, so a
+   * conditional request that matches is answered with 304 before anything is serialized.
+   */
+  private static String bookETag(BookResponse bookResponse) {
+    return BOOK_ETAG.formatted(bookResponse.id(), bookResponse.version());
+  }
+
+  private static String bookETag(BookVersionResponse bookVersion) {
+    return BOOK_ETAG.formatted(bookVersion.id(), bookVersion.version());
+  }
+
+  /**
+   * Whether a read carries {@code If-None-Match}. Only then is the book's version looked up on its
+   * own, so a matching request is answered with 304 without loading the book, while an
+   * unconditional read still costs a single (usually cached) lookup.
+   */
+  private static boolean isConditional(WebRequest webRequest) {
+    return Objects.nonNull(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH));
+  }
+
+  /**
+   * The book version named by an {@code If-Match} header holding a book ETag, or {@code null} when
+   * the update is unconditional.
+   */
+  private static Long expectedVersion(Long id, String ifMatch) {
+    if (Objects.isNull(ifMatch) || ANY_ETAG.equals(ifMatch.strip())) {
+      return null;
+    }
+    var eTag = ifMatch.strip().replaceFirst("^W/", "").replace("\"", "");
+    var prefix = id + "-";
+    try {
+      if (eTag.startsWith(prefix)) {
+        return Long.parseLong(eTag.substring(prefix.length()));
+      }
+    } catch (NumberFormatException exception) {
+      // falls through to the mismatch below
+    }
+    throw new BookVersionMismatchException(id);
+  }
+
+  /**
+   * Whether an {@code Accept-Encoding} header accepts gzip, either by name or through the {@code *}
+   * wildcard, with a non-zero quality. An explicit {@code gzip;q=0} refuses it even when the
+   * wildcard is accepted.
+   */
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (Objects.isNull(acceptEncoding)) {
+      return false;
+    }
+    Double gzipQuality = null;
+    Double anyQuality = null;
+    for (var coding : acceptEncoding.split(",")) {
+      var parameters = coding.split(";");
+      var name = parameters[0].strip().toLowerCase(Locale.ROOT);
+      var quality = 1.0;
+      for (int i = 1; i < parameters.length; i++) {
+        var parameter = parameters[i].strip().toLowerCase(Locale.ROOT);
+        if (parameter.startsWith(QUALITY)) {
+          try {
+            quality = Double.parseDouble(parameter.substring(QUALITY.length()));
+          } catch (NumberFormatException exception) {
+            quality = 0;
+          }
+        }
+      }
+      if (GZIP.equals(name)) {
+        gzipQuality = quality;
+      } else if (ANY_ENCODING.equals(name)) {
+        anyQuality = quality;
+      }
+    }
+    var quality =
+        Objects.requireNonNullElse(gzipQuality, Objects.requireNonNullElse(anyQuality, 0.0));
+    return quality > 0;
+  }
+
+  /**
+   * The ETag of a list page. The catalog version is read before the page, so a page is never tagged
+   * with a version newer than its contents.
+   */
+  private String catalogETag() {
+    return catalogETag(bookService.getCatalogVersion());
+  }
+
+  private static String catalogETag(long catalogVersion) {
+    return CATALOG_ETAG.formatted(catalogVersion);
+  }
 }
@@ -11,7 +11,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -53,13 +52,11 @@ public class JwtFilter extends OncePerRequestFilter {
 
     var token = header.substring(BEGIN_INDEX);
 
-    var principal = jwtTokenValidation.getEmail(token);
-
-    var grantedAuthorities =
-        jwtTokenValidation.getAuthorities(token).stream().map(SimpleGrantedAuthority::new).toList();
+    var principal = jwtTokenValidation.validate(token);
 
     var authenticated =
-        UsernamePasswordAuthenticationToken.authenticated(principal, null, grantedAuthorities);
+        UsernamePasswordAuthenticationToken.authenticated(
+            principal.subject(), null, principal.authorities());
     authenticated.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
 
     SecurityContextHolder.getContext().setAuthentication(authenticated);
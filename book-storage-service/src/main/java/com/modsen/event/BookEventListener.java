@@ -0,0 +1,82 @@
+package com.modsen.event;
+
+import com.modsen.cache.BookCacheEvictor;
+import com.modsen.index.AutocompleteIndex;
+import com.modsen.index.BookFacetEntry;
+import com.modsen.index.BookTitleEntry;
+import com.modsen.index.GenreFacetIndex;
+import com.modsen.index.IsbnBloomFilter;
+import com.modsen.model.entity.enums.GenreType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the book events of every instance to the in-memory indexes and caches of this one.
+ *
+ * <p>Each instance consumes with a consumer group of its own, starting at the latest offsets, since
+ * its indexes are built from the database when it starts. Events this instance published are
+ * applied a second time, which is harmless because every change carries the full state of the book.
+ * Records that are not book events, such as the bare ids written before the envelope, are skipped;
+ * the periodic rebuilds of the indexes make up for them.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookEventListener {
+  private final IsbnBloomFilter isbnBloomFilter;
+  private final BookCacheEvictor bookCacheEvictor;
+  private final GenreFacetIndex genreFacetIndex;
+  private final AutocompleteIndex autocompleteIndex;
+
+  @KafkaListener(
+      topics = "#{@bookEventTopics.subscribed()}",
+      groupId = "book-storage-#{T(java.util.UUID).randomUUID()}",
+      properties = {
+        "auto.offset.reset=latest",
+        "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer"
+      },
+      batch = "true")
+  public void apply(List<byte[]> payloads) {
+    for (var payload : payloads) {
+      BookEvent event;
+      try {
+        event = BookEventCodec.decode(payload);
+      } catch (IllegalArgumentException exception) {
+        continue;
+      }
+      apply(event);
+    }
+  }
+
+  private void apply(BookEvent event) {
+    var book = event.book();
+    if (event.type() != BookEventType.CREATED) {
+      bookCacheEvictor.evict(
+          event.bookId(), event.previousIsbn(), Objects.isNull(book) ? null : book.isbn());
+    }
+    if (event.type() == BookEventType.DELETED) {
+      genreFacetIndex.remove(event.bookId());
+      autocompleteIndex.remove(event.bookId());
+      return;
+    }
+    if (Objects.isNull(book)) {
+      return;
+    }
+    isbnBloomFilter.put(book.isbn());
+    autocompleteIndex.put(new BookTitleEntry(event.bookId(), book.name(), book.author()));
+    toGenre(book.genre())
+        .ifPresent(
+            genre -> genreFacetIndex.put(new BookFacetEntry(event.bookId(), genre, book.author())));
+  }
+
+  /** Resolves the genre; one this instance does not know yet is left to the next rebuild. */
+  private static Optional<GenreType> toGenre(String genre) {
+    return Arrays.stream(GenreType.values())
+        .filter(value -> value.name().equals(genre))
+        .findFirst();
+  }
+}
@@ -0,0 +1,48 @@
+package com.modsen.event;
+
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_CREATED;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_DELETED;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_EVENTS;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_UPDATED;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses the topic a book event is published to.
+ *
+ * <p>Events are keyed by book id, so every event of one book lands on the same partition of a
+ * topic. With {@code topic.unified} enabled all operations share the {@code book-events} topic,
+ * which also keeps a create and a later delete of the same book in order; otherwise each operation
+ * has its own topic.
+ */
+@Component
+public class BookEventTopics {
+  private final boolean unified;
+
+  public BookEventTopics(@Value("${topic.unified:false}") boolean unified) {
+    this.unified = unified;
+  }
+
+  /**
+   * Returns the topics every book event is published to, for consumers of all of them.
+   *
+   * @return the topic names
+   */
+  public String[] subscribed() {
+    return unified
+        ? new String[] {TOPIC_BOOK_EVENTS}
+        : new String[] {TOPIC_BOOK_CREATED, TOPIC_BOOK_UPDATED, TOPIC_BOOK_DELETED};
+  }
+
+  public String topicFor(BookEventType type) {
+    if (unified) {
+      return TOPIC_BOOK_EVENTS;
+    }
+    return switch (type) {
+      case CREATED -> TOPIC_BOOK_CREATED;
+      case UPDATED -> TOPIC_BOOK_UPDATED;
+      case DELETED -> TOPIC_BOOK_DELETED;
+    };
+  }
+}
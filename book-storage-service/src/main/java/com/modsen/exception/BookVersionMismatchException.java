@@ -0,0 +1,35 @@
+package com.modsen.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The {@code BookVersionMismatchException} class represents an exception that is thrown when a
+ * conditional write names a book version that is no longer current.
+ *
+ * <p>This exception extends {@code AbstractExceptionMessageException} and provides a specific
+ * message naming the modified book.
+ */
+public class BookVersionMismatchException extends AbstractExceptionMessageException {
+
+  private static final String EXCEPTION_MESSAGE = "Book with ID %s has been modified";
+
+  /**
+   * Constructs a new {@code BookVersionMismatchException} for the specified book.
+   *
+   * @param id the id of the book
+   */
+  public BookVersionMismatchException(Long id) {
+    super(String.format(EXCEPTION_MESSAGE, id));
+  }
+
+  /**
+   * Returns the HTTP status code associated with the exception, which is {@code
+   * HttpStatus.PRECONDITION_FAILED}.
+   *
+   * @return {@code HttpStatus.PRECONDITION_FAILED}
+   */
+  @Override
+  public HttpStatus getStatusCode() {
+    return HttpStatus.PRECONDITION_FAILED;
+  }
+}
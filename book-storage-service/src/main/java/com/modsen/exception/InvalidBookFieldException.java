@@ -0,0 +1,35 @@
+package com.modsen.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The {@code InvalidBookFieldException} class represents an exception that is thrown when a client
+ * requests a book field that does not exist.
+ *
+ * <p>This exception extends {@code AbstractExceptionMessageException} and provides a specific
+ * message naming the unknown field.
+ */
+public class InvalidBookFieldException extends AbstractExceptionMessageException {
+
+  private static final String EXCEPTION_MESSAGE = "Unknown book field '%s'";
+
+  /**
+   * Constructs a new {@code InvalidBookFieldException} for the specified field.
+   *
+   * @param field the requested field
+   */
+  public InvalidBookFieldException(String field) {
+    super(String.format(EXCEPTION_MESSAGE, field));
+  }
+
+  /**
+   * Returns the HTTP status code associated with the exception, which is {@code
+   * HttpStatus.BAD_REQUEST}.
+   *
+   * @return {@code HttpStatus.BAD_REQUEST}
+   */
+  @Override
+  public HttpStatus getStatusCode() {
+    return HttpStatus.BAD_REQUEST;
+  }
+}
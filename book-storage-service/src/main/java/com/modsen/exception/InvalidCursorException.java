@@ -0,0 +1,35 @@
+package com.modsen.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The {@code InvalidCursorException} class represents an exception that is thrown when a pagination
+ * cursor cannot be decoded or does not match the requested ordering.
+ *
+ * <p>This exception extends {@code AbstractExceptionMessageException} and provides a specific
+ * message containing the rejected cursor.
+ */
+public class InvalidCursorException extends AbstractExceptionMessageException {
+
+  private static final String EXCEPTION_MESSAGE = "Invalid cursor: %s";
+
+  /**
+   * Constructs a new {@code InvalidCursorException} with the specified cursor.
+   *
+   * @param cursor the cursor that could not be decoded
+   */
+  public InvalidCursorException(String cursor) {
+    super(String.format(EXCEPTION_MESSAGE, cursor));
+  }
+
+  /**
+   * Returns the HTTP status code associated with the exception, which is {@code
+   * HttpStatus.BAD_REQUEST}.
+   *
+   * @return {@code HttpStatus.BAD_REQUEST}
+   */
+  @Override
+  public HttpStatus getStatusCode() {
+    return HttpStatus.BAD_REQUEST;
+  }
+}
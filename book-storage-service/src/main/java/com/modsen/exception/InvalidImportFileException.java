@@ -0,0 +1,35 @@
+package com.modsen.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The {@code InvalidImportFileException} class represents an exception that is thrown when an
+ * uploaded catalog file cannot be imported as a whole, for example because its header is missing.
+ *
+ * <p>This exception extends {@code AbstractExceptionMessageException} and provides a specific
+ * message describing the problem.
+ */
+public class InvalidImportFileException extends AbstractExceptionMessageException {
+
+  private static final String EXCEPTION_MESSAGE = "Invalid import file: %s";
+
+  /**
+   * Constructs a new {@code InvalidImportFileException} with the specified reason.
+   *
+   * @param reason the reason the file was rejected
+   */
+  public InvalidImportFileException(String reason) {
+    super(String.format(EXCEPTION_MESSAGE, reason));
+  }
+
+  /**
+   * Returns the HTTP status code associated with the exception, which is {@code
+   * HttpStatus.BAD_REQUEST}.
+   *
+   * @return {@code HttpStatus.BAD_REQUEST}
+   */
+  @Override
+  public HttpStatus getStatusCode() {
+    return HttpStatus.BAD_REQUEST;
+  }
+}
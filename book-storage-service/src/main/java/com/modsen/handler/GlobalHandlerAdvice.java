@@ -2,8 +2,10 @@ package com.modsen.handler;
 
 import com.modsen.exception.AbstractExceptionMessageException;
 import com.modsen.exception.ExceptionMessage;
+import jakarta.validation.ConstraintViolationException;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -44,4 +46,28 @@ public class GlobalHandlerAdvice {
 
     return ResponseEntity.badRequest().body(responseError);
   }
+
+  @ExceptionHandler
+  public ResponseEntity<ExceptionMessage> handleThrowable(ConstraintViolationException e) {
+    var message =
+        e.getConstraintViolations().stream()
+            .map(violation -> violation.getPropertyPath() + " = " + violation.getMessage())
+            .collect(Collectors.joining("; "));
+
+    if (message.isEmpty()) {
+      message = HttpStatus.BAD_REQUEST.toString();
+    }
+
+    var responseError = new ExceptionMessage(HttpStatus.BAD_REQUEST, message);
+
+    return ResponseEntity.badRequest().body(responseError);
+  }
+
+  @ExceptionHandler
+  public ResponseEntity<ExceptionMessage> handleThrowable(DataIntegrityViolationException e) {
+    var responseError =
+        new ExceptionMessage(HttpStatus.CONFLICT, HttpStatus.CONFLICT.getReasonPhrase());
+
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(responseError);
+  }
 }
@@ -0,0 +1,397 @@
+package com.modsen.index;
+
+import com.modsen.model.dto.response.BookSuggestionResponse;
+import com.modsen.model.entity.Book;
+import com.modsen.model.entity.enums.SuggestionType;
+import com.modsen.repository.BookRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Suggests titles and authors for a typed prefix without touching the database.
+ *
+ * <p>The number of books per distinct title and per author is kept in memory and kept current from
+ * the writes of this instance, after their transaction commits, and from the book events of every
+ * instance. Lookups are served from an immutable snapshot of sorted terms with a max-weight segment
+ * tree over their weights: the terms sharing a prefix form a contiguous range, and the heaviest N
+ * of them are extracted in {@code O(N log T)} however long the range is.
+ *
+ * <p>Writes only note which terms they changed. The background refresh takes those few terms under
+ * the monitor and merges them into a copy of the published snapshot outside it, so a write shows up
+ * in the suggestions within the refresh interval and neither writes nor lookups wait for the whole
+ * term list to be copied or sorted. The counts are also rebuilt periodically, to repair events that
+ * were missed or arrived out of order.
+ */
+@Component
+@RequiredArgsConstructor
+public class AutocompleteIndex {
+
+  private final BookRepository bookRepository;
+  private final Object rebuildLock = new Object();
+  private final Object refreshLock = new Object();
+
+  private Terms terms = new Terms();
+  private List<Consumer<Terms>> changedWhileBuilding;
+  private volatile Map<SuggestionType, Snapshot> snapshots = Snapshot.empty();
+
+  /**
+   * Returns the heaviest titles and authors starting with the prefix, ignoring case.
+   *
+   * @param prefix the typed prefix
+   * @param type the kind of suggestions, or {@code null} for both
+   * @param limit the maximum number of suggestions
+   * @return the suggestions by descending weight
+   */
+  public List<BookSuggestionResponse> suggest(String prefix, SuggestionType type, int limit) {
+    var key = normalize(prefix);
+    var current = snapshots;
+    var suggestions = new ArrayList<BookSuggestionResponse>();
+    for (var snapshotType : SuggestionType.values()) {
+      if (Objects.isNull(type) || type == snapshotType) {
+        suggestions.addAll(current.get(snapshotType).top(key, snapshotType, limit));
+      }
+    }
+    suggestions.sort(Comparator.comparingInt(BookSuggestionResponse::weight).reversed());
+    return suggestions.size() > limit ? suggestions.subList(0, limit) : suggestions;
+  }
+
+  /**
+   * Records the current title and author of a book once the surrounding transaction commits.
+   *
+   * @param book the created or updated book
+   */
+  public void put(Book book) {
+    putAll(List.of(book));
+  }
+
+  /**
+   * Records the current titles and authors of many books once the surrounding transaction commits.
+   *
+   * @param books the created or updated books
+   */
+  public void putAll(Collection<Book> books) {
+    var entries =
+        books.stream()
+            .map(book -> new BookTitleEntry(book.getId(), book.getName(), book.getAuthor()))
+            .toList();
+    TransactionCallbacks.afterCommit(
+        () -> entries.forEach(entry -> apply(index -> index.put(entry))));
+  }
+
+  /**
+   * Records the current title and author of a book once the surrounding transaction commits, or
+   * right away for a change reported by another instance.
+   *
+   * @param entry the created or updated book
+   */
+  public void put(BookTitleEntry entry) {
+    TransactionCallbacks.afterCommit(() -> apply(index -> index.put(entry)));
+  }
+
+  /**
+   * Forgets a book once the surrounding transaction commits.
+   *
+   * @param id the id of the deleted book
+   */
+  public void remove(Long id) {
+    TransactionCallbacks.afterCommit(() -> apply(index -> index.remove(id)));
+  }
+
+  /** Merges the terms changed since the last refresh into a new lookup snapshot. */
+  @Scheduled(fixedDelayString = "${books.autocomplete.refresh-interval:1s}")
+  public void refresh() {
+    synchronized (refreshLock) {
+      Map<SuggestionType, List<Term>> changes;
+      synchronized (this) {
+        changes = terms.drainChanges();
+      }
+      if (changes.isEmpty()) {
+        return;
+      }
+      var next = new EnumMap<>(snapshots);
+      changes.forEach((type, typeChanges) -> next.put(type, next.get(type).merge(typeChanges)));
+      snapshots = next;
+    }
+  }
+
+  /** Rebuilds the counts from the current contents of the {@code books} table. */
+  @Transactional(readOnly = true)
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${books.autocomplete.rebuild-interval:1h}",
+      fixedDelayString = "${books.autocomplete.rebuild-interval:1h}")
+  public void rebuild() {
+    synchronized (rebuildLock) {
+      var next = new Terms();
+      synchronized (this) {
+        changedWhileBuilding = new ArrayList<>();
+      }
+      try (var entries = bookRepository.streamAllTitleEntries()) {
+        entries.forEach(next::put);
+        var compiled = next.compile();
+        synchronized (refreshLock) {
+          synchronized (this) {
+            // a committed write is never older than the scanned row, so replaying it is safe
+            changedWhileBuilding.forEach(change -> change.accept(next));
+            terms = next;
+          }
+          snapshots = compiled;
+        }
+      } finally {
+        synchronized (this) {
+          changedWhileBuilding = null;
+        }
+      }
+    }
+    refresh();
+  }
+
+  private synchronized void apply(Consumer<Terms> change) {
+    change.accept(terms);
+    if (Objects.nonNull(changedWhileBuilding)) {
+      changedWhileBuilding.add(change);
+    }
+  }
+
+  private static String normalize(String text) {
+    return text.strip().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * A distinct title or author and the number of books carrying it.
+   *
+   * @param key the normalized term
+   * @param text the term as first written
+   * @param weight the number of books; {@code 0} once no book carries the term any more
+   */
+  private record Term(String key, String text, int weight) {}
+
+  /**
+   * The counts of one generation of the index, and the terms changed since they were last drained.
+   * Guarded by the index monitor once published.
+   */
+  private static class Terms {
+    private final Map<Long, BookTitleEntry> books = new HashMap<>();
+    private final Map<SuggestionType, Map<String, Term>> terms =
+        new EnumMap<>(SuggestionType.class);
+    private final Map<SuggestionType, Set<String>> changed = new EnumMap<>(SuggestionType.class);
+
+    Terms() {
+      for (var type : SuggestionType.values()) {
+        terms.put(type, new HashMap<>());
+        changed.put(type, new HashSet<>());
+      }
+    }
+
+    void put(BookTitleEntry entry) {
+      remove(entry.id());
+      books.put(entry.id(), entry);
+      add(SuggestionType.TITLE, entry.name(), 1);
+      add(SuggestionType.AUTHOR, entry.author(), 1);
+    }
+
+    void remove(Long id) {
+      var previous = books.remove(id);
+      if (Objects.nonNull(previous)) {
+        add(SuggestionType.TITLE, previous.name(), -1);
+        add(SuggestionType.AUTHOR, previous.author(), -1);
+      }
+    }
+
+    /** Returns the current state of every changed term, by type, and forgets the changes. */
+    Map<SuggestionType, List<Term>> drainChanges() {
+      var changes = new EnumMap<SuggestionType, List<Term>>(SuggestionType.class);
+      changed.forEach(
+          (type, keys) -> {
+            if (!keys.isEmpty()) {
+              var typeTerms = terms.get(type);
+              changes.put(
+                  type,
+                  keys.stream()
+                      .map(key -> typeTerms.getOrDefault(key, new Term(key, null, 0)))
+                      .toList());
+              keys.clear();
+            }
+          });
+      return changes;
+    }
+
+    /** Compiles a snapshot of all terms and forgets the changes. */
+    Map<SuggestionType, Snapshot> compile() {
+      changed.values().forEach(Set::clear);
+      var compiled = new EnumMap<SuggestionType, Snapshot>(SuggestionType.class);
+      terms.forEach(
+          (type, typeTerms) -> compiled.put(type, Snapshot.of(List.copyOf(typeTerms.values()))));
+      return compiled;
+    }
+
+    private void add(SuggestionType type, String text, int delta) {
+      var key = normalize(text);
+      var typeTerms = terms.get(type);
+      var current = typeTerms.get(key);
+      var weight = (Objects.isNull(current) ? 0 : current.weight()) + delta;
+      if (weight <= 0) {
+        typeTerms.remove(key);
+      } else {
+        var written = Objects.isNull(current) ? text.strip() : current.text();
+        typeTerms.put(key, new Term(key, written, weight));
+      }
+      changed.get(type).add(key);
+    }
+  }
+
+  /**
+   * An immutable, sorted view of the terms of one type.
+   *
+   * @param keys the normalized terms in ascending order
+   * @param texts the terms as first written, aligned with the keys
+   * @param weights the weights, aligned with the keys
+   * @param tree a bottom-up segment tree holding the index of the heaviest term of every node
+   */
+  private record Snapshot(String[] keys, String[] texts, int[] weights, int[] tree) {
+
+    static Map<SuggestionType, Snapshot> empty() {
+      var empty = new EnumMap<SuggestionType, Snapshot>(SuggestionType.class);
+      for (var type : SuggestionType.values()) {
+        empty.put(type, of(List.of()));
+      }
+      return empty;
+    }
+
+    static Snapshot of(List<Term> terms) {
+      var sorted = terms.stream().sorted(Comparator.comparing(Term::key)).toList();
+      var size = sorted.size();
+      var keys = new String[size];
+      var texts = new String[size];
+      var weights = new int[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = sorted.get(i).key();
+        texts[i] = sorted.get(i).text();
+        weights[i] = sorted.get(i).weight();
+      }
+      return of(keys, texts, weights);
+    }
+
+    private static Snapshot of(String[] keys, String[] texts, int[] weights) {
+      var size = keys.length;
+      var tree = new int[2 * size];
+      for (int i = 0; i < size; i++) {
+        tree[size + i] = i;
+      }
+      for (int node = size - 1; node > 0; node--) {
+        tree[node] = heavier(weights, tree[2 * node], tree[2 * node + 1]);
+      }
+      return new Snapshot(keys, texts, weights, tree);
+    }
+
+    /**
+     * Returns a copy of this snapshot with the changed terms replaced, added or, at weight {@code
+     * 0}, removed. The terms are merged in one pass over the sorted keys, without sorting them
+     * again.
+     */
+    Snapshot merge(List<Term> changes) {
+      var sorted = changes.stream().sorted(Comparator.comparing(Term::key)).toList();
+      var capacity = keys.length + sorted.size();
+      var mergedKeys = new String[capacity];
+      var mergedTexts = new String[capacity];
+      var mergedWeights = new int[capacity];
+      int size = 0;
+      int i = 0;
+      for (var change : sorted) {
+        for (; i < keys.length && keys[i].compareTo(change.key()) < 0; i++, size++) {
+          mergedKeys[size] = keys[i];
+          mergedTexts[size] = texts[i];
+          mergedWeights[size] = weights[i];
+        }
+        if (i < keys.length && keys[i].equals(change.key())) {
+          i++;
+        }
+        if (change.weight() > 0) {
+          mergedKeys[size] = change.key();
+          mergedTexts[size] = change.text();
+          mergedWeights[size] = change.weight();
+          size++;
+        }
+      }
+      for (; i < keys.length; i++, size++) {
+        mergedKeys[size] = keys[i];
+        mergedTexts[size] = texts[i];
+        mergedWeights[size] = weights[i];
+      }
+      return of(
+          Arrays.copyOf(mergedKeys, size),
+          Arrays.copyOf(mergedTexts, size),
+          Arrays.copyOf(mergedWeights, size));
+    }
+
+    List<BookSuggestionResponse> top(String prefix, SuggestionType type, int limit) {
+      var from = lowerBound(prefix);
+      var to = lowerBound(prefix + Character.MAX_VALUE);
+      var ranges =
+          new PriorityQueue<int[]>(
+              Comparator.<int[]>comparingInt(range -> -weights[range[2]])
+                  .thenComparingInt(range -> range[2]));
+      if (from < to) {
+        ranges.add(new int[] {from, to, heaviest(from, to)});
+      }
+      var top = new ArrayList<BookSuggestionResponse>(limit);
+      while (top.size() < limit && !ranges.isEmpty()) {
+        var range = ranges.poll();
+        var index = range[2];
+        top.add(new BookSuggestionResponse(texts[index], type, weights[index]));
+        if (range[0] < index) {
+          ranges.add(new int[] {range[0], index, heaviest(range[0], index)});
+        }
+        if (index + 1 < range[1]) {
+          ranges.add(new int[] {index + 1, range[1], heaviest(index + 1, range[1])});
+        }
+      }
+      return top;
+    }
+
+    private int lowerBound(String key) {
+      var index = Arrays.binarySearch(keys, key);
+      return index >= 0 ? index : -index - 1;
+    }
+
+    /** The index of the heaviest term in {@code [from, to)}. */
+    private int heaviest(int from, int to) {
+      var size = keys.length;
+      var best = from;
+      for (int left = from + size, right = to + size; left < right; left >>= 1, right >>= 1) {
+        if ((left & 1) == 1) {
+          best = heavier(weights, best, tree[left++]);
+        }
+        if ((right & 1) == 1) {
+          best = heavier(weights, best, tree[--right]);
+        }
+      }
+      return best;
+    }
+
+    private static int heavier(int[] weights, int first, int second) {
+      if (weights[first] != weights[second]) {
+        return weights[first] > weights[second] ? first : second;
+      }
+      return Math.min(first, second);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.modsen.index;
+
+import com.modsen.model.entity.enums.GenreType;
+
+/**
+ * The columns of a book the facet index is built from.
+ *
+ * @param id the id of the book
+ * @param genre the genre of the book
+ * @param author the author of the book
+ */
+public record BookFacetEntry(Long id, GenreType genre, String author) {}
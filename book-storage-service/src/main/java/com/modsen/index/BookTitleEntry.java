@@ -0,0 +1,10 @@
+package com.modsen.index;
+
+/**
+ * The columns of a book the autocomplete index is built from.
+ *
+ * @param id the id of the book
+ * @param name the name of the book
+ * @param author the author of the book
+ */
+public record BookTitleEntry(Long id, String name, String author) {}
@@ -0,0 +1,249 @@
+package com.modsen.index;
+
+import com.modsen.model.dto.response.BookFacetResponse;
+import com.modsen.model.entity.Book;
+import com.modsen.model.entity.enums.GenreType;
+import com.modsen.repository.BookRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Counts books per genre and per author from compressed bitmaps of book ids.
+ *
+ * <p>Every genre and every author owns a {@link RoaringBitmap} of the ids of its books, so the
+ * books of any combination of genres are the union of a few bitmaps and each author count is the
+ * cardinality of an intersection. Authors are also kept ranked by their number of books, so the top
+ * authors are found by walking the ranking and stopping at the first author with fewer books than
+ * the current top ones, instead of intersecting every author.
+ *
+ * <p>The bitmaps are built from a streaming scan once the application is ready and then kept
+ * current from the writes of this instance and the book events of every instance; local changes are
+ * applied only after their transaction commits, so rolled-back writes never show up in the counts.
+ * The index is also rebuilt periodically, to repair events that were missed or arrived out of
+ * order. A rebuild scans into a new generation without holding the lock, then replays the changes
+ * made meanwhile and swaps it in under a single lock.
+ */
+@Component
+@RequiredArgsConstructor
+public class GenreFacetIndex {
+
+  private final BookRepository bookRepository;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object rebuildLock = new Object();
+
+  private Postings postings = new Postings();
+  private List<Consumer<Postings>> changedWhileBuilding;
+
+  /**
+   * Counts the books per genre, and per author among the books of the given genres.
+   *
+   * @param genres the genres to filter by, all books if empty
+   * @param authorLimit the maximum number of authors to return
+   * @return the counts
+   */
+  public BookFacetResponse facets(Set<GenreType> genres, int authorLimit) {
+    lock.readLock().lock();
+    try {
+      var genreCounts = new EnumMap<GenreType, Long>(GenreType.class);
+      for (var genre : GenreType.values()) {
+        genreCounts.put(genre, postings.genre(genre).getLongCardinality());
+      }
+      var filter =
+          genres.isEmpty()
+              ? null
+              : RoaringBitmap.or(genres.stream().map(postings::genre).iterator());
+      var total = Objects.isNull(filter) ? postings.size() : filter.getLongCardinality();
+      return new BookFacetResponse(total, genreCounts, topAuthors(filter, authorLimit));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Records the current genre and author of a book once the surrounding transaction commits.
+   *
+   * @param book the created or updated book
+   */
+  public void put(Book book) {
+    putAll(List.of(book));
+  }
+
+  /**
+   * Records the current genre and author of many books once the surrounding transaction commits.
+   *
+   * @param books the created or updated books
+   */
+  public void putAll(Collection<Book> books) {
+    var entries =
+        books.stream()
+            .map(book -> new BookFacetEntry(book.getId(), book.getGenre(), book.getAuthor()))
+            .toList();
+    TransactionCallbacks.afterCommit(
+        () -> entries.forEach(entry -> apply(index -> index.put(entry))));
+  }
+
+  /**
+   * Records the current genre and author of a book once the surrounding transaction commits, or
+   * right away for a change reported by another instance.
+   *
+   * @param entry the created or updated book
+   */
+  public void put(BookFacetEntry entry) {
+    TransactionCallbacks.afterCommit(() -> apply(index -> index.put(entry)));
+  }
+
+  /**
+   * Forgets a book once the surrounding transaction commits.
+   *
+   * @param id the id of the deleted book
+   */
+  public void remove(Long id) {
+    TransactionCallbacks.afterCommit(() -> apply(index -> index.remove(toBit(id))));
+  }
+
+  /** Rebuilds the bitmaps from the current contents of the {@code books} table. */
+  @Transactional(readOnly = true)
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${books.facets.rebuild-interval:1h}",
+      fixedDelayString = "${books.facets.rebuild-interval:1h}")
+  public void rebuild() {
+    synchronized (rebuildLock) {
+      var next = new Postings();
+      withWriteLock(() -> changedWhileBuilding = new ArrayList<>());
+      try (var entries = bookRepository.streamAllFacetEntries()) {
+        entries.forEach(next::put);
+        withWriteLock(
+            () -> {
+              // a committed write is never older than the scanned row, so replaying it is safe
+              changedWhileBuilding.forEach(change -> change.accept(next));
+              postings = next;
+            });
+      } finally {
+        withWriteLock(() -> changedWhileBuilding = null);
+      }
+    }
+  }
+
+  private Map<String, Long> topAuthors(RoaringBitmap filter, int authorLimit) {
+    Comparator<Map.Entry<String, Long>> byCount =
+        Map.Entry.<String, Long>comparingByValue()
+            .thenComparing(Map.Entry.<String, Long>comparingByKey().reversed());
+    var top = new PriorityQueue<>(byCount);
+    for (var rank : postings.authorRanking) {
+      // an author never has more matching books than books, so no later author can rank higher
+      if (top.size() >= authorLimit && rank.books() < top.peek().getValue()) {
+        break;
+      }
+      var count =
+          Objects.isNull(filter)
+              ? rank.books()
+              : RoaringBitmap.andCardinality(postings.authors.get(rank.author()), filter);
+      if (count > 0) {
+        top.add(Map.entry(rank.author(), count));
+        if (top.size() > authorLimit) {
+          top.poll();
+        }
+      }
+    }
+    var authors = new LinkedHashMap<String, Long>();
+    top.stream()
+        .sorted(byCount.reversed())
+        .forEach(entry -> authors.put(entry.getKey(), entry.getValue()));
+    return authors;
+  }
+
+  private void apply(Consumer<Postings> change) {
+    withWriteLock(
+        () -> {
+          change.accept(postings);
+          if (Objects.nonNull(changedWhileBuilding)) {
+            changedWhileBuilding.add(change);
+          }
+        });
+  }
+
+  private void withWriteLock(Runnable action) {
+    lock.writeLock().lock();
+    try {
+      action.run();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static int toBit(Long id) {
+    return Math.toIntExact(id);
+  }
+
+  /** The bitmaps of one generation of the index. Guarded by the index lock once it is published. */
+  private static class Postings {
+    private final Map<GenreType, RoaringBitmap> genres = new EnumMap<>(GenreType.class);
+    private final Map<String, RoaringBitmap> authors = new HashMap<>();
+    private final NavigableSet<AuthorRank> authorRanking =
+        new TreeSet<>(
+            Comparator.comparingLong(AuthorRank::books)
+                .reversed()
+                .thenComparing(AuthorRank::author));
+    private final Map<Integer, BookFacetEntry> books = new HashMap<>();
+
+    RoaringBitmap genre(GenreType genre) {
+      return genres.getOrDefault(genre, new RoaringBitmap());
+    }
+
+    long size() {
+      return books.size();
+    }
+
+    void put(BookFacetEntry entry) {
+      var bit = toBit(entry.id());
+      remove(bit);
+      books.put(bit, entry);
+      genres.computeIfAbsent(entry.genre(), genre -> new RoaringBitmap()).add(bit);
+      var authorBooks = authors.computeIfAbsent(entry.author(), author -> new RoaringBitmap());
+      authorRanking.remove(new AuthorRank(entry.author(), authorBooks.getLongCardinality()));
+      authorBooks.add(bit);
+      authorRanking.add(new AuthorRank(entry.author(), authorBooks.getLongCardinality()));
+    }
+
+    void remove(int bit) {
+      var previous = books.remove(bit);
+      if (Objects.isNull(previous)) {
+        return;
+      }
+      genres.get(previous.genre()).remove(bit);
+      var authorBooks = authors.get(previous.author());
+      authorRanking.remove(new AuthorRank(previous.author(), authorBooks.getLongCardinality()));
+      authorBooks.remove(bit);
+      if (authorBooks.isEmpty()) {
+        authors.remove(previous.author());
+      } else {
+        authorRanking.add(new AuthorRank(previous.author(), authorBooks.getLongCardinality()));
+      }
+    }
+  }
+
+  /** An author and their number of books, as ranked for the top authors. */
+  private record AuthorRank(String author, long books) {}
+}
@@ -0,0 +1,136 @@
+package com.modsen.index;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.modsen.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Answers "is this ISBN definitely unused?" without touching the database.
+ *
+ * <p>The filter is built from a streaming scan of all ISBNs once the application is ready and kept
+ * current from the writes of this instance and the book events of every instance. An ISBN written
+ * elsewhere can still be missing until its event arrives, so a negative answer only lets the caller
+ * skip the pre-check: the unique constraint on {@code books.isbn} decides. Bloom filters cannot
+ * forget entries, so the filter is also rebuilt periodically to drop deleted ISBNs.
+ */
+@Component
+public class IsbnBloomFilter {
+  private static final String METRIC_CHECKS = "books.isbn.filter.checks";
+  private static final String METRIC_FALSE_POSITIVES = "books.isbn.filter.false.positives";
+  private static final String METRIC_EXPECTED_FPP = "books.isbn.filter.expected.fpp";
+  private static final String TAG_RESULT = "result";
+
+  private final BookRepository bookRepository;
+  private final long minimumCapacity;
+  private final double falsePositiveRate;
+  private final Counter absentChecks;
+  private final Counter presentChecks;
+  private final Counter falsePositives;
+  private final Object rebuildLock = new Object();
+
+  private volatile BloomFilter<CharSequence> filter;
+  private volatile BloomFilter<CharSequence> building;
+
+  public IsbnBloomFilter(
+      BookRepository bookRepository,
+      MeterRegistry meterRegistry,
+      @Value("${books.isbn-filter.minimum-capacity:1000000}") long minimumCapacity,
+      @Value("${books.isbn-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.bookRepository = bookRepository;
+    this.minimumCapacity = minimumCapacity;
+    this.falsePositiveRate = falsePositiveRate;
+    this.absentChecks = meterRegistry.counter(METRIC_CHECKS, TAG_RESULT, "absent");
+    this.presentChecks = meterRegistry.counter(METRIC_CHECKS, TAG_RESULT, "maybe");
+    this.falsePositives = meterRegistry.counter(METRIC_FALSE_POSITIVES);
+    Gauge.builder(METRIC_EXPECTED_FPP, this, IsbnBloomFilter::expectedFalsePositiveRate)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Checks whether the ISBN may already be taken. Until the filter is built every ISBN is reported
+   * as possibly present.
+   *
+   * @param isbn the ISBN to check
+   * @return {@code false} if the ISBN is definitely not used by any book
+   */
+  public boolean mightContain(String isbn) {
+    var current = filter;
+    var maybe = Objects.isNull(current) || current.mightContain(isbn);
+    (maybe ? presentChecks : absentChecks).increment();
+    return maybe;
+  }
+
+  /**
+   * Checks whether the ISBN is taken, consulting the database only when the filter cannot rule it
+   * out.
+   *
+   * @param isbn the ISBN to check
+   * @param lookup the authoritative database check
+   * @return {@code true} if a book with the ISBN exists
+   */
+  public boolean exists(String isbn, Predicate<String> lookup) {
+    if (!mightContain(isbn)) {
+      return false;
+    }
+    var exists = lookup.test(isbn);
+    if (!exists) {
+      falsePositives.increment();
+    }
+    return exists;
+  }
+
+  /**
+   * Records a written ISBN, including in a filter that is being rebuilt concurrently.
+   *
+   * @param isbn the ISBN that is now in use
+   */
+  public void put(String isbn) {
+    var current = filter;
+    if (Objects.nonNull(current)) {
+      current.put(isbn);
+    }
+    var next = building;
+    if (Objects.nonNull(next)) {
+      next.put(isbn);
+    }
+  }
+
+  /** Rebuilds the filter from the current contents of the {@code books} table. */
+  @Transactional(readOnly = true)
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${books.isbn-filter.rebuild-interval:1h}",
+      fixedDelayString = "${books.isbn-filter.rebuild-interval:1h}")
+  public void rebuild() {
+    synchronized (rebuildLock) {
+      var capacity = Math.max(minimumCapacity, bookRepository.count() * 2);
+      var next =
+          BloomFilter.create(
+              Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, falsePositiveRate);
+      building = next;
+      try (var isbns = bookRepository.streamAllIsbns()) {
+        isbns.forEach(next::put);
+        filter = next;
+      } finally {
+        building = null;
+      }
+    }
+  }
+
+  private double expectedFalsePositiveRate() {
+    var current = filter;
+    return Objects.isNull(current) ? 1.0 : current.expectedFpp();
+  }
+}
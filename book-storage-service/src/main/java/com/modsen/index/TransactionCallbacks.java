@@ -0,0 +1,29 @@
+package com.modsen.index;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Defers in-memory index changes until the database change behind them is committed. */
+public final class TransactionCallbacks {
+
+  private TransactionCallbacks() {}
+
+  /**
+   * Runs the action once the current transaction commits, or immediately outside a transaction.
+   *
+   * @param action the index change
+   */
+  public static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+}
@@ -1,8 +1,11 @@
 package com.modsen.mapper;
 
+import com.modsen.event.BookSnapshot;
 import com.modsen.model.dto.request.BookRequest;
 import com.modsen.model.dto.response.BookResponse;
+import com.modsen.model.dto.response.BookSummaryResponse;
 import com.modsen.model.entity.Book;
+import com.modsen.repository.BookChangeRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -11,6 +14,7 @@ import org.mapstruct.MappingTarget;
 public interface BookMapper {
 
   @Mapping(target = Book.Fields.id, ignore = true)
+  @Mapping(target = Book.Fields.version, ignore = true)
   @Mapping(target = Book.Fields.name, source = Book.Fields.name)
   @Mapping(target = Book.Fields.author, source = Book.Fields.author)
   @Mapping(target = Book.Fields.isbn, source = Book.Fields.isbn)
@@ -19,7 +23,15 @@ public interface BookMapper {
   @Mapping(target = Book.Fields.isbn, source = Book.Fields.isbn)
   BookResponse toBookResponse(Book book);
 
+  @Mapping(target = Book.Fields.description, ignore = true)
+  BookResponse toBookResponse(BookSummaryResponse bookSummaryResponse);
+
   @Mapping(target = Book.Fields.id, ignore = true)
+  @Mapping(target = Book.Fields.version, ignore = true)
   @Mapping(target = Book.Fields.name, source = Book.Fields.name)
   Book update(BookRequest bookRequest, @MappingTarget Book current);
+
+  Book toBook(BookChangeRow bookChangeRow);
+
+  BookSnapshot toBookSnapshot(Book book);
 }
@@ -0,0 +1,68 @@
+package com.modsen.model.dto.request;
+
+import com.modsen.exception.InvalidCursorException;
+import com.modsen.model.entity.enums.BookSortKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * An opaque position in a keyset-paginated book listing.
+ *
+ * <p>The cursor holds the sort key it was issued for, the value of that key on the last returned
+ * row and the row's id as a tie-breaker. It is exchanged with clients as a URL-safe Base64 string.
+ *
+ * @param sortKey the ordering the cursor belongs to
+ * @param value the sort column value of the last returned row
+ * @param id the id of the last returned row
+ */
+public record BookCursor(BookSortKey sortKey, String value, long id) {
+  private static final String SEPARATOR = ":";
+
+  /**
+   * Returns the position before the first row of the given ordering.
+   *
+   * @param sortKey the ordering to start from
+   * @return the initial cursor
+   */
+  public static BookCursor first(BookSortKey sortKey) {
+    return new BookCursor(sortKey, "", 0L);
+  }
+
+  /**
+   * Decodes a cursor previously produced by {@link #encode()}, or returns the initial position when
+   * no cursor is given.
+   *
+   * @param cursor the encoded cursor, may be {@code null}
+   * @param sortKey the ordering the cursor must belong to
+   * @return the decoded cursor
+   * @throws InvalidCursorException if the cursor is malformed or was issued for another ordering
+   */
+  public static BookCursor decode(String cursor, BookSortKey sortKey) {
+    if (Objects.isNull(cursor) || cursor.isBlank()) {
+      return first(sortKey);
+    }
+    try {
+      var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      var parts = decoded.split(SEPARATOR, 3);
+      if (parts.length != 3 || BookSortKey.valueOf(parts[0]) != sortKey) {
+        throw new InvalidCursorException(cursor);
+      }
+      return new BookCursor(sortKey, parts[2], Long.parseLong(parts[1]));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException(cursor);
+    }
+  }
+
+  /**
+   * Encodes the cursor into its opaque string form.
+   *
+   * @return the URL-safe Base64 representation of the cursor
+   */
+  public String encode() {
+    var raw = String.join(SEPARATOR, sortKey.name(), String.valueOf(id), value);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,34 @@
+package com.modsen.model.dto.request;
+
+import com.modsen.model.entity.enums.GenreType;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The criteria of a filtered book listing, as served by {@code GET /api/v0/books/filter}. Every
+ * criterion is optional and all given criteria must match.
+ *
+ * <p>The filter is normalized on construction, so two requests asking for the same books produce
+ * equal filters with equal string forms, which the result cache relies on.
+ *
+ * @param genres the genres a book may have, any genre if empty
+ * @param author the exact author of a book
+ * @param name a fragment the name of a book must contain, ignoring case
+ * @param minId the smallest id of a book, inclusive
+ * @param maxId the largest id of a book, inclusive
+ */
+public record BookFilter(
+    Set<GenreType> genres, String author, String name, Long minId, Long maxId) {
+
+  public BookFilter {
+    genres =
+        Objects.isNull(genres) || genres.isEmpty()
+            ? Set.of()
+            : Collections.unmodifiableSet(EnumSet.copyOf(genres));
+    author = Objects.isNull(author) || author.isBlank() ? null : author.strip();
+    name = Objects.isNull(name) || name.isBlank() ? null : name.strip().toLowerCase(Locale.ROOT);
+  }
+}
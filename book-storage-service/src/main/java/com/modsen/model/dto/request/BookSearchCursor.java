@@ -0,0 +1,64 @@
+package com.modsen.model.dto.request;
+
+import com.modsen.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * An opaque position in a full-text search result ordered by descending relevance.
+ *
+ * <p>The cursor holds the relevance of the last returned match and its id as a tie-breaker. It is
+ * exchanged with clients as a URL-safe Base64 string, like {@link BookCursor}.
+ *
+ * @param rank the relevance of the last returned match
+ * @param id the id of the last returned match
+ */
+public record BookSearchCursor(float rank, long id) {
+  private static final String SEPARATOR = ":";
+
+  /**
+   * Returns the position before the most relevant match.
+   *
+   * @return the initial cursor
+   */
+  public static BookSearchCursor first() {
+    return new BookSearchCursor(Float.POSITIVE_INFINITY, 0L);
+  }
+
+  /**
+   * Decodes a cursor previously produced by {@link #encode()}, or returns the initial position when
+   * no cursor is given.
+   *
+   * @param cursor the encoded cursor, may be {@code null}
+   * @return the decoded cursor
+   * @throws InvalidCursorException if the cursor is malformed
+   */
+  public static BookSearchCursor decode(String cursor) {
+    if (Objects.isNull(cursor) || cursor.isBlank()) {
+      return first();
+    }
+    try {
+      var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      var parts = decoded.split(SEPARATOR, 2);
+      if (parts.length != 2) {
+        throw new InvalidCursorException(cursor);
+      }
+      return new BookSearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException(cursor);
+    }
+  }
+
+  /**
+   * Encodes the cursor into its opaque string form.
+   *
+   * @return the URL-safe Base64 representation of the cursor
+   */
+  public String encode() {
+    var raw = String.join(SEPARATOR, Float.toString(rank), String.valueOf(id));
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,24 @@
+package com.modsen.model.dto.response;
+
+/**
+ * The outcome of a single item of a batch book creation.
+ *
+ * @param index the position of the item in the request
+ * @param isbn the ISBN of the item
+ * @param status the outcome of the item
+ * @param id the id of the created book, {@code null} if the item was rejected
+ * @param message the reason the item was rejected, {@code null} if it was created
+ */
+public record BookBatchItemResponse(
+    int index, String isbn, Status status, Long id, String message) {
+
+  /** The possible outcomes of a batch item. */
+  public enum Status {
+    CREATED,
+    INVALID,
+    DUPLICATE,
+    CONFLICT,
+    /** The item was valid, but the chunk it was stored with failed and was rolled back. */
+    FAILED
+  }
+}
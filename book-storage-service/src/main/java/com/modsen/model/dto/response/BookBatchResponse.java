@@ -0,0 +1,12 @@
+package com.modsen.model.dto.response;
+
+import java.util.List;
+
+/**
+ * The report of a batch book creation.
+ *
+ * @param created the number of books created
+ * @param rejected the number of items rejected
+ * @param items the outcome of every item, in request order
+ */
+public record BookBatchResponse(int created, int rejected, List<BookBatchItemResponse> items) {}
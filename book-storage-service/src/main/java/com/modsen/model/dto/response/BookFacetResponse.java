@@ -0,0 +1,14 @@
+package com.modsen.model.dto.response;
+
+import com.modsen.model.entity.enums.GenreType;
+import java.util.Map;
+
+/**
+ * Book counts per genre and per author.
+ *
+ * @param total the number of books matching the genre filter
+ * @param genres the number of books of every genre, regardless of the genre filter
+ * @param authors the authors with the most books matching the genre filter, by descending count
+ */
+public record BookFacetResponse(
+    long total, Map<GenreType, Long> genres, Map<String, Long> authors) {}
@@ -0,0 +1,23 @@
+package com.modsen.model.dto.response;
+
+import com.modsen.model.entity.enums.GenreType;
+
+/**
+ * A book whose name or author resembles a possibly misspelled query.
+ *
+ * @param id the id of the book
+ * @param isbn the ISBN of the book
+ * @param name the name of the book
+ * @param genre the genre of the book
+ * @param author the author of the book
+ * @param version the row version of the book
+ * @param similarity the trigram word similarity of the query to the name or author, from 0 to 1
+ */
+public record BookFuzzyMatchResponse(
+    Long id,
+    String isbn,
+    String name,
+    GenreType genre,
+    String author,
+    Long version,
+    float similarity) {}
@@ -0,0 +1,17 @@
+package com.modsen.model.dto.response;
+
+import java.util.List;
+
+/**
+ * The report of a bulk catalog import.
+ *
+ * <p>Rows are stored in chunks, each in its own transaction. Every row that is not rejected has
+ * been applied; the rows of a chunk that failed to store are all rejected as {@code FAILED}.
+ *
+ * @param processed the number of data rows read from the file
+ * @param created the number of books created
+ * @param rejected the number of rows rejected
+ * @param rejections the first rejected rows, indexed by their line in the file
+ */
+public record BookImportResponse(
+    long processed, long created, long rejected, List<BookBatchItemResponse> rejections) {}
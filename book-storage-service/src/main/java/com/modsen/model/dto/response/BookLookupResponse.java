@@ -0,0 +1,13 @@
+package com.modsen.model.dto.response;
+
+import java.util.List;
+
+/**
+ * The result of a multi-get of books by key.
+ *
+ * @param books the book for every requested key, in request order, {@code null} where no book
+ *     matches the key
+ * @param missing the requested keys no book matches, in request order
+ * @param <K> the type of the keys
+ */
+public record BookLookupResponse<K>(List<BookResponse> books, List<K> missing) {}
@@ -0,0 +1,28 @@
+package com.modsen.model.dto.response;
+
+import com.modsen.model.entity.enums.GenreType;
+
+/**
+ * A book matching a full-text search.
+ *
+ * @param id the id of the book
+ * @param isbn the ISBN of the book
+ * @param name the name of the book
+ * @param genre the genre of the book
+ * @param author the author of the book
+ * @param version the row version of the book
+ * @param rank the relevance of the book to the query, higher is better
+ * @param highlightedName the name with the matched terms wrapped in {@code <b>} tags
+ * @param highlightedDescription the best matching fragments of the description, highlighted the
+ *     same way
+ */
+public record BookSearchResponse(
+    Long id,
+    String isbn,
+    String name,
+    GenreType genre,
+    String author,
+    Long version,
+    float rank,
+    String highlightedName,
+    String highlightedDescription) {}
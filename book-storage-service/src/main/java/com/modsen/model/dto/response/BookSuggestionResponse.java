@@ -0,0 +1,12 @@
+package com.modsen.model.dto.response;
+
+import com.modsen.model.entity.enums.SuggestionType;
+
+/**
+ * A title or author completing a typed prefix.
+ *
+ * @param text the suggested title or author
+ * @param type whether the suggestion is a title or an author
+ * @param weight the number of books with this title or by this author
+ */
+public record BookSuggestionResponse(String text, SuggestionType type, int weight) {}
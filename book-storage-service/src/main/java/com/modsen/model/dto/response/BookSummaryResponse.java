@@ -0,0 +1,16 @@
+package com.modsen.model.dto.response;
+
+import com.modsen.model.entity.enums.GenreType;
+
+/**
+ * A book without its description, read directly from the books table as a projection.
+ *
+ * @param id the id of the book
+ * @param isbn the ISBN of the book
+ * @param name the name of the book
+ * @param genre the genre of the book
+ * @param author the author of the book
+ * @param version the row version of the book
+ */
+public record BookSummaryResponse(
+    Long id, String isbn, String name, GenreType genre, String author, Long version) {}
@@ -0,0 +1,9 @@
+package com.modsen.model.dto.response;
+
+/**
+ * The identity and row version of a book, enough to build its ETag without loading the book.
+ *
+ * @param id the id of the book
+ * @param version the row version of the book
+ */
+public record BookVersionResponse(Long id, Long version) {}
@@ -6,7 +6,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,7 +22,8 @@ import org.hibernate.dialect.PostgreSQLEnumJdbcType;
 @Table(name = "books")
 public class Book {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_id_seq")
+  @SequenceGenerator(name = "books_id_seq", sequenceName = "books_id_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "isbn", nullable = false, unique = true)
@@ -39,6 +42,10 @@ public class Book {
   @Column(name = "author", nullable = false)
   private String author;
 
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
+
   public static class Fields {
     public static final String id = "id";
     public static final String isbn = "isbn";
@@ -46,5 +53,6 @@ public class Book {
     public static final String genre = "genre";
     public static final String description = "description";
     public static final String author = "author";
+    public static final String version = "version";
   }
 }
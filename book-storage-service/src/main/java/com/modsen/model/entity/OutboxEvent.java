@@ -0,0 +1,48 @@
+package com.modsen.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An event written in the same transaction as the change it describes and published to Kafka by the
+ * outbox relay once that transaction has committed.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "book_outbox")
+public class OutboxEvent {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_outbox_id_seq")
+  @SequenceGenerator(
+      name = "book_outbox_id_seq",
+      sequenceName = "book_outbox_id_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @Column(name = "topic", nullable = false)
+  private String topic;
+
+  @Column(name = "event_key")
+  private String eventKey;
+
+  @Column(name = "payload", nullable = false)
+  private byte[] payload;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  public OutboxEvent(String topic, String eventKey, byte[] payload) {
+    this(null, topic, eventKey, payload, Instant.now());
+  }
+}
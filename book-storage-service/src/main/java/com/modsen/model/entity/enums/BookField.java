@@ -0,0 +1,62 @@
+package com.modsen.model.entity.enums;
+
+import com.modsen.exception.InvalidBookFieldException;
+import com.modsen.model.dto.response.BookResponse;
+import com.modsen.model.entity.Book;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** The fields of a book a client can select with the {@code fields} parameter of a listing. */
+@Getter
+@RequiredArgsConstructor
+public enum BookField {
+  ID(Book.Fields.id, BookResponse::id),
+  ISBN(Book.Fields.isbn, BookResponse::isbn),
+  NAME(Book.Fields.name, BookResponse::name),
+  GENRE(Book.Fields.genre, BookResponse::genre),
+  DESCRIPTION(Book.Fields.description, BookResponse::description),
+  AUTHOR(Book.Fields.author, BookResponse::author),
+  VERSION(Book.Fields.version, BookResponse::version);
+
+  private final String property;
+  private final Function<BookResponse, Object> accessor;
+
+  /**
+   * Resolves the requested field names.
+   *
+   * @param names the field names, case-insensitive
+   * @return the requested fields
+   * @throws InvalidBookFieldException if a name does not match any field
+   */
+  public static Set<BookField> parse(Collection<String> names) {
+    var fields = EnumSet.noneOf(BookField.class);
+    for (var name : names) {
+      fields.add(
+          Arrays.stream(values())
+              .filter(field -> field.property.equalsIgnoreCase(name.strip()))
+              .findFirst()
+              .orElseThrow(() -> new InvalidBookFieldException(name)));
+    }
+    return fields;
+  }
+
+  /**
+   * Copies the selected fields of a book into a map keyed by field name, in declaration order.
+   *
+   * @param bookResponse the book
+   * @param fields the fields to copy
+   * @return the selected fields
+   */
+  public static Map<String, Object> select(BookResponse bookResponse, Set<BookField> fields) {
+    var selected = new LinkedHashMap<String, Object>();
+    fields.forEach(field -> selected.put(field.property, field.accessor.apply(bookResponse)));
+    return selected;
+  }
+}
@@ -0,0 +1,7 @@
+package com.modsen.model.entity.enums;
+
+/** The file formats accepted by the bulk catalog import. */
+public enum BookImportFormat {
+  CSV,
+  NDJSON
+}
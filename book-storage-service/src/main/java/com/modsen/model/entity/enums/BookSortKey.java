@@ -0,0 +1,8 @@
+package com.modsen.model.entity.enums;
+
+/** The columns a book listing can be ordered by when scrolling with a cursor. */
+public enum BookSortKey {
+  ID,
+  NAME,
+  AUTHOR
+}
@@ -0,0 +1,7 @@
+package com.modsen.model.entity.enums;
+
+/** The level of detail of the books returned by a listing. */
+public enum BookView {
+  FULL,
+  SUMMARY
+}
@@ -0,0 +1,7 @@
+package com.modsen.model.entity.enums;
+
+/** The kinds of text the autocomplete index suggests. */
+public enum SuggestionType {
+  TITLE,
+  AUTHOR
+}
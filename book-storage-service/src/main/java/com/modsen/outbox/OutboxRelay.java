@@ -0,0 +1,112 @@
+package com.modsen.outbox;
+
+import com.modsen.model.entity.OutboxEvent;
+import com.modsen.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes the events stored in the {@code book_outbox} table.
+ *
+ * <p>Only the instance holding the relay lease publishes, so events leave in one stream rather than
+ * in batches racing each other from several instances. Each run reads a batch of the oldest events
+ * in the order their transactions wrote them, sends it to Kafka without holding any lock or
+ * transaction, waits for every acknowledgement and then deletes the batch. If a send fails the
+ * batch stays in the outbox and is retried on the next run, so delivery is at least once. Batches
+ * are drained back to back, renewing the lease before each, until the outbox is empty.
+ */
+@Component
+public class OutboxRelay {
+  private static final String METRIC_PUBLISHED = "books.outbox.published";
+  private static final String METRIC_LAG = "books.outbox.lag";
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final KafkaTemplate<String, byte[]> kafkaTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final Duration sendTimeout;
+  private final Duration lease;
+  private final String owner = UUID.randomUUID().toString();
+  private final Counter published;
+  private final AtomicLong lagMillis = new AtomicLong();
+
+  public OutboxRelay(
+      OutboxEventRepository outboxEventRepository,
+      KafkaTemplate<String, byte[]> kafkaTemplate,
+      TransactionTemplate transactionTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${outbox.relay.batch-size:500}") int batchSize,
+      @Value("${outbox.relay.send-timeout:10s}") Duration sendTimeout,
+      @Value("${outbox.relay.lease:30s}") Duration lease) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.kafkaTemplate = kafkaTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.batchSize = batchSize;
+    this.sendTimeout = sendTimeout;
+    this.lease = lease;
+    this.published = meterRegistry.counter(METRIC_PUBLISHED);
+    Gauge.builder(METRIC_LAG, lagMillis, AtomicLong::get)
+        .baseUnit("milliseconds")
+        .description("Age of the oldest unpublished book event")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${outbox.relay.interval:500ms}")
+  public void relay() {
+    int relayed;
+    do {
+      relayed = holdsLease() ? relayBatch() : 0;
+    } while (relayed == batchSize);
+    lagMillis.set(
+        outboxEventRepository
+            .findOldestCreatedAt()
+            .map(createdAt -> Duration.between(createdAt, Instant.now()).toMillis())
+            .orElse(0L));
+  }
+
+  private boolean holdsLease() {
+    var acquired =
+        transactionTemplate.execute(
+            status -> outboxEventRepository.acquireLease(owner, lease.toMillis() / 1000.0));
+    return acquired != null && acquired == 1;
+  }
+
+  private int relayBatch() {
+    var events = outboxEventRepository.findNextBatch(batchSize);
+    if (events.isEmpty()) {
+      return 0;
+    }
+    var sends =
+        events.stream()
+            .map(
+                event ->
+                    kafkaTemplate.send(event.getTopic(), event.getEventKey(), event.getPayload()))
+            .toArray(CompletableFuture[]::new);
+    try {
+      CompletableFuture.allOf(sends).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new KafkaException("Interrupted while publishing outbox events", exception);
+    } catch (ExecutionException | TimeoutException exception) {
+      throw new KafkaException("Failed to publish outbox events", exception);
+    }
+    outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+    published.increment(events.size());
+    return events.size();
+  }
+}
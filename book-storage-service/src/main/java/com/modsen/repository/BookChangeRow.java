@@ -0,0 +1,23 @@
+package com.modsen.repository;
+
+/**
+ * A book as left by {@link BookRepository#updateReturning} or removed by {@link
+ * BookRepository#deleteReturning}, together with the ISBN it had before the change.
+ */
+public interface BookChangeRow {
+  Long getId();
+
+  String getIsbn();
+
+  String getName();
+
+  String getGenre();
+
+  String getDescription();
+
+  String getAuthor();
+
+  Long getVersion();
+
+  String getPreviousIsbn();
+}
@@ -0,0 +1,18 @@
+package com.modsen.repository;
+
+/** A fuzzy title or author match as returned by {@link BookRepository#findFuzzyMatches}. */
+public interface BookFuzzyMatchRow {
+  Long getId();
+
+  String getIsbn();
+
+  String getName();
+
+  String getGenre();
+
+  String getAuthor();
+
+  Long getVersion();
+
+  Float getSimilarity();
+}
@@ -1,20 +1,252 @@
 package com.modsen.repository;
 
+import com.modsen.index.BookFacetEntry;
+import com.modsen.index.BookTitleEntry;
+import com.modsen.model.dto.response.BookSummaryResponse;
+import com.modsen.model.dto.response.BookVersionResponse;
 import com.modsen.model.entity.Book;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookRepository extends AbstractRepository<Long, Book> {
+public interface BookRepository
+    extends AbstractRepository<Long, Book>, JpaSpecificationExecutor<Book> {
+  /** The mapped columns of {@code books}, leaving out the full-text search vector. */
+  String BOOK_COLUMNS = "b.id, b.isbn, b.name, b.genre, b.description, b.author, b.version";
+
   Optional<Book> findByIsbn(String isbn);
 
   boolean existsByIsbn(String isbn);
 
+  @Query(value = "SELECT b.isbn FROM books b WHERE b.isbn = ANY(:isbns)", nativeQuery = true)
+  Set<String> findExistingIsbns(@Param("isbns") String[] isbns);
+
+  @Query(
+      value = "SELECT " + BOOK_COLUMNS + " FROM books b WHERE b.id = ANY(:ids)",
+      nativeQuery = true)
+  List<Book> findAllByIds(@Param("ids") Long[] ids);
+
+  @Query(
+      value = "SELECT " + BOOK_COLUMNS + " FROM books b WHERE b.isbn = ANY(:isbns)",
+      nativeQuery = true)
+  List<Book> findAllByIsbns(@Param("isbns") String[] isbns);
+
   @Query("SELECT b FROM Book b WHERE b.id IN :bookIds")
   Page<Book> findBooksByIdIn(@Param("bookIds") List<Long> bookIds, Pageable pageable);
+
+  @Query(
+      value =
+          "SELECT new com.modsen.model.dto.response.BookSummaryResponse("
+              + "b.id, b.isbn, b.name, b.genre, b.author, b.version) FROM Book b",
+      countQuery = "SELECT count(b) FROM Book b")
+  Page<BookSummaryResponse> findAllSummaries(Pageable pageable);
+
+  @Query(
+      value =
+          "SELECT new com.modsen.model.dto.response.BookSummaryResponse("
+              + "b.id, b.isbn, b.name, b.genre, b.author, b.version) FROM Book b "
+              + "WHERE b.id IN :bookIds",
+      countQuery = "SELECT count(b) FROM Book b WHERE b.id IN :bookIds")
+  Page<BookSummaryResponse> findSummariesByIdIn(
+      @Param("bookIds") List<Long> bookIds, Pageable pageable);
+
+  @Query("SELECT b FROM Book b WHERE b.id > :id ORDER BY b.id")
+  List<Book> findNextOrderedById(@Param("id") Long id, Pageable pageable);
+
+  @Query("SELECT b FROM Book b WHERE (b.name, b.id) > (:name, :id) ORDER BY b.name, b.id")
+  List<Book> findNextOrderedByName(
+      @Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+  @Query("SELECT b FROM Book b WHERE (b.author, b.id) > (:author, :id) ORDER BY b.author, b.id")
+  List<Book> findNextOrderedByAuthor(
+      @Param("author") String author, @Param("id") Long id, Pageable pageable);
+
+  @Query("SELECT b FROM Book b ORDER BY b.id")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+  })
+  Stream<Book> streamAllOrderedById();
+
+  @Query("SELECT b.isbn FROM Book b")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<String> streamAllIsbns();
+
+  @Query("SELECT b.version FROM Book b WHERE b.id = :id")
+  Optional<Long> findVersionById(@Param("id") Long id);
+
+  @Query(
+      "SELECT new com.modsen.model.dto.response.BookVersionResponse(b.id, b.version) "
+          + "FROM Book b WHERE b.isbn = :isbn")
+  Optional<BookVersionResponse> findVersionByIsbn(@Param("isbn") String isbn);
+
+  /**
+   * Updates a book in a single statement. The row is changed only if its version matches the
+   * expected one, when given, and no other book holds the new ISBN.
+   *
+   * @return the updated book with its previous ISBN, or empty if the book is missing or a guard
+   *     failed
+   */
+  @Query(
+      value =
+          """
+          WITH previous AS (SELECT id, isbn FROM books WHERE id = :id FOR UPDATE),
+          updated AS (
+              UPDATE books
+              SET isbn = :isbn, name = :name, genre = CAST(:genre AS genre_type),
+                  description = :description, author = :author, version = books.version + 1
+              FROM previous
+              WHERE books.id = previous.id
+                AND (CAST(:version AS BIGINT) IS NULL OR books.version = CAST(:version AS BIGINT))
+                AND NOT EXISTS (
+                    SELECT 1 FROM books other WHERE other.isbn = :isbn AND other.id <> :id)
+              RETURNING books.id, books.isbn, books.name, CAST(books.genre AS text) AS "genre",
+                  books.description, books.author, books.version,
+                  previous.isbn AS "previousIsbn")
+          SELECT * FROM updated
+          """,
+      nativeQuery = true)
+  Optional<BookChangeRow> updateReturning(
+      @Param("id") Long id,
+      @Param("version") Long expectedVersion,
+      @Param("isbn") String isbn,
+      @Param("name") String name,
+      @Param("genre") String genre,
+      @Param("description") String description,
+      @Param("author") String author);
+
+  /**
+   * Deletes a book in a single statement.
+   *
+   * @return the deleted book, whose previous ISBN is its last one, or empty if there was no such
+   *     book
+   */
+  @Query(
+      value =
+          """
+          WITH deleted AS (
+              DELETE FROM books WHERE id = :id
+              RETURNING id, isbn, name, CAST(genre AS text) AS "genre", description, author,
+                  version, isbn AS "previousIsbn")
+          SELECT * FROM deleted
+          """,
+      nativeQuery = true)
+  Optional<BookChangeRow> deleteReturning(@Param("id") Long id);
+
+  @Query("SELECT new com.modsen.index.BookFacetEntry(b.id, b.genre, b.author) FROM Book b")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<BookFacetEntry> streamAllFacetEntries();
+
+  @Query("SELECT new com.modsen.index.BookTitleEntry(b.id, b.name, b.author) FROM Book b")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<BookTitleEntry> streamAllTitleEntries();
+
+  /**
+   * Finds the books matching a web-search style query, most relevant first, starting after the
+   * given position. Only the rows of the returned page are highlighted.
+   *
+   * @param query the search query, e.g. {@code "ring -lord"} or {@code "\"middle earth\""}
+   * @param rank the relevance of the last match of the previous page
+   * @param id the id of the last match of the previous page
+   * @param limit the maximum number of matches to return
+   * @return the matches, ordered by descending relevance and then by id
+   */
+  @Query(
+      value =
+          """
+          WITH q AS (SELECT websearch_to_tsquery('english', :query) AS query),
+          ranked AS (
+              SELECT b.id, ts_rank_cd(b.search_vector, q.query) AS rank
+              FROM books b, q
+              WHERE b.search_vector @@ q.query),
+          page AS (
+              SELECT id, rank FROM ranked
+              WHERE rank < CAST(:rank AS real) OR (rank = CAST(:rank AS real) AND id > :id)
+              ORDER BY rank DESC, id
+              LIMIT :limit)
+          SELECT b.id AS "id", b.isbn AS "isbn", b.name AS "name",
+                 CAST(b.genre AS text) AS "genre", b.author AS "author",
+                 b.version AS "version", page.rank AS "rank",
+                 ts_headline('english', b.name, q.query, 'HighlightAll=true')
+                     AS "highlightedName",
+                 ts_headline('english', b.description, q.query,
+                             'MaxFragments=2, MaxWords=20, MinWords=5')
+                     AS "highlightedDescription"
+          FROM page JOIN books b ON b.id = page.id, q
+          ORDER BY page.rank DESC, page.id
+          """,
+      nativeQuery = true)
+  List<BookSearchRow> search(
+      @Param("query") String query,
+      @Param("rank") float rank,
+      @Param("id") long id,
+      @Param("limit") int limit);
+
+  /**
+   * Sets the word similarity a fuzzy match must reach, for the rest of the current transaction.
+   *
+   * @param threshold the minimum similarity, from 0 to 1
+   * @return the new setting
+   */
+  @Query(
+      value =
+          "SELECT set_config('pg_trgm.word_similarity_threshold', CAST(:threshold AS text), true)",
+      nativeQuery = true)
+  String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+  /**
+   * Finds the books whose name or author contains a word resembling the query, most similar first.
+   * The {@code <%} operator is answered from the trigram indexes and uses the threshold set with
+   * {@link #setWordSimilarityThreshold(String)}.
+   *
+   * @param query the possibly partial or misspelled title or author
+   * @param limit the maximum number of matches to return
+   * @return the matches, ordered by descending similarity and then by id
+   */
+  @Query(
+      value =
+          """
+          SELECT b.id AS "id", b.isbn AS "isbn", b.name AS "name",
+                 CAST(b.genre AS text) AS "genre", b.author AS "author",
+                 b.version AS "version",
+                 greatest(word_similarity(:query, b.name), word_similarity(:query, b.author))
+                     AS "similarity"
+          FROM books b
+          WHERE :query <% b.name OR :query <% b.author
+          ORDER BY "similarity" DESC, b.id
+          LIMIT :limit
+          """,
+      nativeQuery = true)
+  List<BookFuzzyMatchRow> findFuzzyMatches(@Param("query") String query, @Param("limit") int limit);
+
+  @Query(value = "SELECT last_value FROM catalog_version_seq", nativeQuery = true)
+  long findCatalogVersion();
+
+  /**
+   * Advances the catalog version. The version is a sequence rather than a row, so concurrent
+   * writers never queue on a lock to bump it.
+   */
+  @Query(value = "SELECT nextval('catalog_version_seq')", nativeQuery = true)
+  long nextCatalogVersion();
 }
@@ -0,0 +1,22 @@
+package com.modsen.repository;
+
+/** A full-text search match as returned by {@link BookRepository#search}. */
+public interface BookSearchRow {
+  Long getId();
+
+  String getIsbn();
+
+  String getName();
+
+  String getGenre();
+
+  String getAuthor();
+
+  Long getVersion();
+
+  Float getRank();
+
+  String getHighlightedName();
+
+  String getHighlightedDescription();
+}
@@ -0,0 +1,77 @@
+package com.modsen.repository;
+
+import com.modsen.model.dto.request.BookFilter;
+import com.modsen.model.entity.Book;
+import java.util.Objects;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Builds the {@link Specification} of a {@link BookFilter}.
+ *
+ * <p>Each criterion maps to a predicate an index can answer: the genre and author predicates to the
+ * {@code (genre, id)}, {@code (genre, author, id)} and {@code (author, id)} indexes, the name
+ * fragment to an {@code ILIKE} served by the trigram index on {@code name} and the id range to the
+ * primary key.
+ */
+public final class BookSpecifications {
+  private static final char ESCAPE = '\\';
+
+  private BookSpecifications() {}
+
+  /**
+   * Returns the specification matching the books that satisfy every criterion of the filter.
+   *
+   * @param filter the filter
+   * @return the specification
+   */
+  public static Specification<Book> matching(BookFilter filter) {
+    return Specification.allOf(
+        hasGenreIn(filter),
+        hasAuthor(filter),
+        nameContains(filter),
+        idAtLeast(filter),
+        idAtMost(filter));
+  }
+
+  private static Specification<Book> hasGenreIn(BookFilter filter) {
+    return (root, query, builder) ->
+        filter.genres().isEmpty() ? null : root.get(Book.Fields.genre).in(filter.genres());
+  }
+
+  private static Specification<Book> hasAuthor(BookFilter filter) {
+    return (root, query, builder) ->
+        Objects.isNull(filter.author())
+            ? null
+            : builder.equal(root.get(Book.Fields.author), filter.author());
+  }
+
+  private static Specification<Book> nameContains(BookFilter filter) {
+    return (root, query, builder) ->
+        Objects.isNull(filter.name())
+            ? null
+            : ((HibernateCriteriaBuilder) builder)
+                .ilike(root.get(Book.Fields.name), "%" + escape(filter.name()) + "%", ESCAPE);
+  }
+
+  private static Specification<Book> idAtLeast(BookFilter filter) {
+    return (root, query, builder) ->
+        Objects.isNull(filter.minId())
+            ? null
+            : builder.greaterThanOrEqualTo(root.get(Book.Fields.id), filter.minId());
+  }
+
+  private static Specification<Book> idAtMost(BookFilter filter) {
+    return (root, query, builder) ->
+        Objects.isNull(filter.maxId())
+            ? null
+            : builder.lessThanOrEqualTo(root.get(Book.Fields.id), filter.maxId());
+  }
+
+  private static String escape(String fragment) {
+    return fragment
+        .replace(String.valueOf(ESCAPE), "" + ESCAPE + ESCAPE)
+        .replace("%", ESCAPE + "%")
+        .replace("_", ESCAPE + "_");
+  }
+}
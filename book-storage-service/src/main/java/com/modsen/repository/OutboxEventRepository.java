@@ -0,0 +1,42 @@
+package com.modsen.repository;
+
+import com.modsen.model.entity.OutboxEvent;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends AbstractRepository<Long, OutboxEvent> {
+
+  /**
+   * Reads the oldest pending events in the order their transactions wrote them. Writes to one book
+   * are serialized by its row lock, so a later event of a book always belongs to a later
+   * transaction, whichever instance allocated its id.
+   */
+  @Query(value = "SELECT * FROM book_outbox ORDER BY tx_id, id LIMIT :limit", nativeQuery = true)
+  List<OutboxEvent> findNextBatch(@Param("limit") int limit);
+
+  /**
+   * Takes or renews the relay lease for the given owner, unless another owner holds an unexpired
+   * one.
+   *
+   * @return {@code 1} if the owner holds the lease afterwards, {@code 0} otherwise
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          UPDATE book_outbox_relay_lease
+          SET owner = :owner, expires_at = now() + make_interval(secs => :seconds)
+          WHERE id = 1 AND (owner = :owner OR expires_at < now())
+          """,
+      nativeQuery = true)
+  int acquireLease(@Param("owner") String owner, @Param("seconds") double seconds);
+
+  @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e")
+  Optional<Instant> findOldestCreatedAt();
+}
@@ -0,0 +1,19 @@
+package com.modsen.service.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+
+  /**
+   * Writes the whole catalog as newline-delimited JSON, one book per line ordered by id.
+   *
+   * <p>Books are read through a server-side cursor inside a single repeatable-read transaction, so
+   * the export is a consistent snapshot and memory usage does not depend on the catalog size.
+   *
+   * @param outputStream the stream to write to; it is not closed
+   * @param gzip whether to gzip-compress the output
+   * @throws IOException if writing to the stream fails
+   */
+  void exportAll(OutputStream outputStream, boolean gzip) throws IOException;
+}
@@ -0,0 +1,21 @@
+package com.modsen.service.api;
+
+import com.modsen.model.dto.response.BookImportResponse;
+import com.modsen.model.entity.enums.BookImportFormat;
+import java.io.InputStream;
+
+public interface BookImportService {
+
+  /**
+   * Imports books from a CSV or NDJSON stream.
+   *
+   * <p>The stream is read row by row and the rows are created in fixed-size chunks, each in its own
+   * transaction, so memory usage does not depend on the size of the file. Rows that cannot be
+   * parsed or created are reported instead of aborting the import.
+   *
+   * @param inputStream the file contents
+   * @param format the format of the file
+   * @return the import report
+   */
+  BookImportResponse importBooks(InputStream inputStream, BookImportFormat format);
+}
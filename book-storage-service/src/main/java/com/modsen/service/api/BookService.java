@@ -1,14 +1,187 @@
 package com.modsen.service.api;
 
+import com.modsen.model.dto.request.BookFilter;
 import com.modsen.model.dto.request.BookRequest;
+import com.modsen.model.dto.response.BookBatchResponse;
+import com.modsen.model.dto.response.BookFuzzyMatchResponse;
+import com.modsen.model.dto.response.BookLookupResponse;
 import com.modsen.model.dto.response.BookResponse;
+import com.modsen.model.dto.response.BookSearchResponse;
+import com.modsen.model.dto.response.BookSummaryResponse;
+import com.modsen.model.dto.response.BookVersionResponse;
+import com.modsen.model.dto.response.CursorPageResponse;
+import com.modsen.model.entity.enums.BookField;
+import com.modsen.model.entity.enums.BookSortKey;
 import com.modsen.service.AbstractService;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface BookService extends AbstractService<Long, BookRequest, BookResponse> {
+
+  /**
+   * Creates many books at once.
+   *
+   * <p>Every item is validated and checked against existing ISBNs with a single query. Valid items
+   * are inserted with batched statements, while invalid or conflicting ones are reported without
+   * failing the whole batch.
+   *
+   * @param bookRequests the books to create
+   * @return the outcome of every item, in request order
+   */
+  BookBatchResponse createAll(List<BookRequest> bookRequests);
+
   BookResponse getByIsbn(String isbn);
 
+  /**
+   * Updates a book with a single guarded statement.
+   *
+   * @param id the id of the book
+   * @param bookRequest the new state of the book
+   * @param expectedVersion the version the client last read, or {@code null} to update
+   *     unconditionally
+   * @return the updated book
+   * @throws com.modsen.exception.BookVersionMismatchException if the book has been modified since
+   *     the expected version
+   */
+  BookResponse update(Long id, BookRequest bookRequest, Long expectedVersion);
+
   Page<BookResponse> getBooksByIds(List<Long> bookIds, Pageable pageable);
+
+  /**
+   * Retrieves a page of the books matching a filter, by default ordered by id.
+   *
+   * <p>Pages are cached under the given catalog version, so a cached page is served only while the
+   * catalog is unchanged. The caller reads the version once, before the page, and reuses it for its
+   * own validators.
+   *
+   * @param filter the criteria the books must match
+   * @param pageable the page to retrieve
+   * @param catalogVersion the catalog version read before the page, see {@link
+   *     #getCatalogVersion()}
+   * @return the page of matching books
+   */
+  Page<BookResponse> getAll(BookFilter filter, Pageable pageable, long catalogVersion);
+
+  /**
+   * Retrieves a page of books without their descriptions. The rows are read as a projection, so no
+   * entity is loaded into the persistence context.
+   *
+   * @param pageable the page to retrieve
+   * @return the page of book summaries
+   */
+  Page<BookSummaryResponse> getAllSummaries(Pageable pageable);
+
+  /**
+   * Retrieves a page of the given books without their descriptions.
+   *
+   * @param bookIds the ids of the books
+   * @param pageable the page to retrieve
+   * @return the page of book summaries
+   */
+  Page<BookSummaryResponse> getSummariesByIds(List<Long> bookIds, Pageable pageable);
+
+  /**
+   * Retrieves a page of books restricted to the given fields. The description is read only when it
+   * is one of them.
+   *
+   * @param pageable the page to retrieve
+   * @param fields the fields to return
+   * @return the page of books as field maps
+   */
+  Page<Map<String, Object>> getAll(Pageable pageable, Set<BookField> fields);
+
+  /**
+   * Retrieves a page of the given books restricted to the given fields.
+   *
+   * @param bookIds the ids of the books
+   * @param pageable the page to retrieve
+   * @param fields the fields to return
+   * @return the page of books as field maps
+   */
+  Page<Map<String, Object>> getBooksByIds(
+      List<Long> bookIds, Pageable pageable, Set<BookField> fields);
+
+  /**
+   * Retrieves many books by id with a single array-bound query.
+   *
+   * @param ids the ids to look up, repeated ids are allowed
+   * @return the books in request order and the ids that were not found
+   */
+  BookLookupResponse<Long> getAllByIds(List<Long> ids);
+
+  /**
+   * Retrieves many books by ISBN with a single array-bound query.
+   *
+   * @param isbns the ISBNs to look up, repeated ISBNs are allowed
+   * @return the books in request order and the ISBNs that were not found
+   */
+  BookLookupResponse<String> getAllByIsbns(List<String> isbns);
+
+  /**
+   * Retrieves the books following the given cursor using keyset pagination.
+   *
+   * <p>Unlike {@link #getAll(Pageable)} the lookup seeks directly to the cursor position and does
+   * not count the total number of books, so its cost does not grow with the page depth.
+   *
+   * @param sortKey the ordering of the listing
+   * @param cursor the cursor returned with the previous slice, or {@code null} for the first one
+   * @param size the maximum number of books to return
+   * @return the slice of books and the cursor of the next one
+   */
+  CursorPageResponse<BookResponse> getAll(BookSortKey sortKey, String cursor, int size);
+
+  /**
+   * Searches the name, author and description of all books, most relevant first.
+   *
+   * <p>The query uses web search syntax: quoted phrases, {@code or} and {@code -} for exclusion.
+   * Matches are paged with a keyset cursor on relevance and id, so deep pages cost the same as the
+   * first one.
+   *
+   * @param query the search query
+   * @param cursor the cursor returned with the previous slice, or {@code null} for the first one
+   * @param size the maximum number of matches to return
+   * @return the slice of matches and the cursor of the next one
+   */
+  CursorPageResponse<BookSearchResponse> search(String query, String cursor, int size);
+
+  /**
+   * Finds the books whose name or author resembles a partial or misspelled query, using trigram
+   * word similarity.
+   *
+   * @param query the query
+   * @param threshold the minimum similarity of a match, from 0 to 1
+   * @param limit the maximum number of matches to return
+   * @return the matches, most similar first
+   */
+  List<BookFuzzyMatchResponse> findFuzzyMatches(String query, double threshold, int limit);
+
+  /**
+   * Returns the catalog version, which is advanced right after every change to the books table
+   * commits. A read that starts after observing a version sees at least the catalog that version
+   * stands for.
+   *
+   * @return the current catalog version
+   */
+  long getCatalogVersion();
+
+  /**
+   * Returns the row version of a book without loading the book.
+   *
+   * @param id the id of the book
+   * @return the id and version of the book
+   * @throws com.modsen.exception.EntityNotFoundException if there is no such book
+   */
+  BookVersionResponse getVersion(Long id);
+
+  /**
+   * Returns the id and row version of the book with an ISBN without loading the book.
+   *
+   * @param isbn the ISBN of the book
+   * @return the id and version of the book
+   * @throws com.modsen.exception.EntityNotFoundException if there is no such book
+   */
+  BookVersionResponse getVersionByIsbn(String isbn);
 }
@@ -0,0 +1,61 @@
+package com.modsen.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.modsen.mapper.BookMapper;
+import com.modsen.repository.BookRepository;
+import com.modsen.service.api.BookExportService;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class BookExportServiceImpl implements BookExportService {
+
+  private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+  private static final char LINE_SEPARATOR = '\n';
+
+  private final BookRepository bookRepository;
+  private final BookMapper bookMapper;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+
+  @Override
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  public void exportAll(OutputStream outputStream, boolean gzip) throws IOException {
+    var target = gzip ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) : outputStream;
+    var writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    try (var generator =
+            objectMapper
+                .getFactory()
+                .createGenerator(target)
+                .setRootValueSeparator(null)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        var books = bookRepository.streamAllOrderedById()) {
+      books.forEach(
+          book -> {
+            try {
+              writer.writeValue(generator, bookMapper.toBookResponse(book));
+              generator.writeRaw(LINE_SEPARATOR);
+            } catch (IOException exception) {
+              throw new UncheckedIOException(exception);
+            }
+            entityManager.detach(book);
+          });
+    } catch (UncheckedIOException exception) {
+      throw exception.getCause();
+    }
+    if (target instanceof GZIPOutputStream gzipOutputStream) {
+      gzipOutputStream.finish();
+    }
+    outputStream.flush();
+  }
+}
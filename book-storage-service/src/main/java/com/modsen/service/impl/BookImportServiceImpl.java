@@ -0,0 +1,311 @@
+package com.modsen.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.exception.InvalidImportFileException;
+import com.modsen.model.dto.request.BookRequest;
+import com.modsen.model.dto.response.BookBatchItemResponse;
+import com.modsen.model.dto.response.BookBatchResponse;
+import com.modsen.model.dto.response.BookImportResponse;
+import com.modsen.model.entity.enums.BookImportFormat;
+import com.modsen.model.entity.enums.GenreType;
+import com.modsen.service.api.BookImportService;
+import com.modsen.service.api.BookService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports books in chunks of {@link #CHUNK_SIZE}. Progress of running imports is published as the
+ * {@value #METRIC_ROWS} counter, tagged by outcome and advanced as each row is rejected or each
+ * chunk is stored, and the {@value #METRIC_ACTIVE} gauge.
+ */
+@Service
+public class BookImportServiceImpl implements BookImportService {
+
+  static final int CHUNK_SIZE = 1_000;
+  static final int MAX_REPORTED_REJECTIONS = 1_000;
+  static final int MAX_RECORD_LINES = 100;
+  static final int MAX_RECORD_LENGTH = 64 * 1_024;
+  private static final List<String> CSV_COLUMNS =
+      List.of("isbn", "name", "genre", "description", "author");
+  private static final char QUOTE = '"';
+  private static final char SEPARATOR = ',';
+  private static final String METRIC_ROWS = "books.import.rows";
+  private static final String METRIC_ACTIVE = "books.import.active";
+
+  private final BookService bookService;
+  private final ObjectMapper objectMapper;
+  private final Counter createdRows;
+  private final Counter rejectedRows;
+  private final AtomicInteger activeImports = new AtomicInteger();
+
+  public BookImportServiceImpl(
+      BookService bookService, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+    this.bookService = bookService;
+    this.objectMapper = objectMapper;
+    this.createdRows = meterRegistry.counter(METRIC_ROWS, "outcome", "created");
+    this.rejectedRows = meterRegistry.counter(METRIC_ROWS, "outcome", "rejected");
+    Gauge.builder(METRIC_ACTIVE, activeImports, AtomicInteger::get)
+        .description("Imports currently running")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public BookImportResponse importBooks(InputStream inputStream, BookImportFormat format) {
+    activeImports.incrementAndGet();
+    try {
+      return read(inputStream, format);
+    } finally {
+      activeImports.decrementAndGet();
+    }
+  }
+
+  private BookImportResponse read(InputStream inputStream, BookImportFormat format) {
+    var reader =
+        new RecordReader(
+            new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)),
+            format == BookImportFormat.CSV);
+    var report = new ImportReport();
+    var chunk = new ArrayList<BookRequest>(CHUNK_SIZE);
+    var chunkRows = new ArrayList<Integer>(CHUNK_SIZE);
+    try {
+      var columns = format == BookImportFormat.CSV ? readCsvHeader(reader) : null;
+      String record;
+      while ((record = reader.next()) != null) {
+        if (record.isBlank()) {
+          continue;
+        }
+        report.processed++;
+        if (reader.oversized) {
+          report.reject(
+              invalid(
+                  reader.recordLine,
+                  "Quoted field is not terminated within %d lines or %d characters"
+                      .formatted(MAX_RECORD_LINES, MAX_RECORD_LENGTH)));
+          continue;
+        }
+        try {
+          chunk.add(format == BookImportFormat.CSV ? parseCsv(record, columns) : parseJson(record));
+          chunkRows.add(reader.recordLine);
+        } catch (IllegalArgumentException | JsonProcessingException exception) {
+          report.reject(invalid(reader.recordLine, exception.getMessage()));
+        }
+        if (chunk.size() == CHUNK_SIZE) {
+          flush(chunk, chunkRows, report);
+        }
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    flush(chunk, chunkRows, report);
+    return new BookImportResponse(
+        report.processed, report.created, report.rejected, List.copyOf(report.rejections));
+  }
+
+  private static BookBatchItemResponse invalid(int line, String message) {
+    return new BookBatchItemResponse(
+        line, null, BookBatchItemResponse.Status.INVALID, null, message);
+  }
+
+  private void flush(List<BookRequest> chunk, List<Integer> chunkRows, ImportReport report) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    BookBatchResponse result;
+    try {
+      result = bookService.createAll(new ArrayList<>(chunk));
+    } catch (DataAccessException exception) {
+      var message =
+          "Rows on lines %d-%d could not be stored and were not applied"
+              .formatted(chunkRows.getFirst(), chunkRows.getLast());
+      for (int i = 0; i < chunk.size(); i++) {
+        report.reject(
+            new BookBatchItemResponse(
+                chunkRows.get(i),
+                chunk.get(i).isbn(),
+                BookBatchItemResponse.Status.FAILED,
+                null,
+                message));
+      }
+      chunk.clear();
+      chunkRows.clear();
+      return;
+    }
+    report.created(result.created());
+    result.items().stream()
+        .filter(item -> item.status() != BookBatchItemResponse.Status.CREATED)
+        .map(
+            item ->
+                new BookBatchItemResponse(
+                    chunkRows.get(item.index()), item.isbn(), item.status(), null, item.message()))
+        .forEach(report::reject);
+    chunk.clear();
+    chunkRows.clear();
+  }
+
+  private int[] readCsvHeader(RecordReader reader) throws IOException {
+    var header = reader.next();
+    if (header == null) {
+      throw new InvalidImportFileException("CSV header is missing");
+    }
+    var names =
+        splitCsv(header).stream().map(name -> name.strip().toLowerCase(Locale.ROOT)).toList();
+    var columns = new int[CSV_COLUMNS.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+      if (columns[i] < 0) {
+        throw new InvalidImportFileException(
+            "CSV header has no '%s' column".formatted(CSV_COLUMNS.get(i)));
+      }
+    }
+    return columns;
+  }
+
+  private BookRequest parseCsv(String record, int[] columns) {
+    var fields = splitCsv(record);
+    var width = Arrays.stream(columns).max().orElseThrow() + 1;
+    if (fields.size() < width) {
+      throw new IllegalArgumentException(
+          "Expected %d columns but found %d".formatted(width, fields.size()));
+    }
+    var genre = fields.get(columns[2]).strip();
+    return new BookRequest(
+        fields.get(columns[0]).strip(),
+        fields.get(columns[1]),
+        genre.isEmpty() ? null : GenreType.valueOf(genre.toUpperCase(Locale.ROOT)),
+        fields.get(columns[3]),
+        fields.get(columns[4]));
+  }
+
+  private BookRequest parseJson(String record) throws JsonProcessingException {
+    var book = objectMapper.readValue(record, BookRequest.class);
+    if (book == null) {
+      throw new IllegalArgumentException("Row is not a book object");
+    }
+    return book;
+  }
+
+  private static List<String> splitCsv(String record) {
+    var fields = new ArrayList<String>();
+    var field = new StringBuilder();
+    var quoted = false;
+    for (int i = 0; i < record.length(); i++) {
+      char c = record.charAt(i);
+      if (quoted) {
+        if (c != QUOTE) {
+          field.append(c);
+        } else if (i + 1 < record.length() && record.charAt(i + 1) == QUOTE) {
+          field.append(QUOTE);
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == QUOTE) {
+        quoted = true;
+      } else if (c == SEPARATOR) {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private static boolean hasOpenQuote(String line) {
+    return line.chars().filter(c -> c == QUOTE).count() % 2 != 0;
+  }
+
+  /**
+   * Reads the file one record at a time and remembers the line each record starts on. A CSV record
+   * spans several lines while one of its quoted fields is not terminated. A record that is still
+   * open after {@link #MAX_RECORD_LINES} lines or {@link #MAX_RECORD_LENGTH} characters is marked
+   * oversized, and the lines it swallowed are read again as records of their own.
+   */
+  @RequiredArgsConstructor
+  private static class RecordReader {
+    private final BufferedReader reader;
+    private final boolean multiline;
+    private final Deque<String> pending = new ArrayDeque<>();
+    private int lineNumber;
+    private int recordLine;
+    private boolean oversized;
+
+    String next() throws IOException {
+      var line = readLine();
+      if (line == null) {
+        return null;
+      }
+      recordLine = lineNumber;
+      oversized = false;
+      if (!multiline || !hasOpenQuote(line)) {
+        return line;
+      }
+      var lines = new ArrayList<String>();
+      lines.add(line);
+      var length = line.length();
+      var open = true;
+      while (open && (line = readLine()) != null) {
+        lines.add(line);
+        length += line.length() + 1;
+        if (lines.size() > MAX_RECORD_LINES || length > MAX_RECORD_LENGTH) {
+          for (int i = lines.size() - 1; i > 0; i--) {
+            pending.addFirst(lines.get(i));
+          }
+          lineNumber = recordLine;
+          oversized = true;
+          return lines.getFirst();
+        }
+        open ^= hasOpenQuote(line);
+      }
+      return String.join("\n", lines);
+    }
+
+    private String readLine() throws IOException {
+      var line = pending.isEmpty() ? reader.readLine() : pending.removeFirst();
+      if (line != null) {
+        lineNumber++;
+      }
+      return line;
+    }
+  }
+
+  /** Running totals of an import; only the first rejections are kept to bound memory. */
+  private class ImportReport {
+    private final List<BookBatchItemResponse> rejections = new ArrayList<>();
+    private long processed;
+    private long created;
+    private long rejected;
+
+    void created(long count) {
+      created += count;
+      createdRows.increment(count);
+    }
+
+    void reject(BookBatchItemResponse item) {
+      rejected++;
+      rejectedRows.increment();
+      if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+        rejections.add(item);
+      }
+    }
+  }
+}
@@ -1,21 +1,65 @@
 package com.modsen.service.impl;
 
-import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_CREATED;
-import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_DELETED;
+import static com.modsen.config.CacheConfig.BOOKS_BY_FILTER_CACHE;
+import static com.modsen.config.CacheConfig.BOOKS_BY_ISBN_CACHE;
+import static com.modsen.config.CacheConfig.BOOKS_CACHE;
 
+import com.modsen.cache.BookCacheEvictor;
+import com.modsen.event.BookEvent;
+import com.modsen.event.BookEventCodec;
+import com.modsen.event.BookEventTopics;
+import com.modsen.event.BookEventType;
+import com.modsen.event.BookSnapshot;
+import com.modsen.exception.BookVersionMismatchException;
 import com.modsen.exception.EntityAlreadyExistsException;
 import com.modsen.exception.EntityNotFoundException;
+import com.modsen.index.AutocompleteIndex;
+import com.modsen.index.GenreFacetIndex;
+import com.modsen.index.IsbnBloomFilter;
+import com.modsen.index.TransactionCallbacks;
 import com.modsen.mapper.BookMapper;
+import com.modsen.model.dto.request.BookCursor;
+import com.modsen.model.dto.request.BookFilter;
 import com.modsen.model.dto.request.BookRequest;
+import com.modsen.model.dto.request.BookSearchCursor;
+import com.modsen.model.dto.response.BookBatchItemResponse;
+import com.modsen.model.dto.response.BookBatchResponse;
+import com.modsen.model.dto.response.BookFuzzyMatchResponse;
+import com.modsen.model.dto.response.BookLookupResponse;
 import com.modsen.model.dto.response.BookResponse;
+import com.modsen.model.dto.response.BookSearchResponse;
+import com.modsen.model.dto.response.BookSummaryResponse;
+import com.modsen.model.dto.response.BookVersionResponse;
+import com.modsen.model.dto.response.CursorPageResponse;
 import com.modsen.model.entity.Book;
+import com.modsen.model.entity.OutboxEvent;
+import com.modsen.model.entity.enums.BookField;
+import com.modsen.model.entity.enums.BookSortKey;
+import com.modsen.model.entity.enums.GenreType;
+import com.modsen.repository.BookFuzzyMatchRow;
 import com.modsen.repository.BookRepository;
+import com.modsen.repository.BookSearchRow;
+import com.modsen.repository.BookSpecifications;
+import com.modsen.repository.OutboxEventRepository;
 import com.modsen.service.api.BookService;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,27 +68,123 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class BookServiceImpl implements BookService {
 
+  private static final int MAX_SCROLL_SIZE = 100;
+  private static final String MESSAGE_NULL_ITEM = "Book cannot be null";
+  private static final String MESSAGE_DUPLICATE = "ISBN '%s' is repeated in the batch";
+  private static final String MESSAGE_CONFLICT = "Book with '%s' already exists";
+
   private final BookRepository bookRepository;
-  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final OutboxEventRepository outboxEventRepository;
   private final BookMapper bookMapper;
+  private final Validator validator;
+  private final IsbnBloomFilter isbnBloomFilter;
+  private final GenreFacetIndex genreFacetIndex;
+  private final AutocompleteIndex autocompleteIndex;
+  private final BookEventTopics bookEventTopics;
+  private final BookCacheEvictor bookCacheEvictor;
 
   @Override
   @Transactional
   public BookResponse create(BookRequest bookRequest) {
-    if (bookRepository.existsByIsbn(bookRequest.isbn())) {
+    if (isbnBloomFilter.exists(bookRequest.isbn(), bookRepository::existsByIsbn)) {
+      throw new EntityAlreadyExistsException(Book.class, bookRequest.isbn());
+    }
+    Book bookToSave;
+    try {
+      // the filter may miss an ISBN another instance has just written; the constraint decides
+      bookToSave = bookRepository.saveAndFlush(bookMapper.toBook(bookRequest));
+    } catch (DataIntegrityViolationException exception) {
       throw new EntityAlreadyExistsException(Book.class, bookRequest.isbn());
     }
-    var bookToSave = bookRepository.save(bookMapper.toBook(bookRequest));
-    kafkaTemplate.send(TOPIC_BOOK_CREATED, bookToSave.getId().toString());
+    isbnBloomFilter.put(bookToSave.getIsbn());
+    genreFacetIndex.put(bookToSave);
+    autocompleteIndex.put(bookToSave);
+    bumpCatalogVersion();
+    outboxEventRepository.save(toOutboxEvent(BookEventType.CREATED, bookToSave));
     return bookMapper.toBookResponse(bookToSave);
   }
 
+  @Override
+  @Transactional
+  public BookBatchResponse createAll(List<BookRequest> bookRequests) {
+    var items = new BookBatchItemResponse[bookRequests.size()];
+    var existingIsbns = findExistingIsbns(bookRequests);
+    var batchIsbns = new HashSet<String>();
+    var acceptedIndexes = new ArrayList<Integer>();
+    var booksToSave = new ArrayList<Book>();
+
+    for (int i = 0; i < bookRequests.size(); i++) {
+      var bookRequest = bookRequests.get(i);
+      var violations = validate(bookRequest);
+      if (Objects.nonNull(violations)) {
+        items[i] = rejected(i, bookRequest, BookBatchItemResponse.Status.INVALID, violations);
+      } else if (existingIsbns.contains(bookRequest.isbn())) {
+        items[i] =
+            rejected(
+                i,
+                bookRequest,
+                BookBatchItemResponse.Status.CONFLICT,
+                MESSAGE_CONFLICT.formatted(bookRequest.isbn()));
+      } else if (!batchIsbns.add(bookRequest.isbn())) {
+        items[i] =
+            rejected(
+                i,
+                bookRequest,
+                BookBatchItemResponse.Status.DUPLICATE,
+                MESSAGE_DUPLICATE.formatted(bookRequest.isbn()));
+      } else {
+        acceptedIndexes.add(i);
+        booksToSave.add(bookMapper.toBook(bookRequest));
+      }
+    }
+
+    var savedBooks = bookRepository.saveAll(booksToSave);
+    var events = new ArrayList<OutboxEvent>(savedBooks.size());
+    if (!savedBooks.isEmpty()) {
+      bumpCatalogVersion();
+    }
+    for (int i = 0; i < savedBooks.size(); i++) {
+      var book = savedBooks.get(i);
+      int index = acceptedIndexes.get(i);
+      isbnBloomFilter.put(book.getIsbn());
+      items[index] =
+          new BookBatchItemResponse(
+              index, book.getIsbn(), BookBatchItemResponse.Status.CREATED, book.getId(), null);
+      events.add(toOutboxEvent(BookEventType.CREATED, book));
+    }
+    outboxEventRepository.saveAll(events);
+    genreFacetIndex.putAll(savedBooks);
+    autocompleteIndex.putAll(savedBooks);
+    return new BookBatchResponse(
+        savedBooks.size(), items.length - savedBooks.size(), Arrays.asList(items));
+  }
+
   @Override
   public Page<BookResponse> getAll(Pageable pageable) {
     return bookRepository.findAll(pageable).map(bookMapper::toBookResponse);
   }
 
   @Override
+  public CursorPageResponse<BookResponse> getAll(BookSortKey sortKey, String cursor, int size) {
+    var position = BookCursor.decode(cursor, sortKey);
+    var limit = Math.clamp(size, 1, MAX_SCROLL_SIZE);
+    var window = PageRequest.ofSize(limit + 1);
+    var books =
+        switch (sortKey) {
+          case ID -> bookRepository.findNextOrderedById(position.id(), window);
+          case NAME ->
+              bookRepository.findNextOrderedByName(position.value(), position.id(), window);
+          case AUTHOR ->
+              bookRepository.findNextOrderedByAuthor(position.value(), position.id(), window);
+        };
+    var hasNext = books.size() > limit;
+    var content = books.stream().limit(limit).map(bookMapper::toBookResponse).toList();
+    var nextCursor = hasNext ? toCursor(sortKey, books.get(limit - 1)).encode() : null;
+    return new CursorPageResponse<>(content, limit, nextCursor);
+  }
+
+  @Override
+  @Cacheable(cacheNames = BOOKS_CACHE, key = "#id")
   public BookResponse getById(Long id) {
     return bookRepository
         .findById(id)
@@ -53,6 +193,7 @@ public class BookServiceImpl implements BookService {
   }
 
   @Override
+  @Cacheable(cacheNames = BOOKS_BY_ISBN_CACHE, key = "#isbn")
   public BookResponse getByIsbn(String isbn) {
     return bookRepository
         .findByIsbn(isbn)
@@ -65,29 +206,269 @@ public class BookServiceImpl implements BookService {
     return bookRepository.findBooksByIdIn(bookIds, pageable).map(bookMapper::toBookResponse);
   }
 
+  @Override
+  @Cacheable(
+      cacheNames = BOOKS_BY_FILTER_CACHE,
+      key = "#catalogVersion + ':' + #filter + ':' + #pageable")
+  public Page<BookResponse> getAll(BookFilter filter, Pageable pageable, long catalogVersion) {
+    var ordered =
+        pageable.getSort().isSorted()
+            ? pageable
+            : PageRequest.of(
+                pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Book.Fields.id));
+    return bookRepository
+        .findAll(BookSpecifications.matching(filter), ordered)
+        .map(bookMapper::toBookResponse);
+  }
+
+  @Override
+  public Page<BookSummaryResponse> getAllSummaries(Pageable pageable) {
+    return bookRepository.findAllSummaries(pageable);
+  }
+
+  @Override
+  public Page<BookSummaryResponse> getSummariesByIds(List<Long> bookIds, Pageable pageable) {
+    return bookRepository.findSummariesByIdIn(bookIds, pageable);
+  }
+
+  @Override
+  public Page<Map<String, Object>> getAll(Pageable pageable, Set<BookField> fields) {
+    var books =
+        fields.contains(BookField.DESCRIPTION)
+            ? getAll(pageable)
+            : getAllSummaries(pageable).map(bookMapper::toBookResponse);
+    return books.map(bookResponse -> BookField.select(bookResponse, fields));
+  }
+
+  @Override
+  public Page<Map<String, Object>> getBooksByIds(
+      List<Long> bookIds, Pageable pageable, Set<BookField> fields) {
+    var books =
+        fields.contains(BookField.DESCRIPTION)
+            ? getBooksByIds(bookIds, pageable)
+            : getSummariesByIds(bookIds, pageable).map(bookMapper::toBookResponse);
+    return books.map(bookResponse -> BookField.select(bookResponse, fields));
+  }
+
+  @Override
+  public BookLookupResponse<Long> getAllByIds(List<Long> ids) {
+    var keys = ids.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+    var books = keys.length == 0 ? List.<Book>of() : bookRepository.findAllByIds(keys);
+    return toLookupResponse(ids, books, Book::getId);
+  }
+
+  @Override
+  public BookLookupResponse<String> getAllByIsbns(List<String> isbns) {
+    var keys = isbns.stream().filter(Objects::nonNull).distinct().toArray(String[]::new);
+    var books = keys.length == 0 ? List.<Book>of() : bookRepository.findAllByIsbns(keys);
+    return toLookupResponse(isbns, books, Book::getIsbn);
+  }
+
   @Override
   @Transactional
   public BookResponse update(Long id, BookRequest bookRequest) {
-    if (bookRepository.existsByIsbn(bookRequest.isbn())) {
-      throw new EntityAlreadyExistsException(Book.class, bookRequest.name());
-    }
-    return bookRepository
-        .findById(id)
-        .map(current -> bookMapper.update(bookRequest, current))
-        .map(bookRepository::save)
-        .map(bookMapper::toBookResponse)
-        .orElseThrow(() -> new EntityNotFoundException(Book.class, id));
+    return update(id, bookRequest, null);
+  }
+
+  @Override
+  @Transactional
+  public BookResponse update(Long id, BookRequest bookRequest, Long expectedVersion) {
+    var row =
+        bookRepository
+            .updateReturning(
+                id,
+                expectedVersion,
+                bookRequest.isbn(),
+                bookRequest.name(),
+                bookRequest.genre().name(),
+                bookRequest.description(),
+                bookRequest.author())
+            .orElseThrow(() -> updateFailure(id, bookRequest, expectedVersion));
+    var book = bookMapper.toBook(row);
+    bookCacheEvictor.evict(id, row.getPreviousIsbn(), book.getIsbn());
+    isbnBloomFilter.put(book.getIsbn());
+    genreFacetIndex.put(book);
+    autocompleteIndex.put(book);
+    bumpCatalogVersion();
+    outboxEventRepository.save(toOutboxEvent(BookEventType.UPDATED, book, row.getPreviousIsbn()));
+    return bookMapper.toBookResponse(book);
   }
 
   @Override
   @Transactional
   public void delete(Long id) {
-    var bookResponse =
+    var row =
         bookRepository
-            .findById(id)
-            .map(bookMapper::toBookResponse)
+            .deleteReturning(id)
             .orElseThrow(() -> new EntityNotFoundException(Book.class, id));
-    bookRepository.deleteById(bookResponse.id());
-    kafkaTemplate.send(TOPIC_BOOK_DELETED, bookResponse.id().toString());
+    bookCacheEvictor.evict(id, row.getPreviousIsbn());
+    genreFacetIndex.remove(id);
+    autocompleteIndex.remove(id);
+    bumpCatalogVersion();
+    outboxEventRepository.save(
+        toOutboxEvent(BookEventType.DELETED, id, row.getVersion(), null, row.getPreviousIsbn()));
+  }
+
+  @Override
+  public CursorPageResponse<BookSearchResponse> search(String query, String cursor, int size) {
+    var position = BookSearchCursor.decode(cursor);
+    var limit = Math.clamp(size, 1, MAX_SCROLL_SIZE);
+    var rows = bookRepository.search(query, position.rank(), position.id(), limit + 1);
+    var hasNext = rows.size() > limit;
+    var content = rows.stream().limit(limit).map(BookServiceImpl::toSearchResponse).toList();
+    var nextCursor =
+        hasNext
+            ? new BookSearchCursor(rows.get(limit - 1).getRank(), rows.get(limit - 1).getId())
+                .encode()
+            : null;
+    return new CursorPageResponse<>(content, limit, nextCursor);
+  }
+
+  @Override
+  public List<BookFuzzyMatchResponse> findFuzzyMatches(String query, double threshold, int limit) {
+    bookRepository.setWordSimilarityThreshold(Double.toString(threshold));
+    return bookRepository.findFuzzyMatches(query, Math.clamp(limit, 1, MAX_SCROLL_SIZE)).stream()
+        .map(BookServiceImpl::toFuzzyMatchResponse)
+        .toList();
+  }
+
+  @Override
+  public long getCatalogVersion() {
+    return bookRepository.findCatalogVersion();
+  }
+
+  @Override
+  public BookVersionResponse getVersion(Long id) {
+    return bookRepository
+        .findVersionById(id)
+        .map(version -> new BookVersionResponse(id, version))
+        .orElseThrow(() -> new EntityNotFoundException(Book.class, id));
+  }
+
+  @Override
+  public BookVersionResponse getVersionByIsbn(String isbn) {
+    return bookRepository
+        .findVersionByIsbn(isbn)
+        .orElseThrow(() -> new EntityNotFoundException(Book.class, isbn));
+  }
+
+  /**
+   * Advances the catalog version once the current transaction commits, so the new version is never
+   * visible before the change it stands for.
+   */
+  private void bumpCatalogVersion() {
+    TransactionCallbacks.afterCommit(bookRepository::nextCatalogVersion);
+  }
+
+  /**
+   * Explains why a guarded update changed no row. Runs only on the failure path, so a successful
+   * update still costs a single statement.
+   */
+  private RuntimeException updateFailure(Long id, BookRequest bookRequest, Long expectedVersion) {
+    var currentVersion = bookRepository.findVersionById(id);
+    if (currentVersion.isEmpty()) {
+      return new EntityNotFoundException(Book.class, id);
+    }
+    if (Objects.nonNull(expectedVersion) && !expectedVersion.equals(currentVersion.get())) {
+      return new BookVersionMismatchException(id);
+    }
+    return new EntityAlreadyExistsException(Book.class, bookRequest.isbn());
+  }
+
+  private static BookFuzzyMatchResponse toFuzzyMatchResponse(BookFuzzyMatchRow row) {
+    return new BookFuzzyMatchResponse(
+        row.getId(),
+        row.getIsbn(),
+        row.getName(),
+        GenreType.valueOf(row.getGenre()),
+        row.getAuthor(),
+        row.getVersion(),
+        row.getSimilarity());
+  }
+
+  private static BookSearchResponse toSearchResponse(BookSearchRow row) {
+    return new BookSearchResponse(
+        row.getId(),
+        row.getIsbn(),
+        row.getName(),
+        GenreType.valueOf(row.getGenre()),
+        row.getAuthor(),
+        row.getVersion(),
+        row.getRank(),
+        row.getHighlightedName(),
+        row.getHighlightedDescription());
+  }
+
+  private OutboxEvent toOutboxEvent(BookEventType type, Book book) {
+    return toOutboxEvent(type, book, null);
+  }
+
+  private OutboxEvent toOutboxEvent(BookEventType type, Book book, String previousIsbn) {
+    return toOutboxEvent(
+        type, book.getId(), book.getVersion(), bookMapper.toBookSnapshot(book), previousIsbn);
+  }
+
+  private OutboxEvent toOutboxEvent(
+      BookEventType type, Long bookId, Long bookVersion, BookSnapshot book, String previousIsbn) {
+    var event = BookEvent.of(type, bookId, bookVersion, book, previousIsbn);
+    return new OutboxEvent(
+        bookEventTopics.topicFor(type), bookId.toString(), BookEventCodec.encode(event));
+  }
+
+  private BookCursor toCursor(BookSortKey sortKey, Book book) {
+    var value =
+        switch (sortKey) {
+          case ID -> book.getId().toString();
+          case NAME -> book.getName();
+          case AUTHOR -> book.getAuthor();
+        };
+    return new BookCursor(sortKey, value, book.getId());
+  }
+
+  private <K> BookLookupResponse<K> toLookupResponse(
+      List<K> keys, List<Book> books, Function<Book, K> keyExtractor) {
+    var responses = new HashMap<K, BookResponse>(books.size() * 2);
+    books.forEach(book -> responses.put(keyExtractor.apply(book), bookMapper.toBookResponse(book)));
+    var found = new ArrayList<BookResponse>(keys.size());
+    var missing = new ArrayList<K>();
+    for (var key : keys) {
+      var bookResponse = responses.get(key);
+      found.add(bookResponse);
+      if (Objects.isNull(bookResponse)) {
+        missing.add(key);
+      }
+    }
+    return new BookLookupResponse<>(found, missing);
+  }
+
+  private Set<String> findExistingIsbns(List<BookRequest> bookRequests) {
+    var isbns =
+        bookRequests.stream()
+            .filter(Objects::nonNull)
+            .map(BookRequest::isbn)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toArray(String[]::new);
+    return isbns.length == 0 ? Set.of() : bookRepository.findExistingIsbns(isbns);
+  }
+
+  private String validate(BookRequest bookRequest) {
+    if (Objects.isNull(bookRequest)) {
+      return MESSAGE_NULL_ITEM;
+    }
+    var violations = validator.validate(bookRequest);
+    if (violations.isEmpty()) {
+      return null;
+    }
+    return violations.stream()
+        .map(violation -> violation.getPropertyPath() + " = " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining("; "));
+  }
+
+  private BookBatchItemResponse rejected(
+      int index, BookRequest bookRequest, BookBatchItemResponse.Status status, String message) {
+    var isbn = Objects.isNull(bookRequest) ? null : bookRequest.isbn();
+    return new BookBatchItemResponse(index, isbn, status, null, message);
   }
 }
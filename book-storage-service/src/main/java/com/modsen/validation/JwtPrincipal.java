@@ -0,0 +1,29 @@
+package com.modsen.validation;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * The {@code JwtPrincipal} record is an immutable snapshot of a verified JSON Web Token.
+ *
+ * @param subject the subject (email) the token was issued to
+ * @param authorities the authorities granted by the token
+ * @param expiration the moment the token stops being valid
+ */
+public record JwtPrincipal(String subject, List<GrantedAuthority> authorities, Instant expiration) {
+
+  public JwtPrincipal {
+    authorities = List.copyOf(authorities);
+  }
+
+  /**
+   * Checks whether the token has expired at the given moment.
+   *
+   * @param now the moment to check against
+   * @return {@code true} if the token is no longer valid
+   */
+  public boolean isExpiredAt(Instant now) {
+    return !expiration.isAfter(now);
+  }
+}
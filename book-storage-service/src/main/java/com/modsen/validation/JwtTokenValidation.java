@@ -1,20 +1,46 @@
 package com.modsen.validation;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.modsen.exception.InvalidTokenException;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Objects;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+/**
+ * Verifies JSON Web Tokens and caches the verified principals.
+ *
+ * <p>Each token is parsed and its signature verified only once. The resulting {@link JwtPrincipal}
+ * is kept in a bounded cache keyed by the SHA-256 digest of the token and evicted when the token
+ * expires, so repeated requests with the same token skip the HMAC verification entirely.
+ *
+ * <p>Like the rest of the security setup, this class has an identical copy in book-tracker-service,
+ * where it throws that service's own {@link InvalidTokenException}. Changes must be made to both
+ * copies.
+ */
 @Component
 public class JwtTokenValidation {
   private static final String AUTHORITIES = "authorities";
+  private static final String DIGEST_ALGORITHM = "SHA-256";
 
   @Value("${spring.security.secret}")
   private String secret;
@@ -22,40 +48,108 @@ public class JwtTokenValidation {
   @Value("${spring.security.issuer}")
   private String issuer;
 
-  @SuppressWarnings("unchecked")
+  @Value("${spring.security.token-cache.maximum-size:10000}")
+  private long tokenCacheMaximumSize;
+
+  Clock clock = Clock.systemUTC();
+  private JwtParser jwtParser;
+  private Cache<String, JwtPrincipal> principals;
+
+  @PostConstruct
+  void init() {
+    jwtParser =
+        Jwts.parserBuilder()
+            .setSigningKey(getSignInKey())
+            .requireIssuer(issuer)
+            .setClock(() -> Date.from(clock.instant()))
+            .build();
+    principals =
+        Caffeine.newBuilder()
+            .maximumSize(tokenCacheMaximumSize)
+            .expireAfter(new TokenExpiry())
+            .build();
+  }
+
+  /**
+   * Verifies the token and returns the principal it carries.
+   *
+   * @param token the raw JWT
+   * @return the verified principal
+   * @throws InvalidTokenException if the token is malformed, badly signed, has no expiration or is
+   *     expired
+   */
+  public JwtPrincipal validate(String token) {
+    var principal = principals.get(digest(token), key -> parse(token));
+    if (principal.isExpiredAt(clock.instant())) {
+      throw new InvalidTokenException();
+    }
+    return principal;
+  }
+
   public List<String> getAuthorities(String token) {
-    checkToken(token);
-    return getClaims(token).get(AUTHORITIES, List.class);
+    return validate(token).authorities().stream().map(GrantedAuthority::getAuthority).toList();
   }
 
   public String getEmail(String token) {
-    checkToken(token);
-    return getClaims(token).getSubject();
+    return validate(token).subject();
   }
 
-  private void checkToken(String token) {
-    boolean isValid;
+  private JwtPrincipal parse(String token) {
     try {
-      isValid = !getClaims(token).getExpiration().before(new Date());
-    } catch (JwtException exception) {
-      isValid = false;
-    }
-    if (!isValid) {
+      var claims = jwtParser.parseClaimsJws(token).getBody();
+      if (Objects.isNull(claims.getExpiration())) {
+        throw new InvalidTokenException();
+      }
+      return new JwtPrincipal(
+          claims.getSubject(), getGrantedAuthorities(claims), claims.getExpiration().toInstant());
+    } catch (JwtException | IllegalArgumentException exception) {
       throw new InvalidTokenException();
     }
   }
 
-  private Claims getClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSignInKey())
-        .requireIssuer(issuer)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+  @SuppressWarnings("unchecked")
+  private List<GrantedAuthority> getGrantedAuthorities(Claims claims) {
+    List<String> authorities = claims.get(AUTHORITIES, List.class);
+    return Objects.requireNonNullElse(authorities, List.<String>of()).stream()
+        .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+        .toList();
+  }
+
+  private String digest(String token) {
+    try {
+      var hash =
+          MessageDigest.getInstance(DIGEST_ALGORITHM)
+              .digest(token.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException(exception);
+    }
   }
 
   private Key getSignInKey() {
     byte[] decode = Decoders.BASE64.decode(secret);
     return Keys.hmacShaKeyFor(decode);
   }
+
+  /** Expires each cached principal at the moment its token expires. */
+  private class TokenExpiry implements Expiry<String, JwtPrincipal> {
+
+    @Override
+    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+      var remaining = Duration.between(clock.instant(), principal.expiration());
+      return Math.max(0, remaining.toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
 }
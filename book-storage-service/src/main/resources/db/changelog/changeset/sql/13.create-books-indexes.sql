@@ -0,0 +1,2 @@
+CREATE INDEX idx_books_name_id ON books (name, id);
+CREATE INDEX idx_books_author_id ON books (author, id);
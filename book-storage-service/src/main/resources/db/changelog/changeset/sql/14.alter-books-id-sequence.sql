@@ -0,0 +1 @@
+ALTER SEQUENCE books_id_seq INCREMENT BY 50;
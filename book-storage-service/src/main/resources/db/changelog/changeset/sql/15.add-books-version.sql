@@ -0,0 +1,8 @@
+ALTER TABLE books ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE catalog_version (
+                       id SMALLINT PRIMARY KEY,
+                       version BIGINT NOT NULL
+);
+
+INSERT INTO catalog_version (id, version) VALUES (1, 0);
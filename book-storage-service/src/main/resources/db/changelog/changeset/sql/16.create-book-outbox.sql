@@ -0,0 +1,8 @@
+CREATE SEQUENCE book_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE book_outbox (
+                       id BIGINT PRIMARY KEY DEFAULT nextval('book_outbox_id_seq'),
+                       topic VARCHAR(255) NOT NULL,
+                       payload TEXT NOT NULL,
+                       created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
@@ -0,0 +1,2 @@
+ALTER TABLE book_outbox ADD COLUMN event_key VARCHAR(255);
+ALTER TABLE book_outbox ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
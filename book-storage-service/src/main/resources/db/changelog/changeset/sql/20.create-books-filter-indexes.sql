@@ -0,0 +1,2 @@
+CREATE INDEX idx_books_genre_id ON books (genre, id);
+CREATE INDEX idx_books_genre_author_id ON books (genre, author, id);
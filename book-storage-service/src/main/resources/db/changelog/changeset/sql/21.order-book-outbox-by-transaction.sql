@@ -0,0 +1,11 @@
+ALTER TABLE book_outbox ADD COLUMN tx_id xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX idx_book_outbox_tx_id ON book_outbox (tx_id, id);
+
+CREATE TABLE book_outbox_relay_lease (
+                       id SMALLINT PRIMARY KEY CHECK (id = 1),
+                       owner VARCHAR(64),
+                       expires_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT '-infinity'
+);
+
+INSERT INTO book_outbox_relay_lease (id) VALUES (1);
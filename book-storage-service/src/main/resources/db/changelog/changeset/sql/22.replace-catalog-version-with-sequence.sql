@@ -0,0 +1,5 @@
+CREATE SEQUENCE catalog_version_seq;
+
+SELECT setval('catalog_version_seq', (SELECT c.version + 1 FROM catalog_version c WHERE c.id = 1));
+
+DROP TABLE catalog_version;
@@ -0,0 +1,197 @@
+package com.modsen.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.modsen.config.CacheConfig;
+import com.modsen.data.BookTestData;
+import com.modsen.event.BookEventTopics;
+import com.modsen.index.AutocompleteIndex;
+import com.modsen.index.GenreFacetIndex;
+import com.modsen.index.IsbnBloomFilter;
+import com.modsen.mapper.BookMapper;
+import com.modsen.model.dto.request.BookFilter;
+import com.modsen.model.entity.Book;
+import com.modsen.model.entity.enums.GenreType;
+import com.modsen.repository.BookChangeRow;
+import com.modsen.repository.BookRepository;
+import com.modsen.repository.OutboxEventRepository;
+import com.modsen.service.api.BookService;
+import com.modsen.service.impl.BookServiceImpl;
+import jakarta.validation.Validator;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig(
+    classes = {
+      CacheConfig.class,
+      BookServiceImpl.class,
+      BookCacheEvictor.class,
+      BookCacheTest.Config.class
+    })
+class BookCacheTest {
+
+  @Autowired private BookService bookService;
+
+  @MockitoBean private BookRepository bookRepository;
+  @MockitoBean private BookMapper bookMapper;
+  @MockitoBean private OutboxEventRepository outboxEventRepository;
+  @MockitoBean private Validator validator;
+  @MockitoBean private IsbnBloomFilter isbnBloomFilter;
+  @MockitoBean private GenreFacetIndex genreFacetIndex;
+  @MockitoBean private AutocompleteIndex autocompleteIndex;
+  @MockitoBean private BookEventTopics bookEventTopics;
+
+  @Test
+  void getByIdShouldHitDatabaseOnceUntilBookIsUpdated() {
+    // given
+    var book = BookTestData.builder().build().buildBook();
+    var bookRequest = BookTestData.builder().withIsbn("other").build().buildBookRequest();
+    var bookResponse = BookTestData.builder().build().buildBookResponse();
+    var row = changeRow(book.getIsbn());
+
+    when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+    when(bookMapper.toBookResponse(book)).thenReturn(bookResponse);
+    when(bookMapper.toBook(row)).thenReturn(book);
+    when(bookRepository.updateReturning(
+            book.getId(),
+            null,
+            bookRequest.isbn(),
+            bookRequest.name(),
+            bookRequest.genre().name(),
+            bookRequest.description(),
+            bookRequest.author()))
+        .thenReturn(Optional.of(row));
+
+    // when
+    bookService.getById(book.getId());
+    bookService.getById(book.getId());
+    bookService.update(book.getId(), bookRequest);
+    var actual = bookService.getById(book.getId());
+
+    // then
+    assertEquals(bookResponse, actual);
+    verify(bookRepository, times(2)).findById(book.getId());
+  }
+
+  @Test
+  void getByIsbnShouldBeCachedSeparatelyAndEvictedOnDelete() {
+    // given
+    var book = BookTestData.builder().build().buildBook();
+    var bookResponse = BookTestData.builder().build().buildBookResponse();
+    var row = changeRow(book.getIsbn());
+
+    when(bookRepository.findByIsbn(book.getIsbn())).thenReturn(Optional.of(book));
+    when(bookRepository.deleteReturning(book.getId())).thenReturn(Optional.of(row));
+    when(bookMapper.toBookResponse(book)).thenReturn(bookResponse);
+
+    // when
+    bookService.getByIsbn(book.getIsbn());
+    bookService.getByIsbn(book.getIsbn());
+    bookService.delete(book.getId());
+    bookService.getByIsbn(book.getIsbn());
+
+    // then
+    verify(bookRepository, times(2)).findByIsbn(book.getIsbn());
+  }
+
+  @Test
+  void updateShouldEvictOnlyPreviousAndNewIsbnOfBook() {
+    // given
+    var book = BookTestData.builder().withIsbn("new").build().buildBook();
+    var bookRequest = BookTestData.builder().withIsbn("new").build().buildBookRequest();
+    var row = changeRow("old");
+
+    when(bookRepository.findByIsbn(any())).thenReturn(Optional.of(book));
+    when(bookMapper.toBookResponse(book))
+        .thenReturn(BookTestData.builder().withIsbn("new").build().buildBookResponse());
+    when(bookMapper.toBook(row)).thenReturn(book);
+    when(bookRepository.updateReturning(
+            book.getId(),
+            null,
+            bookRequest.isbn(),
+            bookRequest.name(),
+            bookRequest.genre().name(),
+            bookRequest.description(),
+            bookRequest.author()))
+        .thenReturn(Optional.of(row));
+    bookService.getByIsbn("old");
+    bookService.getByIsbn("new");
+    bookService.getByIsbn("unrelated");
+
+    // when
+    bookService.update(book.getId(), bookRequest);
+    bookService.getByIsbn("old");
+    bookService.getByIsbn("new");
+    bookService.getByIsbn("unrelated");
+
+    // then
+    verify(bookRepository, times(2)).findByIsbn("old");
+    verify(bookRepository, times(2)).findByIsbn("new");
+    verify(bookRepository).findByIsbn("unrelated");
+  }
+
+  @Test
+  void filteredPageShouldBeCachedUntilCatalogVersionChanges() {
+    // given
+    var filter = new BookFilter(Set.of(GenreType.FICTION), " author ", null, null, null);
+    var sameFilter = new BookFilter(Set.of(GenreType.FICTION), "author", "", null, null);
+    var pageable = Pageable.ofSize(20);
+
+    when(bookRepository.findAll(ArgumentMatchers.<Specification<Book>>any(), any(Pageable.class)))
+        .thenReturn(Page.empty());
+
+    // when
+    bookService.getAll(filter, pageable, 1L);
+    bookService.getAll(sameFilter, pageable, 1L);
+    bookService.getAll(filter, pageable, 2L);
+
+    // then
+    verify(bookRepository, never()).findCatalogVersion();
+    verify(bookRepository, times(2))
+        .findAll(ArgumentMatchers.<Specification<Book>>any(), any(Pageable.class));
+  }
+
+  private static BookChangeRow changeRow(String previousIsbn) {
+    var row = mock(BookChangeRow.class);
+    lenient().when(row.getPreviousIsbn()).thenReturn(previousIsbn);
+    return row;
+  }
+
+  @Configuration
+  static class Config {
+
+    @Bean
+    CacheManager cacheManager() {
+      return new CaffeineCacheManager(
+          CacheConfig.BOOKS_CACHE,
+          CacheConfig.BOOKS_BY_ISBN_CACHE,
+          CacheConfig.BOOKS_BY_FILTER_CACHE);
+    }
+
+    @Bean
+    static ConversionService conversionService() {
+      return ApplicationConversionService.getSharedInstance();
+    }
+  }
+}
@@ -2,21 +2,37 @@ package com.modsen.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.modsen.data.BookTestData;
+import com.modsen.index.IsbnBloomFilter;
+import com.modsen.model.dto.response.BookBatchItemResponse;
+import com.modsen.model.dto.response.BookBatchResponse;
+import com.modsen.model.dto.response.BookImportResponse;
+import com.modsen.model.dto.response.BookVersionResponse;
+import com.modsen.model.dto.response.CursorPageResponse;
+import com.modsen.model.entity.enums.BookImportFormat;
+import com.modsen.model.entity.enums.BookSortKey;
+import com.modsen.service.api.BookExportService;
+import com.modsen.service.api.BookImportService;
 import com.modsen.service.api.BookService;
+import java.io.OutputStream;
 import java.util.List;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -25,6 +41,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -37,10 +54,18 @@ public class BookRestControllerControllerTest {
   private static final String URL_GET_BY_ID = URL + "/{id}";
   private static final String URL_GET_BY_IDS = URL + "/ids";
   private static final String URL_GET_BY_ISBN = URL + "/isbn/{isbn}";
+  private static final String URL_SCROLL = URL + "/scroll";
+  private static final String URL_BATCH = URL + "/batch";
+  private static final String URL_IMPORT = URL + "/import";
+  private static final String URL_EXPORT = URL + "/export";
+  private static final String URL_REBUILD_ISBN_FILTER = URL + "/isbn-filter/rebuild";
   public static final int PAGE_SIZE = 2;
 
   @Autowired private MockMvc mockMvc;
   @MockitoBean private BookService bookService;
+  @MockitoBean private BookImportService bookImportService;
+  @MockitoBean private BookExportService bookExportService;
+  @MockitoBean private IsbnBloomFilter isbnBloomFilter;
   @Autowired private ObjectMapper objectMapper;
 
   @Nested
@@ -90,6 +115,201 @@ public class BookRestControllerControllerTest {
     }
   }
 
+  @Nested
+  class CreateAll {
+    @Test
+    @WithMockUser(authorities = {"book:create"})
+    void createAllShouldReturnBatchResponse() throws Exception {
+      // given
+      var bookRequests = List.of(BookTestData.builder().build().buildBookRequest());
+      var expectedResponse =
+          new BookBatchResponse(
+              1,
+              0,
+              List.of(
+                  new BookBatchItemResponse(
+                      0, "isbn", BookBatchItemResponse.Status.CREATED, 1L, null)));
+
+      doReturn(expectedResponse).when(bookService).createAll(bookRequests);
+
+      // when
+      mockMvc
+          .perform(
+              post(URL_BATCH)
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(objectMapper.writeValueAsString(bookRequests)))
+          // then
+          .andExpectAll(
+              status().isOk(),
+              content().contentType(MediaType.APPLICATION_JSON),
+              content().json(objectMapper.writeValueAsString(expectedResponse)));
+    }
+
+    @Test
+    void createAllShouldReturnForbidden() throws Exception {
+      // given
+      var bookRequests = List.of(BookTestData.builder().build().buildBookRequest());
+
+      // when
+      mockMvc
+          .perform(
+              post(URL_BATCH)
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(objectMapper.writeValueAsString(bookRequests)))
+          // then
+          .andExpect(status().isForbidden());
+
+      verify(bookService, never()).createAll(anyList());
+    }
+  }
+
+  @Nested
+  class Import {
+    @Test
+    @WithMockUser(authorities = {"book:create"})
+    void importShouldReturnImportReport() throws Exception {
+      // given
+      var expectedResponse = new BookImportResponse(1, 1, 0, List.of());
+
+      doReturn(expectedResponse)
+          .when(bookImportService)
+          .importBooks(any(), eq(BookImportFormat.CSV));
+
+      // when
+      mockMvc
+          .perform(
+              post(URL_IMPORT)
+                  .contentType("text/csv")
+                  .content("isbn,name,genre,description,author\nisbn,name,FICTION,d,a\n"))
+          // then
+          .andExpectAll(
+              status().isOk(),
+              content().contentType(MediaType.APPLICATION_JSON),
+              content().json(objectMapper.writeValueAsString(expectedResponse)));
+    }
+
+    @Test
+    void importShouldReturnForbidden() throws Exception {
+      // when
+      mockMvc
+          .perform(post(URL_IMPORT).contentType("application/x-ndjson").content("{}"))
+          // then
+          .andExpect(status().isForbidden());
+
+      verify(bookImportService, never()).importBooks(any(), any());
+    }
+  }
+
+  @Nested
+  class Export {
+    @Test
+    @WithMockUser(authorities = {"book:read"})
+    void exportShouldStreamNdjson() throws Exception {
+      // given
+      var line = "{\"id\":1}\n";
+      doAnswer(
+              invocation -> {
+                invocation.<OutputStream>getArgument(0).write(line.getBytes());
+                return null;
+              })
+          .when(bookExportService)
+          .exportAll(any(), eq(false));
+
+      var result = mockMvc.perform(get(URL_EXPORT)).andExpect(request().asyncStarted()).andReturn();
+
+      // when
+      mockMvc
+          .perform(asyncDispatch(result))
+          // then
+          .andExpectAll(
+              status().isOk(),
+              content().contentType(MediaType.APPLICATION_NDJSON),
+              header().doesNotExist(HttpHeaders.CONTENT_ENCODING),
+              header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING),
+              content().string(line));
+    }
+
+    @Test
+    @WithMockUser(authorities = {"book:read"})
+    void exportShouldCompressWhenGzipIsAccepted() throws Exception {
+      // given
+      var result =
+          mockMvc
+              .perform(get(URL_EXPORT).header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.5"))
+              .andExpect(request().asyncStarted())
+              .andReturn();
+
+      // when
+      mockMvc
+          .perform(asyncDispatch(result))
+          // then
+          .andExpectAll(
+              status().isOk(),
+              header().string(HttpHeaders.CONTENT_ENCODING, "gzip"),
+              header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+
+      verify(bookExportService).exportAll(any(), eq(true));
+    }
+
+    @Test
+    @WithMockUser(authorities = {"book:read"})
+    void exportShouldNotCompressWhenGzipIsRefused() throws Exception {
+      // given
+      var result =
+          mockMvc
+              .perform(get(URL_EXPORT).header(HttpHeaders.ACCEPT_ENCODING, "*, gzip;q=0"))
+              .andExpect(request().asyncStarted())
+              .andReturn();
+
+      // when
+      mockMvc
+          .perform(asyncDispatch(result))
+          // then
+          .andExpectAll(
+              status().isOk(),
+              header().doesNotExist(HttpHeaders.CONTENT_ENCODING),
+              header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+
+      verify(bookExportService).exportAll(any(), eq(false));
+    }
+
+    @Test
+    void exportShouldReturnForbidden() throws Exception {
+      // when
+      mockMvc
+          .perform(get(URL_EXPORT))
+          // then
+          .andExpect(status().isForbidden());
+    }
+  }
+
+  @Nested
+  class RebuildIsbnFilter {
+    @Test
+    @WithMockUser(authorities = {"book:delete"})
+    void rebuildIsbnFilterShouldReturnNoContent() throws Exception {
+      // when
+      mockMvc
+          .perform(post(URL_REBUILD_ISBN_FILTER))
+          // then
+          .andExpect(status().isNoContent());
+
+      verify(isbnBloomFilter).rebuild();
+    }
+
+    @Test
+    @WithMockUser(authorities = {"book:read"})
+    void rebuildIsbnFilterShouldReturnForbidden() throws Exception {
+      // when
+      mockMvc
+          .perform(post(URL_REBUILD_ISBN_FILTER))
+          // then
+          .andExpect(status().isForbidden());
+
+      verify(isbnBloomFilter, never()).rebuild();
+    }
+  }
+
   @Nested
   class GetAll {
 
@@ -116,6 +336,44 @@ public class BookRestControllerControllerTest {
           .andExpect(content().json(objectMapper.writeValueAsString(expectedPage)));
     }
 
+    @Test
+    @WithMockUser(authorities = {"book:read"})
+    void getAllShouldReturnNotModifiedWithoutLoadingPageWhenCatalogIsUnchanged() throws Exception {
+      // given
+      when(bookService.getCatalogVersion()).thenReturn(5L);
+
+      // when
+      mockMvc
+          .perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"catalog-5\""))
+          // then
+          .andExpect(status().isNotModified());
+
+      verify(bookService, never()).getAll(any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(authorities = {"book:read"})
+    void scrollShouldReturnCursorPageResponse() throws Exception {
+      // given
+      var expectedResponse =
+          new CursorPageResponse<>(
+              List.of(BookTestData.builder().build().buildBookResponse()), PAGE_SIZE, null);
+
+      when(bookService.getAll(BookSortKey.NAME, null, PAGE_SIZE)).thenReturn(expectedResponse);
+
+      // when
+      mockMvc
+          .perform(
+              get(URL_SCROLL)
+                  .param("sort", BookSortKey.NAME.name())
+                  .param("size", String.valueOf(PAGE_SIZE))
+                  .contentType(MediaType.APPLICATION_JSON))
+          // then
+          .andExpect(status().isOk())
+          .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+          .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
+    }
+
     @Test
     void getAllShouldReturnForbidden() throws Exception {
       // given
@@ -152,6 +410,26 @@ public class BookRestControllerControllerTest {
       verify(bookService).getById(any());
     }
 
+    @Test
+    @WithMockUser(authorities = {"book:read"})
+    void getByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+      // given
+      var bookResponse = BookTestData.builder().withVersion(3L).build().buildBookResponse();
+      var bookId = bookResponse.id();
+
+      doReturn(new BookVersionResponse(bookId, 3L)).when(bookService).getVersion(bookId);
+
+      // when
+      mockMvc
+          .perform(get(URL_GET_BY_ID, bookId).header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+          // then
+          .andExpectAll(
+              status().isNotModified(),
+              header().string(HttpHeaders.ETAG, "\"1-3\""),
+              content().string(""));
+      verify(bookService, never()).getById(any());
+    }
+
     @Test
     @WithMockUser(authorities = {"book:read"})
     void getBooksByIdsShouldReturnUserProfileResponse() throws Exception {
@@ -251,7 +529,7 @@ public class BookRestControllerControllerTest {
 
       var updatedResponse = BookTestData.builder().build().buildBookResponse();
 
-      doReturn(updatedResponse).when(bookService).update(bookId, bookRequest);
+      doReturn(updatedResponse).when(bookService).update(bookId, bookRequest, null);
 
       var requestBuilder =
           put(URL_GET_BY_ID, bookId)
@@ -267,7 +545,7 @@ public class BookRestControllerControllerTest {
               content().contentType(MediaType.APPLICATION_JSON),
               content().json(objectMapper.writeValueAsString(updatedResponse)));
 
-      verify(bookService).update(any(), any());
+      verify(bookService).update(any(), any(), any());
     }
 
     @Test
@@ -281,7 +559,7 @@ public class BookRestControllerControllerTest {
           // then
           .andExpect(status().isForbidden());
 
-      verify(bookService, never()).update(any(), any());
+      verify(bookService, never()).update(any(), any(), any());
     }
   }
 
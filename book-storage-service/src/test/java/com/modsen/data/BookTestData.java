@@ -15,9 +15,10 @@ public class BookTestData {
   @Builder.Default private GenreType genre = GenreType.FICTION;
   @Builder.Default private String description = "description";
   @Builder.Default private String author = "author";
+  @Builder.Default private Long version = 0L;
 
   public BookResponse buildBookResponse() {
-    return new BookResponse(id, isbn, name, genre, description, author);
+    return new BookResponse(id, isbn, name, genre, description, author, version);
   }
 
   public BookRequest buildBookRequest() {
@@ -25,6 +26,6 @@ public class BookTestData {
   }
 
   public Book buildBook() {
-    return new Book(id, isbn, name, genre, description, author);
+    return new Book(id, isbn, name, genre, description, author, version);
   }
 }
@@ -0,0 +1,99 @@
+package com.modsen.event;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.modsen.cache.BookCacheEvictor;
+import com.modsen.index.AutocompleteIndex;
+import com.modsen.index.BookFacetEntry;
+import com.modsen.index.BookTitleEntry;
+import com.modsen.index.GenreFacetIndex;
+import com.modsen.index.IsbnBloomFilter;
+import com.modsen.model.entity.enums.GenreType;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookEventListenerTest {
+  private static final BookSnapshot BOOK =
+      new BookSnapshot("978-0-00-000000-1", "name", "FICTION", "description", "author");
+
+  @InjectMocks private BookEventListener bookEventListener;
+
+  @Mock private IsbnBloomFilter isbnBloomFilter;
+  @Mock private BookCacheEvictor bookCacheEvictor;
+  @Mock private GenreFacetIndex genreFacetIndex;
+  @Mock private AutocompleteIndex autocompleteIndex;
+
+  @Test
+  void applyShouldRecordIsbnOfCreatedAndUpdatedBooks() {
+    // given
+    var created = BookEventCodec.encode(BookEvent.of(BookEventType.CREATED, 1L, 0L, BOOK));
+
+    // when
+    bookEventListener.apply(List.of(created));
+
+    // then
+    verify(isbnBloomFilter).put(BOOK.isbn());
+    verify(genreFacetIndex).put(new BookFacetEntry(1L, GenreType.FICTION, BOOK.author()));
+    verify(autocompleteIndex).put(new BookTitleEntry(1L, BOOK.name(), BOOK.author()));
+    verifyNoInteractions(bookCacheEvictor);
+  }
+
+  @Test
+  void applyShouldEvictPreviousAndCurrentIsbnOfUpdatedBook() {
+    // given
+    var updated = BookEventCodec.encode(BookEvent.of(BookEventType.UPDATED, 1L, 1L, BOOK, "old"));
+
+    // when
+    bookEventListener.apply(List.of(updated));
+
+    // then
+    verify(bookCacheEvictor).evict(1L, "old", BOOK.isbn());
+    verify(isbnBloomFilter).put(BOOK.isbn());
+  }
+
+  @Test
+  void applyShouldEvictLastIsbnOfDeletedBook() {
+    // given
+    var deleted =
+        BookEventCodec.encode(BookEvent.of(BookEventType.DELETED, 1L, 2L, null, BOOK.isbn()));
+
+    // when
+    bookEventListener.apply(List.of(deleted));
+
+    // then
+    verify(bookCacheEvictor).evict(1L, BOOK.isbn(), null);
+    verify(genreFacetIndex).remove(1L);
+    verify(autocompleteIndex).remove(1L);
+    verifyNoInteractions(isbnBloomFilter);
+  }
+
+  @Test
+  void applyShouldLeaveBooksOfUnknownGenreToTheNextRebuild() {
+    // given
+    var book = new BookSnapshot("isbn", "name", "SATIRE", "description", "author");
+    var created = BookEventCodec.encode(BookEvent.of(BookEventType.CREATED, 1L, 0L, book));
+
+    // when
+    bookEventListener.apply(List.of(created));
+
+    // then
+    verify(isbnBloomFilter).put("isbn");
+    verifyNoInteractions(genreFacetIndex);
+  }
+
+  @Test
+  void applyShouldSkipRecordsThatAreNotBookEvents() {
+    // when
+    bookEventListener.apply(List.of("1".getBytes(StandardCharsets.UTF_8)));
+
+    // then
+    verifyNoInteractions(isbnBloomFilter, bookCacheEvictor, genreFacetIndex, autocompleteIndex);
+  }
+}
@@ -0,0 +1,39 @@
+package com.modsen.event;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class BookEventTopicsTest {
+
+  @Test
+  void topicForShouldUseOneTopicPerOperationByDefault() {
+    // given
+    var bookEventTopics = new BookEventTopics(false);
+
+    // when & then
+    assertEquals("book-created", bookEventTopics.topicFor(BookEventType.CREATED));
+    assertEquals("book-updated", bookEventTopics.topicFor(BookEventType.UPDATED));
+    assertEquals("book-deleted", bookEventTopics.topicFor(BookEventType.DELETED));
+  }
+
+  @Test
+  void topicForShouldUseBookEventsTopicWhenUnified() {
+    // given
+    var bookEventTopics = new BookEventTopics(true);
+
+    // when & then
+    assertEquals("book-events", bookEventTopics.topicFor(BookEventType.CREATED));
+    assertEquals("book-events", bookEventTopics.topicFor(BookEventType.DELETED));
+  }
+
+  @Test
+  void subscribedShouldListEveryTopicEventsArePublishedTo() {
+    // when & then
+    assertArrayEquals(
+        new String[] {"book-created", "book-updated", "book-deleted"},
+        new BookEventTopics(false).subscribed());
+    assertArrayEquals(new String[] {"book-events"}, new BookEventTopics(true).subscribed());
+  }
+}
@@ -0,0 +1,120 @@
+package com.modsen.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.modsen.data.BookTestData;
+import com.modsen.model.dto.response.BookSuggestionResponse;
+import com.modsen.model.entity.enums.SuggestionType;
+import com.modsen.repository.BookRepository;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompleteIndexTest {
+
+  @Mock private BookRepository bookRepository;
+
+  private AutocompleteIndex autocompleteIndex;
+
+  @BeforeEach
+  void setUp() {
+    autocompleteIndex = new AutocompleteIndex(bookRepository);
+    when(bookRepository.streamAllTitleEntries())
+        .thenReturn(
+            Stream.of(
+                new BookTitleEntry(1L, "The Hobbit", "Tolkien"),
+                new BookTitleEntry(2L, "The Hobbit", "Tolkien"),
+                new BookTitleEntry(3L, "The Silmarillion", "Tolkien"),
+                new BookTitleEntry(4L, "Thud!", "Pratchett"),
+                new BookTitleEntry(5L, "Hogfather", "Pratchett")));
+    autocompleteIndex.rebuild();
+  }
+
+  @Test
+  void suggestShouldReturnHeaviestTitlesForPrefixIgnoringCase() {
+    // when
+    var suggestions = autocompleteIndex.suggest("th", SuggestionType.TITLE, 2);
+
+    // then
+    assertEquals(
+        List.of(
+            new BookSuggestionResponse("The Hobbit", SuggestionType.TITLE, 2),
+            new BookSuggestionResponse("The Silmarillion", SuggestionType.TITLE, 1)),
+        suggestions);
+  }
+
+  @Test
+  void suggestShouldMergeTitlesAndAuthors() {
+    // when
+    var suggestions = autocompleteIndex.suggest("T", null, 10);
+
+    // then
+    assertEquals(
+        new BookSuggestionResponse("Tolkien", SuggestionType.AUTHOR, 3), suggestions.get(0));
+    assertEquals(4, suggestions.size());
+  }
+
+  @Test
+  void putAndRemoveShouldShowUpAfterRefresh() {
+    // given
+    var renamed =
+        BookTestData.builder()
+            .withId(4L)
+            .withName("Hogswatch")
+            .withAuthor("Pratchett")
+            .build()
+            .buildBook();
+
+    // when
+    autocompleteIndex.put(renamed);
+    autocompleteIndex.remove(5L);
+    autocompleteIndex.refresh();
+
+    // then
+    assertEquals(
+        List.of(new BookSuggestionResponse("Hogswatch", SuggestionType.TITLE, 1)),
+        autocompleteIndex.suggest("hog", SuggestionType.TITLE, 10));
+    assertEquals(List.of(), autocompleteIndex.suggest("thud", SuggestionType.TITLE, 10));
+  }
+
+  @Test
+  void refreshShouldMergeReweightedAddedAndRemovedTerms() {
+    // when
+    autocompleteIndex.put(new BookTitleEntry(6L, "The Hobbit", "Tolkien"));
+    autocompleteIndex.put(new BookTitleEntry(7L, "Thief of Time", "Pratchett"));
+    autocompleteIndex.remove(3L);
+    autocompleteIndex.refresh();
+
+    // then
+    assertEquals(
+        List.of(
+            new BookSuggestionResponse("The Hobbit", SuggestionType.TITLE, 3),
+            new BookSuggestionResponse("Thief of Time", SuggestionType.TITLE, 1),
+            new BookSuggestionResponse("Thud!", SuggestionType.TITLE, 1)),
+        autocompleteIndex.suggest("th", SuggestionType.TITLE, 10));
+  }
+
+  @Test
+  void rebuildShouldKeepChangesMadeWhileScanning() {
+    // given
+    when(bookRepository.streamAllTitleEntries())
+        .thenReturn(
+            Stream.of(new BookTitleEntry(1L, "The Hobbit", "Tolkien"))
+                .peek(entry -> autocompleteIndex.put(new BookTitleEntry(8L, "Mort", "Pratchett"))));
+
+    // when
+    autocompleteIndex.rebuild();
+
+    // then
+    assertEquals(
+        List.of(new BookSuggestionResponse("Mort", SuggestionType.TITLE, 1)),
+        autocompleteIndex.suggest("mo", SuggestionType.TITLE, 10));
+    assertEquals(List.of(), autocompleteIndex.suggest("thud", SuggestionType.TITLE, 10));
+  }
+}
@@ -0,0 +1,137 @@
+package com.modsen.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.modsen.data.BookTestData;
+import com.modsen.model.entity.enums.GenreType;
+import com.modsen.repository.BookRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class GenreFacetIndexTest {
+
+  @Mock private BookRepository bookRepository;
+
+  private GenreFacetIndex genreFacetIndex;
+
+  @BeforeEach
+  void setUp() {
+    genreFacetIndex = new GenreFacetIndex(bookRepository);
+    when(bookRepository.streamAllFacetEntries())
+        .thenReturn(
+            Stream.of(
+                new BookFacetEntry(1L, GenreType.FICTION, "Tolkien"),
+                new BookFacetEntry(2L, GenreType.FANTASY, "Tolkien"),
+                new BookFacetEntry(3L, GenreType.FANTASY, "Pratchett"),
+                new BookFacetEntry(4L, GenreType.HISTORY, "Beard")));
+    genreFacetIndex.rebuild();
+  }
+
+  @Test
+  void facetsShouldCountAllBooksWithoutGenreFilter() {
+    // when
+    var facets = genreFacetIndex.facets(Set.of(), 10);
+
+    // then
+    assertEquals(4, facets.total());
+    assertEquals(2L, facets.genres().get(GenreType.FANTASY));
+    assertEquals(0L, facets.genres().get(GenreType.POETRY));
+    assertEquals(List.of("Tolkien", "Beard", "Pratchett"), List.copyOf(facets.authors().keySet()));
+  }
+
+  @Test
+  void facetsShouldCountAuthorsWithinSelectedGenres() {
+    // when
+    var facets = genreFacetIndex.facets(Set.of(GenreType.FANTASY, GenreType.HISTORY), 2);
+
+    // then
+    assertEquals(3, facets.total());
+    assertEquals(Map.of("Beard", 1L, "Pratchett", 1L), facets.authors());
+  }
+
+  @Test
+  void putAndRemoveShouldKeepCountsCurrent() {
+    // given
+    var moved =
+        BookTestData.builder()
+            .withId(2L)
+            .withGenre(GenreType.HISTORY)
+            .withAuthor("Beard")
+            .build()
+            .buildBook();
+
+    // when
+    genreFacetIndex.put(moved);
+    genreFacetIndex.remove(1L);
+    var facets = genreFacetIndex.facets(Set.of(GenreType.HISTORY), 10);
+
+    // then
+    assertEquals(2, facets.total());
+    assertEquals(0L, facets.genres().get(GenreType.FICTION));
+    assertEquals(1L, facets.genres().get(GenreType.FANTASY));
+    assertEquals(Map.of("Beard", 2L), facets.authors());
+  }
+
+  @Test
+  void facetsShouldRankAuthorsWithMostMatchingBooksFirst() {
+    // given
+    genreFacetIndex.put(
+        BookTestData.builder()
+            .withId(5L)
+            .withGenre(GenreType.HISTORY)
+            .withAuthor("Beard")
+            .build()
+            .buildBook());
+
+    // when
+    var facets = genreFacetIndex.facets(Set.of(GenreType.FANTASY, GenreType.HISTORY), 1);
+
+    // then
+    assertEquals(Map.of("Beard", 2L), facets.authors());
+  }
+
+  @Test
+  void rebuildShouldKeepWritesMadeDuringScan() {
+    // given
+    var moved =
+        BookTestData.builder()
+            .withId(1L)
+            .withGenre(GenreType.POETRY)
+            .withAuthor("Tolkien")
+            .build()
+            .buildBook();
+    when(bookRepository.streamAllFacetEntries())
+        .thenReturn(
+            Stream.of(new BookFacetEntry(1L, GenreType.FICTION, "Tolkien"))
+                .peek(entry -> genreFacetIndex.put(moved)));
+
+    // when
+    genreFacetIndex.rebuild();
+    var facets = genreFacetIndex.facets(Set.of(), 10);
+
+    // then
+    assertEquals(1, facets.total());
+    assertEquals(1L, facets.genres().get(GenreType.POETRY));
+    assertEquals(0L, facets.genres().get(GenreType.FICTION));
+  }
+
+  @Test
+  void putShouldApplyEntryReportedByAnotherInstance() {
+    // when
+    genreFacetIndex.put(new BookFacetEntry(5L, GenreType.POETRY, "Beard"));
+
+    // then
+    var facets = genreFacetIndex.facets(Set.of(GenreType.POETRY), 10);
+    assertEquals(1, facets.total());
+    assertEquals(Map.of("Beard", 1L), facets.authors());
+  }
+}
@@ -0,0 +1,74 @@
+package com.modsen.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.modsen.repository.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IsbnBloomFilterTest {
+  private static final String STORED_ISBN = "978-0-00-000000-1";
+  private static final String NEW_ISBN = "978-0-00-000000-2";
+
+  @Mock private BookRepository bookRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private IsbnBloomFilter isbnBloomFilter;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    isbnBloomFilter = new IsbnBloomFilter(bookRepository, meterRegistry, 1_000, 0.01);
+  }
+
+  @Test
+  void mightContainShouldReportEveryIsbnUntilFilterIsBuilt() {
+    // when & then
+    assertTrue(isbnBloomFilter.mightContain(NEW_ISBN));
+  }
+
+  @Test
+  void existsShouldSkipLookupForIsbnAbsentFromRebuiltFilter() {
+    // given
+    when(bookRepository.count()).thenReturn(1L);
+    when(bookRepository.streamAllIsbns()).thenReturn(Stream.of(STORED_ISBN));
+    isbnBloomFilter.rebuild();
+
+    // when
+    var exists =
+        isbnBloomFilter.exists(
+            NEW_ISBN,
+            isbn -> {
+              throw new AssertionError("database must not be consulted");
+            });
+
+    // then
+    assertFalse(exists);
+    assertTrue(isbnBloomFilter.exists(STORED_ISBN, isbn -> true));
+  }
+
+  @Test
+  void existsShouldCountFalsePositiveWhenLookupFindsNothing() {
+    // given
+    when(bookRepository.count()).thenReturn(0L);
+    when(bookRepository.streamAllIsbns()).thenReturn(Stream.empty());
+    isbnBloomFilter.rebuild();
+    isbnBloomFilter.put(NEW_ISBN);
+
+    // when
+    var exists = isbnBloomFilter.exists(NEW_ISBN, isbn -> false);
+
+    // then
+    assertFalse(exists);
+    assertEquals(1.0, meterRegistry.counter("books.isbn.filter.false.positives").count());
+  }
+}
@@ -0,0 +1,137 @@
+package com.modsen.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.modsen.model.entity.OutboxEvent;
+import com.modsen.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+  private static final int BATCH_SIZE = 2;
+  private static final String TOPIC = "book-created";
+
+  @Mock private OutboxEventRepository outboxEventRepository;
+  @Mock private KafkaTemplate<String, byte[]> kafkaTemplate;
+  @Mock private TransactionTemplate transactionTemplate;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OutboxRelay outboxRelay;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    outboxRelay =
+        new OutboxRelay(
+            outboxEventRepository,
+            kafkaTemplate,
+            transactionTemplate,
+            meterRegistry,
+            BATCH_SIZE,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(3));
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+  }
+
+  @Test
+  void relayShouldPublishAndDeleteBatchesUntilOutboxIsDrained() {
+    // given
+    var first = new OutboxEvent(1L, TOPIC, "1", new byte[] {1}, Instant.now());
+    var second = new OutboxEvent(2L, TOPIC, "2", new byte[] {2}, Instant.now());
+    var third = new OutboxEvent(3L, TOPIC, "3", new byte[] {3}, Instant.now());
+
+    when(outboxEventRepository.acquireLease(anyString(), eq(3.0))).thenReturn(1);
+    when(outboxEventRepository.findNextBatch(BATCH_SIZE))
+        .thenReturn(List.of(first, second))
+        .thenReturn(List.of(third));
+    when(kafkaTemplate.send(any(), any(), any())).thenReturn(sent());
+    when(outboxEventRepository.findOldestCreatedAt()).thenReturn(Optional.empty());
+
+    // when
+    outboxRelay.relay();
+
+    // then
+    verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+    verify(kafkaTemplate, times(3)).send(any(), any(), any());
+    assertEquals(3.0, meterRegistry.counter("books.outbox.published").count());
+  }
+
+  @Test
+  void relayShouldKeepBatchWhenSendFails() {
+    // given
+    var event = new OutboxEvent(1L, TOPIC, "1", new byte[] {1}, Instant.now());
+
+    when(outboxEventRepository.acquireLease(anyString(), eq(3.0))).thenReturn(1);
+    when(outboxEventRepository.findNextBatch(BATCH_SIZE)).thenReturn(List.of(event));
+    when(kafkaTemplate.send(TOPIC, "1", event.getPayload()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+    // when & then
+    assertThrows(KafkaException.class, () -> outboxRelay.relay());
+    verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+  }
+
+  @Test
+  void relayShouldReportAgeOfOldestPendingEvent() {
+    // given
+    when(outboxEventRepository.acquireLease(anyString(), eq(3.0))).thenReturn(1);
+    when(outboxEventRepository.findNextBatch(BATCH_SIZE)).thenReturn(List.of());
+    when(outboxEventRepository.findOldestCreatedAt())
+        .thenReturn(Optional.of(Instant.now().minusSeconds(60)));
+
+    // when
+    outboxRelay.relay();
+
+    // then
+    var lag = meterRegistry.get("books.outbox.lag").gauge().value();
+    assertTrue(lag >= 60_000);
+  }
+
+  @Test
+  void relayShouldNotPublishWhileAnotherInstanceHoldsLease() {
+    // given
+    when(outboxEventRepository.acquireLease(anyString(), eq(3.0))).thenReturn(0);
+    when(outboxEventRepository.findOldestCreatedAt()).thenReturn(Optional.empty());
+
+    // when
+    outboxRelay.relay();
+
+    // then
+    verify(outboxEventRepository, never()).findNextBatch(anyInt());
+    verifyNoInteractions(kafkaTemplate);
+  }
+
+  private static CompletableFuture<SendResult<String, byte[]>> sent() {
+    return CompletableFuture.completedFuture(null);
+  }
+}
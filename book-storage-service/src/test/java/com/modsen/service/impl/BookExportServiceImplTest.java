@@ -0,0 +1,87 @@
+package com.modsen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.data.BookTestData;
+import com.modsen.mapper.BookMapper;
+import com.modsen.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookExportServiceImplTest {
+
+  @InjectMocks private BookExportServiceImpl bookExportService;
+
+  @Mock private BookRepository bookRepository;
+  @Mock private BookMapper bookMapper;
+  @Mock private EntityManager entityManager;
+  @Spy private ObjectMapper objectMapper = new ObjectMapper();
+
+  @Nested
+  class ExportAll {
+
+    @Test
+    void exportAllShouldWriteOneJsonLinePerBookAndDetachIt() throws Exception {
+      // given
+      var first = BookTestData.builder().withId(1L).build().buildBook();
+      var second = BookTestData.builder().withId(2L).build().buildBook();
+      var firstResponse = BookTestData.builder().withId(1L).build().buildBookResponse();
+      var secondResponse = BookTestData.builder().withId(2L).build().buildBookResponse();
+      var outputStream = new ByteArrayOutputStream();
+
+      when(bookRepository.streamAllOrderedById()).thenReturn(Stream.of(first, second));
+      when(bookMapper.toBookResponse(first)).thenReturn(firstResponse);
+      when(bookMapper.toBookResponse(second)).thenReturn(secondResponse);
+
+      // when
+      bookExportService.exportAll(outputStream, false);
+
+      // then
+      var expected =
+          objectMapper.writeValueAsString(firstResponse)
+              + "\n"
+              + objectMapper.writeValueAsString(secondResponse)
+              + "\n";
+      assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+      verify(entityManager).detach(first);
+      verify(entityManager).detach(second);
+    }
+
+    @Test
+    void exportAllShouldCompressOutputWhenGzipRequested() throws Exception {
+      // given
+      var book = BookTestData.builder().build().buildBook();
+      var bookResponse = BookTestData.builder().build().buildBookResponse();
+      var outputStream = new ByteArrayOutputStream();
+
+      when(bookRepository.streamAllOrderedById()).thenReturn(Stream.of(book));
+      when(bookMapper.toBookResponse(book)).thenReturn(bookResponse);
+
+      // when
+      bookExportService.exportAll(outputStream, true);
+
+      // then
+      try (var inputStream =
+          new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+        assertEquals(
+            objectMapper.writeValueAsString(bookResponse) + "\n",
+            new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+      }
+    }
+  }
+}
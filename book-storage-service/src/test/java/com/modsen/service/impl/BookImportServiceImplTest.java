@@ -0,0 +1,225 @@
+package com.modsen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modsen.data.BookTestData;
+import com.modsen.exception.InvalidImportFileException;
+import com.modsen.model.dto.response.BookBatchItemResponse;
+import com.modsen.model.dto.response.BookBatchResponse;
+import com.modsen.model.entity.enums.BookImportFormat;
+import com.modsen.model.entity.enums.GenreType;
+import com.modsen.service.api.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceImplTest {
+
+  @InjectMocks private BookImportServiceImpl bookImportService;
+
+  @Mock private BookService bookService;
+  @Spy private ObjectMapper objectMapper = new ObjectMapper();
+  @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Nested
+  class Csv {
+
+    @Test
+    void importShouldCreateParsedRowsAndReportRejectedOnesByLine() {
+      // given
+      var csv =
+          """
+          author,isbn,name,genre,description
+          author,isbn,name,fiction,"quoted, with comma"
+          author,other,name,UNKNOWN,description
+          author,third,name,FICTION,"spans
+          two lines"
+          """;
+      var first =
+          BookTestData.builder().withDescription("quoted, with comma").build().buildBookRequest();
+      var third =
+          BookTestData.builder()
+              .withIsbn("third")
+              .withGenre(GenreType.FICTION)
+              .withDescription("spans\ntwo lines")
+              .build()
+              .buildBookRequest();
+
+      when(bookService.createAll(List.of(first, third)))
+          .thenReturn(
+              new BookBatchResponse(
+                  1,
+                  1,
+                  List.of(
+                      new BookBatchItemResponse(
+                          0, "isbn", BookBatchItemResponse.Status.CREATED, 1L, null),
+                      new BookBatchItemResponse(
+                          1, "third", BookBatchItemResponse.Status.CONFLICT, null, "exists"))));
+
+      // when
+      var actual = bookImportService.importBooks(stream(csv), BookImportFormat.CSV);
+
+      // then
+      assertEquals(3, actual.processed());
+      assertEquals(1, actual.created());
+      assertEquals(2, actual.rejected());
+      assertEquals(List.of(3, 4), actual.rejections().stream().map(r -> r.index()).toList());
+      assertEquals(BookBatchItemResponse.Status.INVALID, actual.rejections().getFirst().status());
+    }
+
+    @Test
+    void importShouldRejectRowsShorterThanHeader() {
+      // given
+      var csv =
+          """
+          extra,author,isbn,name,genre,description
+          x,author,isbn,name,FICTION
+          """;
+
+      // when
+      var actual = bookImportService.importBooks(stream(csv), BookImportFormat.CSV);
+
+      // then
+      assertEquals(1, actual.rejected());
+      assertEquals(BookBatchItemResponse.Status.INVALID, actual.rejections().getFirst().status());
+      assertEquals("Expected 6 columns but found 5", actual.rejections().getFirst().message());
+      verify(bookService, never()).createAll(anyList());
+    }
+
+    @Test
+    void importShouldRejectUnterminatedQuoteAtLimitAndReadFollowingLinesAgain() {
+      // given
+      var csv =
+          "isbn,name,genre,description,author\n"
+              + "isbn,name,FICTION,\"never closed\n"
+              + "short\n".repeat(BookImportServiceImpl.MAX_RECORD_LINES);
+
+      // when
+      var actual = bookImportService.importBooks(stream(csv), BookImportFormat.CSV);
+
+      // then
+      assertEquals(BookImportServiceImpl.MAX_RECORD_LINES + 1, actual.processed());
+      assertEquals(BookImportServiceImpl.MAX_RECORD_LINES + 1, actual.rejected());
+      assertEquals(2, actual.rejections().getFirst().index());
+      assertEquals(
+          "Quoted field is not terminated within 100 lines or 65536 characters",
+          actual.rejections().getFirst().message());
+      assertEquals(3, actual.rejections().get(1).index());
+      assertEquals("Expected 5 columns but found 1", actual.rejections().get(1).message());
+      verify(bookService, never()).createAll(anyList());
+    }
+
+    @Test
+    void importShouldThrowInvalidImportFileExceptionWhenColumnIsMissing() {
+      // given
+      var csv = "isbn,name,genre,description\n";
+
+      // when & then
+      assertThrows(
+          InvalidImportFileException.class,
+          () -> bookImportService.importBooks(stream(csv), BookImportFormat.CSV));
+      verify(bookService, never()).createAll(anyList());
+    }
+  }
+
+  @Nested
+  class Ndjson {
+
+    @Test
+    void importShouldCreateRowsInChunks() {
+      // given
+      var line =
+          "{\"isbn\":\"isbn\",\"name\":\"name\",\"genre\":\"FICTION\","
+              + "\"description\":\"description\",\"author\":\"author\"}\n";
+      var rows = BookImportServiceImpl.CHUNK_SIZE + 1;
+      var bookRequest = BookTestData.builder().build().buildBookRequest();
+
+      when(bookService.createAll(anyList()))
+          .thenReturn(new BookBatchResponse(BookImportServiceImpl.CHUNK_SIZE, 0, List.of()))
+          .thenReturn(new BookBatchResponse(1, 0, List.of()));
+
+      // when
+      var actual =
+          bookImportService.importBooks(stream(line.repeat(rows)), BookImportFormat.NDJSON);
+
+      // then
+      assertEquals(rows, actual.processed());
+      assertEquals(rows, actual.created());
+      assertEquals(
+          rows, meterRegistry.get("books.import.rows").tag("outcome", "created").counter().count());
+      assertEquals(0, meterRegistry.get("books.import.active").gauge().value());
+      verify(bookService).createAll(List.of(bookRequest));
+    }
+
+    @Test
+    void importShouldReportRowsOfFailedChunkAndContinueWithNextOne() {
+      // given
+      var line =
+          "{\"isbn\":\"isbn\",\"name\":\"name\",\"genre\":\"FICTION\","
+              + "\"description\":\"description\",\"author\":\"author\"}\n";
+      var rows = BookImportServiceImpl.CHUNK_SIZE + 1;
+
+      when(bookService.createAll(anyList()))
+          .thenThrow(new DataIntegrityViolationException("duplicate key"))
+          .thenReturn(new BookBatchResponse(1, 0, List.of()));
+
+      // when
+      var actual =
+          bookImportService.importBooks(stream(line.repeat(rows)), BookImportFormat.NDJSON);
+
+      // then
+      assertEquals(rows, actual.processed());
+      assertEquals(1, actual.created());
+      assertEquals(BookImportServiceImpl.CHUNK_SIZE, actual.rejected());
+      assertEquals(1, actual.rejections().getFirst().index());
+      assertEquals(BookImportServiceImpl.CHUNK_SIZE, actual.rejections().getLast().index());
+      assertEquals(BookBatchItemResponse.Status.FAILED, actual.rejections().getFirst().status());
+    }
+
+    @Test
+    void importShouldRejectMalformedLines() {
+      // when
+      var actual = bookImportService.importBooks(stream("{not json}\n"), BookImportFormat.NDJSON);
+
+      // then
+      assertEquals(1, actual.rejected());
+      assertEquals(
+          1, meterRegistry.get("books.import.rows").tag("outcome", "rejected").counter().count());
+      assertEquals(1, actual.rejections().getFirst().index());
+      verify(bookService, never()).createAll(anyList());
+    }
+
+    @Test
+    void importShouldRejectNullLines() {
+      // when
+      var actual = bookImportService.importBooks(stream("null\n"), BookImportFormat.NDJSON);
+
+      // then
+      assertEquals(1, actual.rejected());
+      assertEquals(BookBatchItemResponse.Status.INVALID, actual.rejections().getFirst().status());
+      assertEquals("Row is not a book object", actual.rejections().getFirst().message());
+      verify(bookService, never()).createAll(anyList());
+    }
+  }
+
+  private static ByteArrayInputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
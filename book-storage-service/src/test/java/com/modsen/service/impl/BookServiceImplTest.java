@@ -2,36 +2,79 @@ package com.modsen.service.impl;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.modsen.cache.BookCacheEvictor;
 import com.modsen.data.BookTestData;
+import com.modsen.event.BookEventCodec;
+import com.modsen.event.BookEventTopics;
+import com.modsen.event.BookEventType;
+import com.modsen.exception.BookVersionMismatchException;
 import com.modsen.exception.EntityAlreadyExistsException;
 import com.modsen.exception.EntityNotFoundException;
+import com.modsen.exception.InvalidBookFieldException;
+import com.modsen.exception.InvalidCursorException;
+import com.modsen.index.AutocompleteIndex;
+import com.modsen.index.GenreFacetIndex;
+import com.modsen.index.IsbnBloomFilter;
 import com.modsen.mapper.BookMapper;
+import com.modsen.model.dto.request.BookCursor;
+import com.modsen.model.dto.request.BookFilter;
+import com.modsen.model.dto.request.BookSearchCursor;
+import com.modsen.model.dto.response.BookBatchItemResponse;
+import com.modsen.model.dto.response.BookSearchResponse;
+import com.modsen.model.dto.response.BookSummaryResponse;
+import com.modsen.model.dto.response.BookVersionResponse;
+import com.modsen.model.entity.Book;
+import com.modsen.model.entity.OutboxEvent;
+import com.modsen.model.entity.enums.BookField;
+import com.modsen.model.entity.enums.BookSortKey;
+import com.modsen.model.entity.enums.GenreType;
+import com.modsen.repository.BookChangeRow;
+import com.modsen.repository.BookFuzzyMatchRow;
 import com.modsen.repository.BookRepository;
+import com.modsen.repository.BookSearchRow;
+import com.modsen.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
 import java.util.stream.IntStream;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceImplTest {
   private static final String ERROR_MESSAGE = "Book with ID %s was not found";
   private static final String ERROR_MESSAGE_GET_BY_ISBN = "Book with 'isbn' was not found";
-  private static final String ERROR_MESSAGE_ENTITY_EXIST = "Book with 'name' already exists";
+  private static final String ERROR_MESSAGE_ENTITY_EXIST = "Book with 'isbn' already exists";
   public static final int PAGE_SIZE = 2;
   public static final String BOOK_CREATED_TOPIC = "book-created";
 
@@ -39,8 +82,17 @@ class BookServiceImplTest {
 
   @Mock private BookMapper bookMapper;
   @Mock private BookRepository bookRepository;
-  @Mock private KafkaTemplate<String, String> kafkaTemplate;
-  @Mock private CompletableFuture<SendResult<String, String>> future;
+  @Mock private OutboxEventRepository outboxEventRepository;
+  @Mock private Validator validator;
+  @Mock private GenreFacetIndex genreFacetIndex;
+  @Mock private AutocompleteIndex autocompleteIndex;
+  @Mock private BookCacheEvictor bookCacheEvictor;
+
+  @Spy
+  private IsbnBloomFilter isbnBloomFilter =
+      new IsbnBloomFilter(null, new SimpleMeterRegistry(), 1_000, 0.01);
+
+  @Spy private BookEventTopics bookEventTopics = new BookEventTopics(false);
 
   @Nested
   class Create {
@@ -55,8 +107,7 @@ class BookServiceImplTest {
 
       when(bookRepository.existsByIsbn(bookRequest.isbn())).thenReturn(Boolean.FALSE);
       when(bookMapper.toBook(bookRequest)).thenReturn(book);
-      when(bookRepository.save(book)).thenReturn(book);
-      when(kafkaTemplate.send(BOOK_CREATED_TOPIC, bookId)).thenReturn(future);
+      when(bookRepository.saveAndFlush(book)).thenReturn(book);
       when(bookMapper.toBookResponse(book)).thenReturn(bookResponse);
 
       // when
@@ -65,9 +116,10 @@ class BookServiceImplTest {
       // then
       assertEquals(bookResponse, result);
       verify(bookMapper).toBook(bookRequest);
-      verify(bookRepository).save(book);
+      verify(bookRepository).saveAndFlush(book);
       verify(bookMapper).toBookResponse(book);
-      verify(kafkaTemplate).send(BOOK_CREATED_TOPIC, bookId);
+      verify(outboxEventRepository).save(argThat(event -> isEvent(event, bookId)));
+      verify(bookRepository).nextCatalogVersion();
     }
 
     @Test
@@ -79,6 +131,122 @@ class BookServiceImplTest {
       assertThrows(EntityAlreadyExistsException.class, () -> bookService.create(bookRequest));
       verify(bookRepository).existsByIsbn(bookRequest.isbn());
     }
+
+    @Test
+    void shouldThrowEntityAlreadyExistsExceptionWhenFilterMissesIsbnTakenElsewhere() {
+      // given
+      var bookRequest = BookTestData.builder().build().buildBookRequest();
+      var book = BookTestData.builder().build().buildBook();
+      doReturn(false).when(isbnBloomFilter).mightContain(bookRequest.isbn());
+      when(bookMapper.toBook(bookRequest)).thenReturn(book);
+      when(bookRepository.saveAndFlush(book))
+          .thenThrow(new DataIntegrityViolationException("books_isbn_key"));
+
+      // when & then
+      assertThrows(EntityAlreadyExistsException.class, () -> bookService.create(bookRequest));
+      verify(bookRepository, never()).existsByIsbn(bookRequest.isbn());
+      verifyNoInteractions(outboxEventRepository);
+    }
+  }
+
+  @Nested
+  class CreateAll {
+
+    @Test
+    void createAllShouldSaveValidBooksAndRejectDuplicatesAndConflicts() {
+      // given
+      var fresh = BookTestData.builder().withIsbn("fresh").build().buildBookRequest();
+      var repeated = BookTestData.builder().withIsbn("fresh").build().buildBookRequest();
+      var existing = BookTestData.builder().withIsbn("existing").build().buildBookRequest();
+      var book = BookTestData.builder().withId(7L).withIsbn("fresh").build().buildBook();
+
+      when(bookRepository.findExistingIsbns(new String[] {"fresh", "existing"}))
+          .thenReturn(Set.of("existing"));
+      when(validator.validate(fresh)).thenReturn(Set.of());
+      when(validator.validate(existing)).thenReturn(Set.of());
+      when(bookMapper.toBook(fresh)).thenReturn(book);
+      when(bookRepository.saveAll(List.of(book))).thenReturn(List.of(book));
+
+      // when
+      var actual = bookService.createAll(List.of(fresh, repeated, existing));
+
+      // then
+      assertEquals(1, actual.created());
+      assertEquals(2, actual.rejected());
+      assertEquals(
+          List.of(
+              BookBatchItemResponse.Status.CREATED,
+              BookBatchItemResponse.Status.DUPLICATE,
+              BookBatchItemResponse.Status.CONFLICT),
+          actual.items().stream().map(BookBatchItemResponse::status).toList());
+      assertEquals(7L, actual.items().getFirst().id());
+      verify(outboxEventRepository)
+          .saveAll(
+              argThat(
+                  (List<OutboxEvent> events) ->
+                      events.size() == 1 && isEvent(events.getFirst(), "7")));
+    }
+
+    @Test
+    void createAllShouldRejectNullItemsAsInvalid() {
+      // given
+      var bookRequests = Arrays.asList(BookTestData.builder().build().buildBookRequest(), null);
+      var book = BookTestData.builder().build().buildBook();
+
+      when(bookRepository.findExistingIsbns(new String[] {"isbn"})).thenReturn(Set.of());
+      when(validator.validate(bookRequests.getFirst())).thenReturn(Set.of());
+      when(bookMapper.toBook(bookRequests.getFirst())).thenReturn(book);
+      when(bookRepository.saveAll(List.of(book))).thenReturn(List.of(book));
+
+      // when
+      var actual = bookService.createAll(bookRequests);
+
+      // then
+      assertEquals(BookBatchItemResponse.Status.INVALID, actual.items().get(1).status());
+      assertNull(actual.items().get(1).id());
+    }
+  }
+
+  @Nested
+  class CatalogVersion {
+
+    @Test
+    void getCatalogVersionShouldReturnVersionFromRepository() {
+      // given
+      when(bookRepository.findCatalogVersion()).thenReturn(42L);
+
+      // when
+      var actual = bookService.getCatalogVersion();
+
+      // then
+      assertEquals(42L, actual);
+    }
+  }
+
+  @Nested
+  class GetVersion {
+
+    @Test
+    void getVersionShouldReturnVersionWithoutLoadingBook() {
+      // given
+      when(bookRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+      // when
+      var actual = bookService.getVersion(1L);
+
+      // then
+      assertEquals(new BookVersionResponse(1L, 3L), actual);
+      verify(bookRepository, never()).findById(1L);
+    }
+
+    @Test
+    void getVersionByIsbnShouldThrowNotFoundExceptionWhenBookIsMissing() {
+      // given
+      when(bookRepository.findVersionByIsbn("missing")).thenReturn(Optional.empty());
+
+      // when & then
+      assertThrows(EntityNotFoundException.class, () -> bookService.getVersionByIsbn("missing"));
+    }
   }
 
   @Nested
@@ -105,6 +273,132 @@ class BookServiceImplTest {
       // then
       assertEquals(expectedResponses, actualResponses);
     }
+
+    @Test
+    void getAllWithFilterShouldOrderUnsortedPagesById() {
+      // given
+      var pageable = Pageable.ofSize(PAGE_SIZE);
+      var book = BookTestData.builder().build().buildBook();
+      var bookResponse = BookTestData.builder().build().buildBookResponse();
+      var filter = new BookFilter(Set.of(GenreType.FICTION), null, "nam", null, null);
+      var ordered = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+
+      doReturn(new PageImpl<>(List.of(book), ordered, 1))
+          .when(bookRepository)
+          .findAll(ArgumentMatchers.<Specification<Book>>any(), eq(ordered));
+      doReturn(bookResponse).when(bookMapper).toBookResponse(book);
+
+      // when
+      var actual = bookService.getAll(filter, pageable, 1L).getContent();
+
+      // then
+      assertEquals(List.of(bookResponse), actual);
+    }
+
+    @Test
+    void getAllWithFieldsShouldReadSummariesWhenDescriptionIsNotRequested() {
+      // given
+      var pageable = Pageable.ofSize(PAGE_SIZE);
+      var summary = new BookSummaryResponse(1L, "isbn", "name", GenreType.FICTION, "author", 0L);
+      var bookResponse = BookTestData.builder().withDescription(null).build().buildBookResponse();
+      var fields = BookField.parse(List.of("id", "name"));
+
+      doReturn(new PageImpl<>(List.of(summary), pageable, 1))
+          .when(bookRepository)
+          .findAllSummaries(pageable);
+      doReturn(bookResponse).when(bookMapper).toBookResponse(summary);
+
+      // when
+      var actual = bookService.getAll(pageable, fields).getContent();
+
+      // then
+      assertEquals(List.of(Map.of("id", 1L, "name", "name")), actual);
+      verify(bookRepository, never()).findAll(pageable);
+    }
+
+    @Test
+    void getAllWithFieldsShouldReadEntitiesWhenDescriptionIsRequested() {
+      // given
+      var pageable = Pageable.ofSize(PAGE_SIZE);
+      var book = BookTestData.builder().build().buildBook();
+      var bookResponse = BookTestData.builder().build().buildBookResponse();
+      var fields = BookField.parse(List.of("description"));
+
+      doReturn(new PageImpl<>(List.of(book), pageable, 1)).when(bookRepository).findAll(pageable);
+      doReturn(bookResponse).when(bookMapper).toBookResponse(book);
+
+      // when
+      var actual = bookService.getAll(pageable, fields).getContent();
+
+      // then
+      assertEquals(List.of(Map.of("description", "description")), actual);
+    }
+
+    @Test
+    void parseShouldRejectUnknownField() {
+      // given
+      var fields = List.of("id", "price");
+
+      // when
+      var exception = assertThrows(InvalidBookFieldException.class, () -> BookField.parse(fields));
+
+      // then
+      assertEquals("Unknown book field 'price'", exception.getMessage());
+    }
+  }
+
+  @Nested
+  class Scroll {
+    @Test
+    void scrollShouldReturnSliceWithNextCursorWhenMoreBooksExist() {
+      // given
+      var first = BookTestData.builder().withId(1L).withName("a").build().buildBook();
+      var second = BookTestData.builder().withId(2L).withName("b").build().buildBook();
+      var response = BookTestData.builder().withId(1L).withName("a").build().buildBookResponse();
+
+      when(bookRepository.findNextOrderedByName("", 0L, PageRequest.ofSize(2)))
+          .thenReturn(List.of(first, second));
+      when(bookMapper.toBookResponse(first)).thenReturn(response);
+
+      // when
+      var actual = bookService.getAll(BookSortKey.NAME, null, 1);
+
+      // then
+      assertEquals(List.of(response), actual.content());
+      assertEquals(
+          new BookCursor(BookSortKey.NAME, "a", 1L),
+          BookCursor.decode(actual.nextCursor(), BookSortKey.NAME));
+    }
+
+    @Test
+    void scrollShouldSeekFromCursorAndReturnNoCursorOnLastSlice() {
+      // given
+      var cursor = new BookCursor(BookSortKey.ID, "5", 5L).encode();
+      var book = BookTestData.builder().withId(6L).build().buildBook();
+      var response = BookTestData.builder().withId(6L).build().buildBookResponse();
+
+      when(bookRepository.findNextOrderedById(5L, PageRequest.ofSize(PAGE_SIZE + 1)))
+          .thenReturn(List.of(book));
+      when(bookMapper.toBookResponse(book)).thenReturn(response);
+
+      // when
+      var actual = bookService.getAll(BookSortKey.ID, cursor, PAGE_SIZE);
+
+      // then
+      assertEquals(List.of(response), actual.content());
+      assertNull(actual.nextCursor());
+    }
+
+    @Test
+    void scrollShouldThrowInvalidCursorExceptionWhenCursorBelongsToAnotherOrdering() {
+      // given
+      var cursor = BookCursor.first(BookSortKey.ID).encode();
+
+      // when & then
+      assertThrows(
+          InvalidCursorException.class,
+          () -> bookService.getAll(BookSortKey.NAME, cursor, PAGE_SIZE));
+    }
   }
 
   @Nested
@@ -192,18 +486,159 @@ class BookServiceImplTest {
     }
   }
 
+  @Nested
+  class Search {
+    @Test
+    void searchShouldMapMatchesAndReturnCursorAfterLastOne() {
+      // given
+      var first = searchRow(7L, 0.9f);
+      var second = searchRow(3L, 0.5f);
+      var third = searchRow(4L, 0.5f);
+      when(bookRepository.search("tolkien", Float.POSITIVE_INFINITY, 0L, 3))
+          .thenReturn(List.of(first, second, third));
+
+      // when
+      var actual = bookService.search("tolkien", null, 2);
+
+      // then
+      assertEquals(List.of(7L, 3L), actual.content().stream().map(BookSearchResponse::id).toList());
+      assertEquals(GenreType.FICTION, actual.content().get(0).genre());
+      assertEquals("<b>name</b>", actual.content().get(0).highlightedName());
+      assertEquals(new BookSearchCursor(0.5f, 3L), BookSearchCursor.decode(actual.nextCursor()));
+    }
+
+    @Test
+    void searchShouldContinueFromCursor() {
+      // given
+      var cursor = new BookSearchCursor(0.5f, 3L).encode();
+      when(bookRepository.search("tolkien", 0.5f, 3L, 3)).thenReturn(List.of());
+
+      // when
+      var actual = bookService.search("tolkien", cursor, 2);
+
+      // then
+      assertEquals(List.of(), actual.content());
+      assertNull(actual.nextCursor());
+    }
+
+    @Test
+    void searchShouldRejectMalformedCursor() {
+      // when & then
+      assertThrows(InvalidCursorException.class, () -> bookService.search("tolkien", "%%", 2));
+    }
+
+    private BookSearchRow searchRow(Long id, float rank) {
+      var row = mock(BookSearchRow.class);
+      lenient().when(row.getId()).thenReturn(id);
+      lenient().when(row.getRank()).thenReturn(rank);
+      lenient().when(row.getGenre()).thenReturn(GenreType.FICTION.name());
+      lenient().when(row.getHighlightedName()).thenReturn("<b>name</b>");
+      return row;
+    }
+  }
+
+  @Nested
+  class FindFuzzyMatches {
+    @Test
+    void findFuzzyMatchesShouldApplyThresholdBeforeSearching() {
+      // given
+      var row = mock(BookFuzzyMatchRow.class);
+      when(row.getId()).thenReturn(1L);
+      when(row.getGenre()).thenReturn(GenreType.FANTASY.name());
+      when(row.getSimilarity()).thenReturn(0.6f);
+      when(bookRepository.findFuzzyMatches("hobit", 10)).thenReturn(List.of(row));
+
+      // when
+      var actual = bookService.findFuzzyMatches("hobit", 0.5, 10);
+
+      // then
+      var inOrder = inOrder(bookRepository);
+      inOrder.verify(bookRepository).setWordSimilarityThreshold("0.5");
+      inOrder.verify(bookRepository).findFuzzyMatches("hobit", 10);
+      assertEquals(1, actual.size());
+      assertEquals(GenreType.FANTASY, actual.get(0).genre());
+      assertEquals(0.6f, actual.get(0).similarity());
+    }
+  }
+
+  @Nested
+  class GetAllByKeys {
+    @Test
+    void getAllByIdsShouldReturnBooksInRequestOrderAndReportMissingIds() {
+      // given
+      var first = BookTestData.builder().withId(1L).withIsbn("first").build();
+      var second = BookTestData.builder().withId(2L).withIsbn("second").build();
+      var ids = List.of(2L, 3L, 1L, 2L);
+
+      when(bookRepository.findAllByIds(new Long[] {2L, 3L, 1L}))
+          .thenReturn(List.of(first.buildBook(), second.buildBook()));
+      when(bookMapper.toBookResponse(first.buildBook())).thenReturn(first.buildBookResponse());
+      when(bookMapper.toBookResponse(second.buildBook())).thenReturn(second.buildBookResponse());
+
+      // when
+      var actual = bookService.getAllByIds(ids);
+
+      // then
+      assertEquals(
+          Arrays.asList(
+              second.buildBookResponse(),
+              null,
+              first.buildBookResponse(),
+              second.buildBookResponse()),
+          actual.books());
+      assertEquals(List.of(3L), actual.missing());
+    }
+
+    @Test
+    void getAllByIsbnsShouldQueryEveryIsbnWithoutConsultingTheFilter() {
+      // given
+      var book = BookTestData.builder().build();
+      var isbns = List.of("unknown", book.buildBook().getIsbn());
+
+      when(bookRepository.findAllByIsbns(new String[] {"unknown", book.buildBook().getIsbn()}))
+          .thenReturn(List.of(book.buildBook()));
+      when(bookMapper.toBookResponse(book.buildBook())).thenReturn(book.buildBookResponse());
+
+      // when
+      var actual = bookService.getAllByIsbns(isbns);
+
+      // then
+      assertEquals(Arrays.asList(null, book.buildBookResponse()), actual.books());
+      assertEquals(List.of("unknown"), actual.missing());
+      verify(isbnBloomFilter, never()).mightContain(anyString());
+    }
+
+    @Test
+    void getAllByIdsShouldNotQueryForEmptyRequest() {
+      // when
+      var actual = bookService.getAllByIds(List.of());
+
+      // then
+      assertEquals(List.of(), actual.books());
+      verifyNoInteractions(bookRepository);
+    }
+  }
+
   @Nested
   class Update {
     @Test
     void updateShouldReturnBookResponse() {
       // given
       var bookRequest = BookTestData.builder().build().buildBookRequest();
-      var expectedResponse = BookTestData.builder().build().buildBookResponse();
-      var book = BookTestData.builder().build().buildBook();
-
-      when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
-      when(bookMapper.update(bookRequest, book)).thenReturn(book);
-      when(bookRepository.save(book)).thenReturn(book);
+      var expectedResponse = BookTestData.builder().withVersion(1L).build().buildBookResponse();
+      var book = BookTestData.builder().withVersion(1L).build().buildBook();
+      var row = changeRow(book.getVersion(), "old");
+
+      when(bookRepository.updateReturning(
+              book.getId(),
+              null,
+              bookRequest.isbn(),
+              bookRequest.name(),
+              bookRequest.genre().name(),
+              bookRequest.description(),
+              bookRequest.author()))
+          .thenReturn(Optional.of(row));
+      when(bookMapper.toBook(row)).thenReturn(book);
       when(bookMapper.toBookResponse(book)).thenReturn(expectedResponse);
 
       // when
@@ -211,15 +646,27 @@ class BookServiceImplTest {
 
       // then
       assertEquals(expectedResponse, actualResponse);
+      verify(bookRepository, never()).findById(book.getId());
+      verify(bookRepository).nextCatalogVersion();
+      verify(bookCacheEvictor).evict(book.getId(), "old", book.getIsbn());
+      verify(outboxEventRepository)
+          .save(
+              argThat(
+                  event -> {
+                    var bookEvent = BookEventCodec.decode(event.getPayload());
+                    return bookEvent.type() == BookEventType.UPDATED
+                        && "old".equals(bookEvent.previousIsbn());
+                  }));
     }
 
     @Test
     void updateShouldThrowEntityAlreadyExistsException() {
       // given
-      var id = BookTestData.builder().build().buildBook().getId();
+      var book = BookTestData.builder().build().buildBook();
+      var id = book.getId();
       var bookRequest = BookTestData.builder().build().buildBookRequest();
       // when
-      when(bookRepository.existsByIsbn(bookRequest.isbn())).thenReturn(Boolean.TRUE);
+      when(bookRepository.findVersionById(id)).thenReturn(Optional.of(book.getVersion()));
 
       var exception =
           assertThrows(
@@ -228,17 +675,46 @@ class BookServiceImplTest {
       // then
       assertEquals(ERROR_MESSAGE_ENTITY_EXIST, exception.getMessage());
     }
+
+    @Test
+    void updateShouldThrowNotFoundExceptionWhenBookIsMissing() {
+      // given
+      var id = -1L;
+      var bookRequest = BookTestData.builder().build().buildBookRequest();
+
+      // when
+      var exception =
+          assertThrows(EntityNotFoundException.class, () -> bookService.update(id, bookRequest));
+
+      // then
+      assertEquals(ERROR_MESSAGE.formatted(id), exception.getMessage());
+    }
+
+    @Test
+    void updateShouldThrowVersionMismatchExceptionWhenVersionIsStale() {
+      // given
+      var id = 1L;
+      var bookRequest = BookTestData.builder().build().buildBookRequest();
+      when(bookRepository.findVersionById(id)).thenReturn(Optional.of(3L));
+
+      // when
+      var exception =
+          assertThrows(
+              BookVersionMismatchException.class, () -> bookService.update(id, bookRequest, 2L));
+
+      // then
+      assertEquals("Book with ID 1 has been modified", exception.getMessage());
+    }
   }
 
   @Nested
   class Delete {
     @Test
-    void deleteShouldCallDaoDeleteMethodThrowEntityNotFoundException() {
+    void deleteShouldThrowEntityNotFoundExceptionWhenNothingIsDeleted() {
       // given
       var id = BookTestData.builder().build().buildBook().getId();
-      var book = BookTestData.builder().build().buildBook();
       // when
-      when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+      when(bookRepository.deleteReturning(id)).thenReturn(Optional.empty());
       // then
       assertThatThrownBy(() -> bookService.delete(id)).isInstanceOf(EntityNotFoundException.class);
     }
@@ -247,16 +723,40 @@ class BookServiceImplTest {
     void shouldDeleteBookById() {
       // given
       var book = BookTestData.builder().build().buildBook();
-      var bookResponse = BookTestData.builder().build().buildBookResponse();
       var id = book.getId();
       // when
-      when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
-      when(bookMapper.toBookResponse(book)).thenReturn(bookResponse);
+      var row = changeRow(book.getVersion(), book.getIsbn());
+      when(bookRepository.deleteReturning(id)).thenReturn(Optional.of(row));
       // then
       bookService.delete(id);
 
-      verify(bookRepository).findById(id);
-      verify(bookRepository).deleteById(id);
+      verify(bookRepository).deleteReturning(id);
+      verify(bookRepository, never()).findById(id);
+      verify(bookRepository).nextCatalogVersion();
+      verify(bookCacheEvictor).evict(id, book.getIsbn());
+      verify(outboxEventRepository)
+          .save(
+              argThat(
+                  event -> {
+                    var bookEvent = BookEventCodec.decode(event.getPayload());
+                    return bookEvent.type() == BookEventType.DELETED
+                        && book.getIsbn().equals(bookEvent.previousIsbn());
+                  }));
     }
   }
+
+  private static BookChangeRow changeRow(Long version, String previousIsbn) {
+    var row = mock(BookChangeRow.class);
+    lenient().when(row.getVersion()).thenReturn(version);
+    lenient().when(row.getPreviousIsbn()).thenReturn(previousIsbn);
+    return row;
+  }
+
+  private static boolean isEvent(OutboxEvent event, String bookId) {
+    var bookEvent = BookEventCodec.decode(event.getPayload());
+    return BOOK_CREATED_TOPIC.equals(event.getTopic())
+        && bookId.equals(event.getEventKey())
+        && bookEvent.type() == BookEventType.CREATED
+        && bookId.equals(bookEvent.bookId().toString());
+  }
 }
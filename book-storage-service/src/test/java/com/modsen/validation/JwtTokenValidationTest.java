@@ -1,25 +1,47 @@
 package com.modsen.validation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
 
+import com.modsen.exception.InvalidTokenException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
 import java.util.LinkedList;
+import java.util.List;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @SpringBootTest
 @ContextConfiguration(classes = JwtTokenValidation.class)
 @TestPropertySource(
     properties = {
-      "spring.security.secret=244226452948404D6351655468576D5A7134743777217A25432A462D4A614E645267556A586E"
-          + "3272357538782F413F4428472B4B6250655368566D5970337336d",
-      "spring.security.issuer=test"
+      "spring.security.secret=" + JwtTokenValidationTest.SECRET,
+      "spring.security.issuer=" + JwtTokenValidationTest.ISSUER
     })
 class JwtTokenValidationTest {
+  static final String SECRET =
+      "244226452948404D6351655468576D5A7134743777217A25432A462D4A614E645267556A586E"
+          + "3272357538782F413F4428472B4B6250655368566D5970337336d";
+  static final String ISSUER = "test";
+  private static final String EMAIL = "user@mail.com";
+  private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+  private static final Instant EXPIRATION = NOW.plusSeconds(60);
+
   @MockitoBean private JwtTokenValidation jwtTokenValidation;
 
   @Test
@@ -45,4 +67,86 @@ class JwtTokenValidationTest {
     // then
     Assertions.assertNull(expected, actual);
   }
+
+  @Nested
+  class Validate {
+    private final JwtTokenValidation validation = new JwtTokenValidation();
+
+    @BeforeEach
+    void setUp() {
+      ReflectionTestUtils.setField(validation, "secret", SECRET);
+      ReflectionTestUtils.setField(validation, "issuer", ISSUER);
+      ReflectionTestUtils.setField(validation, "tokenCacheMaximumSize", 100L);
+      validation.clock = Clock.fixed(NOW, ZoneOffset.UTC);
+      validation.init();
+    }
+
+    @Test
+    void validateShouldReturnPrincipalOfSignedToken() {
+      // given
+      var token = token().setExpiration(Date.from(EXPIRATION)).compact();
+
+      // when
+      var actual = validation.validate(token);
+
+      // then
+      assertEquals(EMAIL, actual.subject());
+      assertEquals(List.of("book:read"), validation.getAuthorities(token));
+      assertEquals(EXPIRATION, actual.expiration());
+    }
+
+    @Test
+    void validateShouldReturnCachedPrincipalForRepeatedToken() {
+      // given
+      var token = token().setExpiration(Date.from(EXPIRATION)).compact();
+      var first = validation.validate(token);
+
+      // when
+      var actual = validation.validate(token);
+
+      // then
+      assertSame(first, actual);
+    }
+
+    @Test
+    void validateShouldRejectCachedTokenOnceItExpires() {
+      // given
+      var token = token().setExpiration(Date.from(EXPIRATION)).compact();
+      validation.validate(token);
+      validation.clock = Clock.fixed(EXPIRATION, ZoneOffset.UTC);
+
+      // when & then
+      assertThrows(InvalidTokenException.class, () -> validation.validate(token));
+    }
+
+    @Test
+    void validateShouldRejectTamperedToken() {
+      // given
+      var token = token().setExpiration(Date.from(EXPIRATION)).compact();
+      var forged =
+          token().setSubject("admin@mail.com").setExpiration(Date.from(EXPIRATION)).compact();
+      var tampered =
+          forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+      // when & then
+      assertThrows(InvalidTokenException.class, () -> validation.validate(tampered));
+    }
+
+    @Test
+    void validateShouldRejectTokenWithoutExpiration() {
+      // given
+      var token = token().compact();
+
+      // when & then
+      assertThrows(InvalidTokenException.class, () -> validation.validate(token));
+    }
+
+    private JwtBuilder token() {
+      return Jwts.builder()
+          .setSubject(EMAIL)
+          .setIssuer(ISSUER)
+          .claim("authorities", List.of("book:read"))
+          .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)));
+    }
+  }
 }
@@ -0,0 +1,171 @@
+package com.modsen.client;
+
+import com.modsen.model.dto.response.BookResponse;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces concurrent book lookups into few calls to book-storage-service.
+ *
+ * <p>Ids requested within a short window are collected into one batch, whoever requested them. When
+ * the window closes, or the batch grows past its limit, its de-duplicated ids are split into
+ * bounded chunks that are fetched in parallel on virtual threads. The number of chunks in flight
+ * across all batches is capped, which keeps the fan-out within the bulkhead guarding the client.
+ *
+ * <p>Since a batch serves many users, it is fetched with the tracker's own {@link
+ * ServiceCredentials} rather than any caller's token. Whether a caller may read books at all is
+ * checked by the tracker before the lookup, on the endpoints that return them.
+ */
+@Component
+public class BookBatchLoader {
+  private final BookStorageServiceClient bookStorageServiceClient;
+  private final ServiceCredentials serviceCredentials;
+  private final Duration window;
+  private final int maxBatchSize;
+  private final int chunkSize;
+  private final Semaphore chunkPermits;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("book-batch-loader").daemon().factory());
+  private final ExecutorService fetchers = Executors.newVirtualThreadPerTaskExecutor();
+  private Batch pending;
+
+  /**
+   * Creates the loader from the {@code books.loader} properties.
+   *
+   * @param bookStorageServiceClient the client the chunks are fetched with
+   * @param serviceCredentials the credentials the chunks are fetched with
+   * @param window how long a batch collects ids before it is fetched
+   * @param maxBatchSize the number of ids at which a batch is fetched without waiting for the
+   *     window to close
+   * @param chunkSize the maximum number of ids fetched with one call
+   * @param maxParallelChunks the maximum number of calls in flight across all batches
+   */
+  public BookBatchLoader(
+      BookStorageServiceClient bookStorageServiceClient,
+      ServiceCredentials serviceCredentials,
+      @Value("${books.loader.window:5ms}") Duration window,
+      @Value("${books.loader.max-batch-size:5000}") int maxBatchSize,
+      @Value("${books.loader.chunk-size:500}") int chunkSize,
+      @Value("${books.loader.max-parallel-chunks:8}") int maxParallelChunks) {
+    this.bookStorageServiceClient = bookStorageServiceClient;
+    this.serviceCredentials = serviceCredentials;
+    this.window = window;
+    this.maxBatchSize = maxBatchSize;
+    this.chunkSize = chunkSize;
+    this.chunkPermits = new Semaphore(maxParallelChunks);
+  }
+
+  /**
+   * Looks up books by id, waiting for the batch the ids join to be fetched.
+   *
+   * @param ids the book ids
+   * @return the books found, in the order of the ids
+   * @throws RuntimeException the failure of the remote call, if any chunk of the batch failed
+   */
+  public List<BookResponse> loadAll(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, BookResponse> books;
+    try {
+      books = enqueue(ids).join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+    return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+    fetchers.shutdown();
+  }
+
+  private synchronized CompletableFuture<Map<Long, BookResponse>> enqueue(Collection<Long> ids) {
+    var batch = pending;
+    if (Objects.isNull(batch)) {
+      var created = new Batch();
+      pending = created;
+      scheduler.schedule(() -> flush(created), window.toNanos(), TimeUnit.NANOSECONDS);
+      batch = created;
+    }
+    batch.ids.addAll(ids);
+    if (batch.ids.size() >= maxBatchSize) {
+      pending = null;
+      dispatch(batch);
+    }
+    return batch.result;
+  }
+
+  private void flush(Batch batch) {
+    synchronized (this) {
+      // a batch that filled up early has already been dispatched
+      if (pending != batch) {
+        return;
+      }
+      pending = null;
+    }
+    dispatch(batch);
+  }
+
+  private void dispatch(Batch batch) {
+    var ids = List.copyOf(batch.ids);
+    var chunks = new ArrayList<CompletableFuture<List<BookResponse>>>();
+    for (int from = 0; from < ids.size(); from += chunkSize) {
+      var chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+      chunks.add(CompletableFuture.supplyAsync(() -> fetch(chunk), fetchers));
+    }
+    CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+        .whenComplete(
+            (ignored, failure) -> {
+              if (Objects.nonNull(failure)) {
+                batch.result.completeExceptionally(
+                    failure instanceof CompletionException ? failure.getCause() : failure);
+                return;
+              }
+              var books = new HashMap<Long, BookResponse>(ids.size());
+              chunks.forEach(chunk -> chunk.join().forEach(book -> books.put(book.id(), book)));
+              batch.result.complete(books);
+            });
+  }
+
+  private List<BookResponse> fetch(List<Long> ids) {
+    chunkPermits.acquireUninterruptibly();
+    try {
+      var response =
+          FeignRequestInterceptor.callWithAuthorization(
+              serviceCredentials.authorization(),
+              () -> bookStorageServiceClient.getAllByIds(ids).getBody());
+      return response.books().stream().filter(Objects::nonNull).toList();
+    } finally {
+      chunkPermits.release();
+    }
+  }
+
+  /** The ids requested while the window is open, and the future they all share. */
+  private static final class Batch {
+    private final Set<Long> ids = new LinkedHashSet<>();
+    private final CompletableFuture<Map<Long, BookResponse>> result = new CompletableFuture<>();
+  }
+}
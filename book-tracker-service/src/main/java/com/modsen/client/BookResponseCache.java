@@ -0,0 +1,204 @@
+package com.modsen.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.modsen.exception.BookStorageUnavailableException;
+import com.modsen.model.dto.response.BookResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the books returned by book-storage-service, serving stale entries while they revalidate.
+ *
+ * <p>An entry younger than the soft TTL is served as is. Between the soft and the hard TTL it is
+ * still served, and a background refresh is started for it. Past the hard TTL it is loaded again
+ * before being served, unless book-storage-service is unavailable, in which case the old entry is
+ * served for as long as it is retained. Books the storage service no longer knows are dropped when
+ * a load or refresh finds them missing, and deleted books are invalidated by their event.
+ *
+ * <p>An invalidation leaves a tombstone stamped with a new generation, and every load stamps its
+ * entries with the generation it started at. A load that started before an invalidation therefore
+ * never puts back the book it invalidated.
+ */
+@Component
+public class BookResponseCache {
+  private static final String CACHE_NAME = "book-responses";
+
+  private final BookBatchLoader bookBatchLoader;
+  private final Ticker ticker;
+  private final long softTtlNanos;
+  private final long hardTtlNanos;
+  private final Cache<Long, Entry> cache;
+  private final AtomicLong generation = new AtomicLong();
+  private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+  private final ExecutorService refreshers = Executors.newVirtualThreadPerTaskExecutor();
+
+  @Autowired
+  public BookResponseCache(
+      BookBatchLoader bookBatchLoader,
+      MeterRegistry meterRegistry,
+      @Value("${books.cache.maximum-size:100000}") long maximumSize,
+      @Value("${books.cache.soft-ttl:5m}") Duration softTtl,
+      @Value("${books.cache.hard-ttl:1h}") Duration hardTtl,
+      @Value("${books.cache.stale-if-error:24h}") Duration staleIfError) {
+    this(
+        bookBatchLoader,
+        meterRegistry,
+        maximumSize,
+        softTtl,
+        hardTtl,
+        staleIfError,
+        Ticker.systemTicker());
+  }
+
+  BookResponseCache(
+      BookBatchLoader bookBatchLoader,
+      MeterRegistry meterRegistry,
+      long maximumSize,
+      Duration softTtl,
+      Duration hardTtl,
+      Duration staleIfError,
+      Ticker ticker) {
+    this.bookBatchLoader = bookBatchLoader;
+    this.ticker = ticker;
+    this.softTtlNanos = softTtl.toNanos();
+    this.hardTtlNanos = hardTtl.toNanos();
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(staleIfError)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * Returns the books with the given ids, loading the ones not cached or past their hard TTL.
+   *
+   * @param ids the book ids
+   * @return the books found, in the order of the ids; while the storage service is unavailable, the
+   *     books with no retained copy are left out
+   * @throws BookStorageUnavailableException if a book has to be loaded, the storage service is
+   *     unavailable and none of the books has a retained copy
+   */
+  public List<BookResponse> getAll(List<Long> ids) {
+    var now = ticker.read();
+    var books = new HashMap<Long, BookResponse>(ids.size());
+    var stale = new HashMap<Long, BookResponse>();
+    var toLoad = new ArrayList<Long>();
+    var toRefresh = new ArrayList<Long>();
+    for (var id : new HashSet<>(ids)) {
+      var entry = cache.getIfPresent(id);
+      if (Objects.isNull(entry) || entry.isTombstone() || now - entry.loadedAt() >= hardTtlNanos) {
+        toLoad.add(id);
+        if (Objects.nonNull(entry) && !entry.isTombstone()) {
+          stale.put(id, entry.book());
+        }
+        continue;
+      }
+      books.put(id, entry.book());
+      if (now - entry.loadedAt() >= softTtlNanos) {
+        toRefresh.add(id);
+      }
+    }
+    if (!toLoad.isEmpty()) {
+      try {
+        books.putAll(load(toLoad));
+      } catch (BookStorageUnavailableException exception) {
+        if (books.isEmpty() && stale.isEmpty()) {
+          throw exception;
+        }
+        books.putAll(stale);
+      }
+    }
+    refreshInBackground(toRefresh);
+    return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+  }
+
+  /**
+   * Forgets a book, so the next lookup loads it again.
+   *
+   * @param id the book id
+   */
+  public void invalidate(Long id) {
+    cache.put(id, Entry.tombstone(generation.incrementAndGet()));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    refreshers.shutdown();
+  }
+
+  private Map<Long, BookResponse> load(Collection<Long> ids) {
+    var startedAt = generation.get();
+    var loadedAt = ticker.read();
+    var loaded = new HashMap<Long, BookResponse>(ids.size());
+    bookBatchLoader.loadAll(List.copyOf(ids)).forEach(book -> loaded.put(book.id(), book));
+    for (var id : ids) {
+      var book = loaded.get(id);
+      cache
+          .asMap()
+          .compute(
+              id,
+              (key, current) -> {
+                // an invalidation or load that started after this one wins
+                if (Objects.nonNull(current) && current.generation() > startedAt) {
+                  return current;
+                }
+                return Objects.isNull(book) ? null : new Entry(book, loadedAt, startedAt);
+              });
+    }
+    return loaded;
+  }
+
+  private void refreshInBackground(List<Long> ids) {
+    var claimed = ids.stream().filter(refreshing::add).toList();
+    if (claimed.isEmpty()) {
+      return;
+    }
+    refreshers.execute(
+        () -> {
+          try {
+            load(claimed);
+          } catch (BookStorageUnavailableException ignored) {
+            // keep serving the stale entries until the storage service is back
+          } finally {
+            claimed.forEach(refreshing::remove);
+          }
+        });
+  }
+
+  /**
+   * A cached book, the ticker reading at which it was loaded and the generation its load started
+   * at, or the tombstone of a book invalidated at a generation.
+   */
+  private record Entry(BookResponse book, long loadedAt, long generation) {
+
+    static Entry tombstone(long generation) {
+      return new Entry(null, 0, generation);
+    }
+
+    boolean isTombstone() {
+      return Objects.isNull(book);
+    }
+  }
+}
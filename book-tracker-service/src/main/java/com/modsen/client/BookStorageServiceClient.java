@@ -1,23 +1,29 @@
 package com.modsen.client;
 
+import com.modsen.model.dto.response.BookLookupResponse;
 import com.modsen.model.dto.response.BookResponse;
+import com.modsen.model.dto.response.CursorPageResponse;
 import java.util.List;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @Component
 @FeignClient(
     value = "book-storage-service",
     url = "${book-storage-service.url}",
-    configuration = FeignRequestInterceptor.class)
+    configuration = FeignRequestInterceptor.class,
+    fallbackFactory = BookStorageServiceClientFallbackFactory.class)
 public interface BookStorageServiceClient {
-  @GetMapping("/ids")
-  ResponseEntity<Page<BookResponse>> getBooksByIds(
-      @RequestParam List<Long> bookIds, @PageableDefault(20) Pageable pageable);
+  @PostMapping("/ids")
+  ResponseEntity<BookLookupResponse<Long>> getAllByIds(@RequestBody List<Long> ids);
+
+  @GetMapping("/scroll")
+  ResponseEntity<CursorPageResponse<BookResponse>> scroll(
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam("size") int size);
 }
@@ -0,0 +1,44 @@
+package com.modsen.client;
+
+import com.modsen.exception.BookStorageUnavailableException;
+import com.modsen.model.dto.response.BookLookupResponse;
+import com.modsen.model.dto.response.BookResponse;
+import com.modsen.model.dto.response.CursorPageResponse;
+import feign.FeignException;
+import java.util.List;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns failed calls to book-storage-service into {@link BookStorageUnavailableException}.
+ *
+ * <p>Client errors answered by the storage service are rethrown unchanged: they are the caller's
+ * fault, not a sign that the service is unavailable.
+ */
+@Component
+public class BookStorageServiceClientFallbackFactory
+    implements FallbackFactory<BookStorageServiceClient> {
+
+  @Override
+  public BookStorageServiceClient create(Throwable cause) {
+    return new BookStorageServiceClient() {
+      @Override
+      public ResponseEntity<BookLookupResponse<Long>> getAllByIds(List<Long> ids) {
+        throw unavailable(cause);
+      }
+
+      @Override
+      public ResponseEntity<CursorPageResponse<BookResponse>> scroll(String cursor, int size) {
+        throw unavailable(cause);
+      }
+    };
+  }
+
+  private static RuntimeException unavailable(Throwable cause) {
+    if (cause instanceof FeignException.FeignClientException clientException) {
+      return clientException;
+    }
+    return new BookStorageUnavailableException(cause);
+  }
+}
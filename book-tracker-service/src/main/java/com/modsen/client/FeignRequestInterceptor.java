@@ -2,22 +2,71 @@ package com.modsen.client;
 
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
+import java.util.Objects;
+import java.util.function.Supplier;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+/**
+ * Forwards the caller's bearer token to book-storage-service.
+ *
+ * <p>The token is taken from the request being served on the current thread. Work that does not act
+ * for the caller, such as batched lookups and the replica synchronization, binds the tracker's own
+ * {@link ServiceCredentials} with {@link #callWithAuthorization} instead; calls made outside any
+ * request are otherwise sent without a token.
+ */
 @Component
 public class FeignRequestInterceptor implements RequestInterceptor {
   private static final String TYPE_AUTHORIZATION = "Bearer ";
+  private static final ThreadLocal<String> BOUND_AUTHORIZATION = new ThreadLocal<>();
 
   @Override
   public void apply(RequestTemplate requestTemplate) {
-    var attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-    var authorizationHeader = attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+    var authorizationHeader = currentAuthorization();
     if (authorizationHeader != null && authorizationHeader.startsWith(TYPE_AUTHORIZATION)) {
       var token = authorizationHeader.substring(TYPE_AUTHORIZATION.length());
       requestTemplate.header(HttpHeaders.AUTHORIZATION, TYPE_AUTHORIZATION + token);
     }
   }
+
+  /**
+   * Returns the {@code Authorization} header that calls made on the current thread forward.
+   *
+   * @return the header, or {@code null} if there is none
+   */
+  public static String currentAuthorization() {
+    var bound = BOUND_AUTHORIZATION.get();
+    if (Objects.nonNull(bound)) {
+      return bound;
+    }
+    if (RequestContextHolder.getRequestAttributes()
+        instanceof ServletRequestAttributes attributes) {
+      return attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+    }
+    return null;
+  }
+
+  /**
+   * Runs a call that forwards the given {@code Authorization} header instead of the current
+   * request's.
+   *
+   * @param authorization the header to forward, or {@code null} for none
+   * @param call the call
+   * @return the result of the call
+   */
+  public static <T> T callWithAuthorization(String authorization, Supplier<T> call) {
+    var previous = BOUND_AUTHORIZATION.get();
+    BOUND_AUTHORIZATION.set(authorization);
+    try {
+      return call.get();
+    } finally {
+      if (Objects.isNull(previous)) {
+        BOUND_AUTHORIZATION.remove();
+      } else {
+        BOUND_AUTHORIZATION.set(previous);
+      }
+    }
+  }
 }
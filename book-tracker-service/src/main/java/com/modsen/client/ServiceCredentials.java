@@ -0,0 +1,75 @@
+package com.modsen.client;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues the bearer token the tracker calls book-storage-service with on its own behalf.
+ *
+ * <p>Work that does not serve a single user, such as the replica synchronization or lookups shared
+ * between the requests of several users, must not borrow any caller's token. It is sent with a
+ * short-lived token signed with the key the services share, issued to the tracker itself and
+ * granting nothing but reading books. A token is reused until half of its lifetime has passed.
+ */
+@Component
+public class ServiceCredentials {
+  private static final String AUTHORITIES = "authorities";
+  private static final String TYPE_AUTHORIZATION = "Bearer ";
+  private static final List<String> SERVICE_AUTHORITIES = List.of("book:read");
+
+  private final Key signInKey;
+  private final String issuer;
+  private final String subject;
+  private final Duration ttl;
+  Clock clock = Clock.systemUTC();
+  private Token current;
+
+  public ServiceCredentials(
+      @Value("${spring.security.secret}") String secret,
+      @Value("${spring.security.issuer}") String issuer,
+      @Value("${spring.application.name:book-tracker-service}") String subject,
+      @Value("${books.service-token.ttl:5m}") Duration ttl) {
+    this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    this.issuer = issuer;
+    this.subject = subject;
+    this.ttl = ttl;
+  }
+
+  /**
+   * Returns the {@code Authorization} header identifying the tracker itself.
+   *
+   * @return the header, renewed once half of the previous token's lifetime has passed
+   */
+  public synchronized String authorization() {
+    var now = clock.instant();
+    if (Objects.isNull(current) || !current.renewAt().isAfter(now)) {
+      current = new Token(TYPE_AUTHORIZATION + issue(now), now.plus(ttl.dividedBy(2)));
+    }
+    return current.authorization();
+  }
+
+  private String issue(Instant now) {
+    return Jwts.builder()
+        .setSubject(subject)
+        .setIssuer(issuer)
+        .claim(AUTHORITIES, SERVICE_AUTHORITIES)
+        .setIssuedAt(Date.from(now))
+        .setExpiration(Date.from(now.plus(ttl)))
+        .signWith(signInKey, SignatureAlgorithm.HS512)
+        .compact();
+  }
+
+  /** An issued header and the moment it is replaced by a new one. */
+  private record Token(String authorization, Instant renewAt) {}
+}
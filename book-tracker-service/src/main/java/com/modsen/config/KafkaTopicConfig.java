@@ -7,6 +7,10 @@ import org.springframework.kafka.annotation.EnableKafka;
 @Configuration
 public class KafkaTopicConfig {
   public static final String TOPIC_BOOK_CREATED = "book-created";
+  public static final String TOPIC_BOOK_UPDATED = "book-updated";
   public static final String TOPIC_BOOK_DELETED = "book-deleted";
+  public static final String TOPIC_BOOK_EVENTS = "book-events";
   public static final String BOOK_TRACKER_GROUP_ID = "book-tracker-group";
+  public static final String UNIFIED_TOPIC_ENABLED = "${topic.unified:false}";
+  public static final String UNIFIED_TOPIC_DISABLED = "#{!${topic.unified:false}}";
 }
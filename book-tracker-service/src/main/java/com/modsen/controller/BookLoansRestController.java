@@ -2,9 +2,11 @@ package com.modsen.controller;
 
 import com.modsen.model.dto.request.BookLoansRequest;
 import com.modsen.model.dto.response.BookLoansResponse;
+import com.modsen.model.dto.response.BookReplicaStatusResponse;
 import com.modsen.model.dto.response.BookResponse;
 import com.modsen.model.entity.enums.BookStatus;
 import com.modsen.service.api.BookLoansService;
+import com.modsen.service.api.BookReplicaService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -33,6 +35,7 @@ public class BookLoansRestController {
 
   protected static final String BOOK_LOANS_API_PATH = "/api/v0/books/loans";
   private final BookLoansService bookLoansService;
+  private final BookReplicaService bookReplicaService;
 
   @PostMapping
   @PreAuthorize("hasAuthority('user:create')")
@@ -52,7 +55,7 @@ public class BookLoansRestController {
   }
 
   @GetMapping("/book")
-  @PreAuthorize("hasAuthority('user:read')")
+  @PreAuthorize("hasAuthority('user:read') and hasAuthority('book:read')")
   public ResponseEntity<Page<BookResponse>> getAllAvailableBooks(
       @PageableDefault(20) Pageable pageable) {
     return ResponseEntity.status(HttpStatus.OK)
@@ -60,6 +63,22 @@ public class BookLoansRestController {
         .body(bookLoansService.getAllAvailableBook(pageable));
   }
 
+  @GetMapping("/replica")
+  @PreAuthorize("hasAuthority('user:read')")
+  public ResponseEntity<BookReplicaStatusResponse> getReplicaStatus() {
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(bookReplicaService.getStatus());
+  }
+
+  @PostMapping("/replica/sync")
+  @PreAuthorize("hasAuthority('user:create')")
+  public ResponseEntity<BookReplicaStatusResponse> syncReplica() {
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(bookReplicaService.startSync());
+  }
+
   @GetMapping("/{id}")
   @PreAuthorize("hasAuthority('user:read')")
   public ResponseEntity<BookLoansResponse> getById(@PathVariable Long id) {
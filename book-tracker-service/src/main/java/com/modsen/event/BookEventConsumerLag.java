@@ -0,0 +1,150 @@
+package com.modsen.event;
+
+import static com.modsen.config.KafkaTopicConfig.BOOK_TRACKER_GROUP_ID;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_CREATED;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_DELETED;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_EVENTS;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_UPDATED;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks how far behind the book topics the tracker's consumer group is.
+ *
+ * <p>Every probe reads the end offsets of the subscribed topics, then the offsets the group has
+ * committed. Once the committed offsets reach the end offsets of a probe, every event published
+ * before that probe has been applied, so the tracker is known to be caught up as of its time. A
+ * stalled consumer or an unreachable broker stops this time from advancing, which is how callers
+ * notice that the events stopped flowing.
+ */
+@Component
+public class BookEventConsumerLag {
+  private static final int MAX_PENDING_PROBES = 100;
+
+  private final KafkaAdmin kafkaAdmin;
+  private final List<String> topics;
+  private final Deque<Probe> pending = new ArrayDeque<>();
+  private volatile Instant caughtUpAt;
+  private Admin admin;
+
+  public BookEventConsumerLag(
+      KafkaAdmin kafkaAdmin, @Value("${topic.unified:false}") boolean unified) {
+    this.kafkaAdmin = kafkaAdmin;
+    this.topics =
+        unified
+            ? List.of(TOPIC_BOOK_EVENTS)
+            : List.of(TOPIC_BOOK_CREATED, TOPIC_BOOK_UPDATED, TOPIC_BOOK_DELETED);
+  }
+
+  @Scheduled(fixedDelayString = "${books.replica.lag-probe-interval:5s}")
+  public void probe() {
+    var probedAt = Instant.now();
+    try {
+      var endOffsets = endOffsets();
+      record(probedAt, endOffsets, committedOffsets());
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException | KafkaException ignored) {
+      // the broker is unreachable; the caught-up time stays where it is and ages out
+    }
+  }
+
+  /**
+   * Returns the time up to which every published book event is known to have been applied.
+   *
+   * @return the time of the latest probe the consumer group has caught up with, empty until one has
+   *     been observed
+   */
+  public Optional<Instant> caughtUpAt() {
+    return Optional.ofNullable(caughtUpAt);
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (Objects.nonNull(admin)) {
+      admin.close();
+    }
+  }
+
+  synchronized void record(
+      Instant probedAt,
+      Map<TopicPartition, Long> endOffsets,
+      Map<TopicPartition, Long> committedOffsets) {
+    pending.addLast(new Probe(probedAt, endOffsets));
+    while (!pending.isEmpty() && reached(committedOffsets, pending.peekFirst().endOffsets())) {
+      caughtUpAt = pending.removeFirst().probedAt();
+    }
+    while (pending.size() > MAX_PENDING_PROBES) {
+      pending.removeFirst();
+    }
+  }
+
+  private static boolean reached(
+      Map<TopicPartition, Long> committedOffsets, Map<TopicPartition, Long> endOffsets) {
+    return endOffsets.entrySet().stream()
+        .allMatch(end -> committedOffsets.getOrDefault(end.getKey(), 0L) >= end.getValue());
+  }
+
+  private Map<TopicPartition, Long> endOffsets()
+      throws InterruptedException, ExecutionException, TimeoutException {
+    var descriptions =
+        admin().describeTopics(topics).allTopicNames().get(timeout(), TimeUnit.SECONDS);
+    var latest =
+        descriptions.values().stream()
+            .flatMap(
+                description ->
+                    description.partitions().stream()
+                        .map(
+                            partition ->
+                                new TopicPartition(description.name(), partition.partition())))
+            .collect(Collectors.toMap(Function.identity(), partition -> OffsetSpec.latest()));
+    return admin().listOffsets(latest).all().get(timeout(), TimeUnit.SECONDS).entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().offset()));
+  }
+
+  private Map<TopicPartition, Long> committedOffsets()
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return admin()
+        .listConsumerGroupOffsets(BOOK_TRACKER_GROUP_ID)
+        .partitionsToOffsetAndMetadata()
+        .get(timeout(), TimeUnit.SECONDS)
+        .entrySet()
+        .stream()
+        .filter(entry -> Objects.nonNull(entry.getValue()))
+        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().offset()));
+  }
+
+  private synchronized Admin admin() {
+    if (Objects.isNull(admin)) {
+      admin = Admin.create(kafkaAdmin.getConfigurationProperties());
+    }
+    return admin;
+  }
+
+  private int timeout() {
+    return kafkaAdmin.getOperationTimeout();
+  }
+
+  /** The end offsets of the subscribed partitions as read by one probe. */
+  private record Probe(Instant probedAt, Map<TopicPartition, Long> endOffsets) {}
+}
@@ -0,0 +1,51 @@
+package com.modsen.event;
+
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_CREATED;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_DELETED;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka deserializer for {@link BookEvent}.
+ *
+ * <p>Records written before the envelope was introduced carry only the book id as a decimal string;
+ * they are still accepted on the {@code book-created} and {@code book-deleted} topics so that a
+ * rolling upgrade does not strand events already in the log.
+ */
+public class BookEventDeserializer implements Deserializer<BookEvent> {
+  private static final int LEGACY_SCHEMA_VERSION = 0;
+
+  @Override
+  public BookEvent deserialize(String topic, byte[] data) {
+    if (Objects.isNull(data)) {
+      return null;
+    }
+    if (data.length > 0 && data[0] == BookEventCodec.MAGIC) {
+      try {
+        return BookEventCodec.decode(data);
+      } catch (IllegalArgumentException exception) {
+        throw new SerializationException(exception.getMessage(), exception);
+      }
+    }
+    return decodeLegacy(topic, data);
+  }
+
+  private BookEvent decodeLegacy(String topic, byte[] data) {
+    var type =
+        switch (topic) {
+          case TOPIC_BOOK_CREATED -> BookEventType.CREATED;
+          case TOPIC_BOOK_DELETED -> BookEventType.DELETED;
+          default -> throw new SerializationException("Unexpected legacy record on " + topic);
+        };
+    try {
+      var bookId = Long.valueOf(new String(data, StandardCharsets.UTF_8).strip());
+      return new BookEvent(LEGACY_SCHEMA_VERSION, type, bookId, null, Instant.now(), null, null);
+    } catch (NumberFormatException exception) {
+      throw new SerializationException("Payload is not a book event", exception);
+    }
+  }
+}
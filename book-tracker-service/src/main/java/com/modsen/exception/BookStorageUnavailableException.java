@@ -0,0 +1,37 @@
+package com.modsen.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The {@code BookStorageUnavailableException} class represents an exception that is thrown when
+ * book-storage-service cannot be reached, does not answer in time, or is shed by the circuit
+ * breaker or the bulkhead guarding it.
+ *
+ * <p>This exception extends {@code AbstractExceptionMessageException} and keeps the original
+ * failure as its cause.
+ */
+public class BookStorageUnavailableException extends AbstractExceptionMessageException {
+
+  private static final String EXCEPTION_MESSAGE = "Book storage service is unavailable";
+
+  /**
+   * Constructs a new {@code BookStorageUnavailableException} caused by the given failure.
+   *
+   * @param cause the failure of the remote call
+   */
+  public BookStorageUnavailableException(Throwable cause) {
+    super(EXCEPTION_MESSAGE);
+    initCause(cause);
+  }
+
+  /**
+   * Returns the HTTP status code associated with the exception, which is {@code
+   * HttpStatus.SERVICE_UNAVAILABLE}.
+   *
+   * @return {@code HttpStatus.SERVICE_UNAVAILABLE}
+   */
+  @Override
+  public HttpStatus getStatusCode() {
+    return HttpStatus.SERVICE_UNAVAILABLE;
+  }
+}
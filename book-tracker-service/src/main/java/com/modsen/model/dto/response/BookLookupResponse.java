@@ -0,0 +1,5 @@
+package com.modsen.model.dto.response;
+
+import java.util.List;
+
+public record BookLookupResponse<K>(List<BookResponse> books, List<K> missing) {}
@@ -0,0 +1,27 @@
+package com.modsen.model.dto.response;
+
+import java.time.Instant;
+
+/**
+ * How current the local book replica is.
+ *
+ * @param syncedAt the start of the last completed bulk synchronization, {@code null} if none has
+ *     completed yet
+ * @param syncing whether a bulk synchronization is running
+ * @param syncFailedAt when the last bulk synchronization failed, {@code null} if it succeeded or
+ *     none has run since startup
+ * @param caughtUpAt the time up to which every published book event is known to have been applied,
+ *     {@code null} if the consumer group has not been observed to catch up since startup
+ * @param lastEventAt when the most recently applied book event happened upstream, {@code null} if
+ *     none has been applied since startup
+ * @param lagMillis how long that event took to reach the replica, {@code null} if unknown
+ * @param fresh whether available books are currently served from the replica
+ */
+public record BookReplicaStatusResponse(
+    Instant syncedAt,
+    boolean syncing,
+    Instant syncFailedAt,
+    Instant caughtUpAt,
+    Instant lastEventAt,
+    Long lagMillis,
+    boolean fresh) {}
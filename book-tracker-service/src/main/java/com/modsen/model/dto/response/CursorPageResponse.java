@@ -0,0 +1,13 @@
+package com.modsen.model.dto.response;
+
+import java.util.List;
+
+/**
+ * A slice of a keyset-paginated listing of book-storage-service.
+ *
+ * @param content the rows of the slice
+ * @param size the requested slice size
+ * @param nextCursor the cursor to request the following slice with, {@code null} on the last one
+ * @param <T> the type of the rows
+ */
+public record CursorPageResponse<T>(List<T> content, int size, String nextCursor) {}
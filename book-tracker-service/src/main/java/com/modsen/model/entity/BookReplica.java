@@ -0,0 +1,46 @@
+package com.modsen.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A local copy of the metadata of a book owned by book-storage-service. Rows are written by the
+ * bulk synchronization and by the book events consumed from Kafka, never by clients.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "book_replicas")
+public class BookReplica {
+  @Id
+  @Column(name = "book_id")
+  private Long bookId;
+
+  @Column(name = "isbn", nullable = false)
+  private String isbn;
+
+  @Column(name = "name", nullable = false)
+  private String name;
+
+  @Column(name = "genre", nullable = false)
+  private String genre;
+
+  @Column(name = "description", nullable = false)
+  private String description;
+
+  @Column(name = "author", nullable = false)
+  private String author;
+
+  @Column(name = "book_version")
+  private Long bookVersion;
+
+  @Column(name = "replicated_at", nullable = false)
+  private Instant replicatedAt;
+}
@@ -1,11 +1,15 @@
 package com.modsen.repository;
 
+import com.modsen.model.dto.response.BookResponse;
 import com.modsen.model.entity.BookLoans;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -17,6 +21,46 @@ public interface BookLoansRepository extends JpaRepository<BookLoans, Long> {
 
   void deleteByBookId(Long bookId);
 
+  /**
+   * Inserts an available loan for each book that does not have one yet, in one statement. Books
+   * with a tombstone were deleted before their creation was consumed and are skipped.
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO book_loans (book_id, status, returned_at)
+          SELECT created.book_id, 'AVAILABLE', :returnedAt
+          FROM unnest(CAST(:bookIds AS BIGINT[])) AS created (book_id)
+          WHERE NOT EXISTS (SELECT 1 FROM book_tombstones t WHERE t.book_id = created.book_id)
+          ON CONFLICT (book_id) DO NOTHING
+          """,
+      nativeQuery = true)
+  int insertAvailableIgnoringExisting(
+      @Param("bookIds") Long[] bookIds, @Param("returnedAt") LocalDateTime returnedAt);
+
+  /** Soft-deletes the loans of the given books in one statement. */
+  @Modifying
+  @Query(
+      value = "UPDATE book_loans SET deleted = TRUE WHERE book_id = ANY(:bookIds) AND NOT deleted",
+      nativeQuery = true)
+  int softDeleteAllByBookIdIn(@Param("bookIds") Long[] bookIds);
+
   @Query("SELECT b.bookId FROM BookLoans b WHERE b.status = 'AVAILABLE'")
   Page<Long> findAllBooksIdWhereBookStatusIsAvailable(Pageable pageable);
+
+  /**
+   * Joins the available loans with the local book replicas. A book whose replica is missing is
+   * returned with only its id set.
+   */
+  @Query(
+      value =
+          """
+          SELECT new com.modsen.model.dto.response.BookResponse(
+              b.bookId, r.isbn, r.name, r.genre, r.description, r.author)
+          FROM BookLoans b LEFT JOIN BookReplica r ON r.bookId = b.bookId
+          WHERE b.status = 'AVAILABLE'
+          """,
+      countQuery = "SELECT count(b) FROM BookLoans b WHERE b.status = 'AVAILABLE'")
+  Page<BookResponse> findAllAvailableBooks(Pageable pageable);
 }
@@ -0,0 +1,119 @@
+package com.modsen.repository;
+
+import com.modsen.model.entity.BookReplica;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookReplicaRepository extends JpaRepository<BookReplica, Long> {
+
+  /**
+   * Inserts or replaces the replica of a book from an event. A row is never replaced by an older
+   * version of the book, so a redelivered event cannot roll it back, and a deleted book is never
+   * brought back by an event that arrives after its deletion.
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO book_replicas AS r
+              (book_id, isbn, name, genre, description, author, book_version, replicated_at)
+          SELECT :bookId, :isbn, :name, :genre, :description, :author,
+                 CAST(:bookVersion AS BIGINT), now()
+          WHERE NOT EXISTS (SELECT 1 FROM book_tombstones t WHERE t.book_id = :bookId)
+          ON CONFLICT (book_id) DO UPDATE
+          SET isbn = EXCLUDED.isbn,
+              name = EXCLUDED.name,
+              genre = EXCLUDED.genre,
+              description = EXCLUDED.description,
+              author = EXCLUDED.author,
+              book_version = EXCLUDED.book_version,
+              replicated_at = EXCLUDED.replicated_at
+          WHERE r.book_version IS NULL
+             OR EXCLUDED.book_version IS NULL
+             OR r.book_version <= EXCLUDED.book_version
+          """,
+      nativeQuery = true)
+  void upsert(
+      @Param("bookId") Long bookId,
+      @Param("isbn") String isbn,
+      @Param("name") String name,
+      @Param("genre") String genre,
+      @Param("description") String description,
+      @Param("author") String author,
+      @Param("bookVersion") Long bookVersion);
+
+  /**
+   * Inserts or replaces the replicas of a page of books read by a bulk synchronization in one
+   * statement. Rows written by events after the synchronization started are newer than the page and
+   * are left alone, and books deleted while the page was in flight are skipped.
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO book_replicas AS r
+              (book_id, isbn, name, genre, description, author, replicated_at)
+          SELECT page.*, now()
+          FROM unnest(CAST(:ids AS BIGINT[]), CAST(:isbns AS VARCHAR[]), CAST(:names AS VARCHAR[]),
+                      CAST(:genres AS VARCHAR[]), CAST(:descriptions AS TEXT[]),
+                      CAST(:authors AS VARCHAR[]))
+              AS page (book_id, isbn, name, genre, description, author)
+          WHERE NOT EXISTS (SELECT 1 FROM book_tombstones t WHERE t.book_id = page.book_id)
+          ON CONFLICT (book_id) DO UPDATE
+          SET isbn = EXCLUDED.isbn,
+              name = EXCLUDED.name,
+              genre = EXCLUDED.genre,
+              description = EXCLUDED.description,
+              author = EXCLUDED.author,
+              replicated_at = EXCLUDED.replicated_at
+          WHERE r.replicated_at < :since
+          """,
+      nativeQuery = true)
+  void upsertAllUntouchedSince(
+      @Param("ids") Long[] ids,
+      @Param("isbns") String[] isbns,
+      @Param("names") String[] names,
+      @Param("genres") String[] genres,
+      @Param("descriptions") String[] descriptions,
+      @Param("authors") String[] authors,
+      @Param("since") Instant since);
+
+  @Modifying
+  @Query(value = "DELETE FROM book_replicas WHERE book_id = :bookId", nativeQuery = true)
+  void deleteByBookId(@Param("bookId") Long bookId);
+
+  /** Records that a book was deleted, so neither a synchronization nor a late event restores it. */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO book_tombstones (book_id) VALUES (:bookId) ON CONFLICT (book_id) DO NOTHING",
+      nativeQuery = true)
+  void insertTombstone(@Param("bookId") Long bookId);
+
+  @Modifying
+  @Query(value = "DELETE FROM book_tombstones WHERE deleted_at < :before", nativeQuery = true)
+  int deleteTombstonesBefore(@Param("before") Instant before);
+
+  /** Removes the replicas a bulk synchronization did not see, i.e. of books deleted upstream. */
+  @Modifying
+  @Query(value = "DELETE FROM book_replicas WHERE replicated_at < :since", nativeQuery = true)
+  int deleteReplicatedBefore(@Param("since") Instant since);
+
+  @Query(value = "SELECT now()", nativeQuery = true)
+  Instant currentTimestamp();
+
+  @Query(value = "SELECT s.synced_at FROM book_replica_state s WHERE s.id = 1", nativeQuery = true)
+  Optional<Instant> findSyncedAt();
+
+  @Modifying
+  @Query(
+      value = "UPDATE book_replica_state SET synced_at = :syncedAt WHERE id = 1",
+      nativeQuery = true)
+  void updateSyncedAt(@Param("syncedAt") Instant syncedAt);
+}
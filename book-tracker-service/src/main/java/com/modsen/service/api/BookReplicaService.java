@@ -0,0 +1,43 @@
+package com.modsen.service.api;
+
+import com.modsen.event.BookEvent;
+import com.modsen.model.dto.response.BookReplicaStatusResponse;
+import java.util.List;
+
+/** Maintains the local replica of the book metadata owned by book-storage-service. */
+public interface BookReplicaService {
+
+  /**
+   * Applies a book event to the replica in the current transaction.
+   *
+   * @param event the consumed event
+   */
+  void apply(BookEvent event);
+
+  /**
+   * Applies a batch of book events to the replica in the current transaction. Only the last event
+   * of each book is applied, since it alone determines the final state of the book's row.
+   *
+   * @param events the consumed events, in log order
+   */
+  void applyAll(List<BookEvent> events);
+
+  /**
+   * Starts copying every book of book-storage-service into the replica and removing the replicas of
+   * books that no longer exist there, unless such a synchronization is already running. The
+   * synchronization runs in the background with the tracker's own credentials.
+   *
+   * @return the status once the synchronization has been started
+   */
+  BookReplicaStatusResponse startSync();
+
+  BookReplicaStatusResponse getStatus();
+
+  /**
+   * Checks whether the replica is complete and current enough to serve reads from.
+   *
+   * @return {@code true} once a bulk synchronization has completed, the consumer has caught up with
+   *     the book topics recently enough and events are applied within the tolerated lag
+   */
+  boolean isFresh();
+}
@@ -3,8 +3,14 @@ package com.modsen.service.impl;
 import static com.modsen.config.KafkaTopicConfig.BOOK_TRACKER_GROUP_ID;
 import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_CREATED;
 import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_DELETED;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_EVENTS;
+import static com.modsen.config.KafkaTopicConfig.TOPIC_BOOK_UPDATED;
+import static com.modsen.config.KafkaTopicConfig.UNIFIED_TOPIC_DISABLED;
+import static com.modsen.config.KafkaTopicConfig.UNIFIED_TOPIC_ENABLED;
 
-import com.modsen.client.BookStorageServiceClient;
+import com.modsen.client.BookResponseCache;
+import com.modsen.event.BookEvent;
+import com.modsen.event.BookEventType;
 import com.modsen.exception.EntityAlreadyExistsException;
 import com.modsen.exception.EntityNotFoundException;
 import com.modsen.mapper.BookLoansMapper;
@@ -15,7 +21,15 @@ import com.modsen.model.entity.BookLoans;
 import com.modsen.model.entity.enums.BookStatus;
 import com.modsen.repository.BookLoansRepository;
 import com.modsen.service.api.BookLoansService;
+import com.modsen.service.api.BookReplicaService;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -30,7 +44,9 @@ public class BookLoansServiceImpl implements BookLoansService {
 
   private final BookLoansRepository bookLoansRepository;
   private final BookLoansMapper bookLoansMapper;
-  private final BookStorageServiceClient bookStorageServiceClient;
+  private final BookResponseCache bookResponseCache;
+  private final BookReplicaService bookReplicaService;
+  private final AuditorAware<LocalDateTime> auditorAware;
 
   @Override
   @Transactional
@@ -42,16 +58,19 @@ public class BookLoansServiceImpl implements BookLoansService {
     return bookLoansMapper.toBookLoansResponse(bookLoansRepository.save(bookLoans));
   }
 
+  /**
+   * Handles a batch of records from the {@code book-created} topic.
+   *
+   * @param events the book events, {@code null} for records that could not be deserialized
+   */
   @Transactional
-  @KafkaListener(topics = TOPIC_BOOK_CREATED, groupId = BOOK_TRACKER_GROUP_ID)
-  public void create(String bookId) {
-    if (bookLoansRepository.existsByBookId(Long.valueOf(bookId))) {
-      throw new EntityAlreadyExistsException(BookLoans.class, bookId);
-    }
-    var bookLoans =
-        BookLoans.builder().bookId(Long.valueOf(bookId)).status(BookStatus.AVAILABLE).build();
-
-    bookLoansRepository.save(bookLoans);
+  @KafkaListener(
+      topics = TOPIC_BOOK_CREATED,
+      groupId = BOOK_TRACKER_GROUP_ID,
+      autoStartup = UNIFIED_TOPIC_DISABLED,
+      batch = "true")
+  public void create(List<BookEvent> events) {
+    apply(events);
   }
 
   @Override
@@ -61,13 +80,39 @@ public class BookLoansServiceImpl implements BookLoansService {
 
   @Override
   public Page<BookResponse> getAllAvailableBook(Pageable pageable) {
+    if (!bookReplicaService.isFresh()) {
+      return getAllAvailableBookRemotely(pageable);
+    }
+    var page = bookLoansRepository.findAllAvailableBooks(pageable);
+    var missing = page.stream().filter(this::isNotReplicated).map(BookResponse::id).toList();
+    if (missing.isEmpty()) {
+      return page;
+    }
+    var fetched =
+        fetchBooks(missing).stream()
+            .collect(Collectors.toMap(BookResponse::id, Function.identity()));
+    var books =
+        page.stream()
+            .map(book -> isNotReplicated(book) ? fetched.get(book.id()) : book)
+            .filter(Objects::nonNull)
+            .toList();
+    return new PageImpl<>(books, pageable, page.getTotalElements());
+  }
+
+  private Page<BookResponse> getAllAvailableBookRemotely(Pageable pageable) {
     var bookIds = bookLoansRepository.findAllBooksIdWhereBookStatusIsAvailable(pageable);
     if (bookIds.isEmpty()) {
       return Page.empty();
     }
-    var booksResponse = bookStorageServiceClient.getBooksByIds(bookIds.getContent(), pageable);
-    return new PageImpl<>(
-        booksResponse.getBody().getContent(), pageable, bookIds.getTotalElements());
+    return new PageImpl<>(fetchBooks(bookIds.getContent()), pageable, bookIds.getTotalElements());
+  }
+
+  private List<BookResponse> fetchBooks(List<Long> bookIds) {
+    return bookResponseCache.getAll(bookIds);
+  }
+
+  private boolean isNotReplicated(BookResponse book) {
+    return Objects.isNull(book.isbn());
   }
 
   @Override
@@ -112,14 +157,89 @@ public class BookLoansServiceImpl implements BookLoansService {
     bookLoansRepository.deleteById(bookLoansResponse.id());
   }
 
+  /**
+   * Handles a batch of records from the {@code book-updated} topic, refreshing the replicated and
+   * cached details of the books.
+   *
+   * @param events the book events, {@code null} for records that could not be deserialized
+   */
   @Transactional
-  @KafkaListener(topics = TOPIC_BOOK_DELETED, groupId = BOOK_TRACKER_GROUP_ID)
-  public void delete(String bookId) {
-    var bookLoansResponse =
-        bookLoansRepository
-            .findByBookId(Long.valueOf(bookId))
-            .map(bookLoansMapper::toBookLoansResponse)
-            .orElseThrow(() -> new EntityNotFoundException(BookLoans.class, bookId));
-    bookLoansRepository.deleteByBookId(bookLoansResponse.bookId());
+  @KafkaListener(
+      topics = TOPIC_BOOK_UPDATED,
+      groupId = BOOK_TRACKER_GROUP_ID,
+      autoStartup = UNIFIED_TOPIC_DISABLED,
+      batch = "true")
+  public void update(List<BookEvent> events) {
+    apply(events);
+  }
+
+  /**
+   * Handles a batch of records from the {@code book-deleted} topic.
+   *
+   * @param events the book events, {@code null} for records that could not be deserialized
+   */
+  @Transactional
+  @KafkaListener(
+      topics = TOPIC_BOOK_DELETED,
+      groupId = BOOK_TRACKER_GROUP_ID,
+      autoStartup = UNIFIED_TOPIC_DISABLED,
+      batch = "true")
+  public void delete(List<BookEvent> events) {
+    apply(events);
+  }
+
+  /**
+   * Handles a batch of records from the unified {@code book-events} topic. Events of one book share
+   * a partition there, so a creation always arrives before the deletion that follows it.
+   *
+   * @param events the book events, {@code null} for records that could not be deserialized
+   */
+  @Transactional
+  @KafkaListener(
+      topics = TOPIC_BOOK_EVENTS,
+      groupId = BOOK_TRACKER_GROUP_ID,
+      autoStartup = UNIFIED_TOPIC_ENABLED,
+      batch = "true")
+  public void handle(List<BookEvent> events) {
+    apply(events);
+  }
+
+  /**
+   * Applies a batch of book events with one statement per kind of change. Loans are inserted
+   * idempotently, so redelivered creations are no-ops, and a book is never created again after it
+   * is deleted, so applying every creation of the batch before every deletion ends in the same
+   * state as applying the events one by one.
+   *
+   * <p>With separate topics a deletion can be consumed before the creation of the same book. The
+   * replica records a tombstone for every deletion before the loans are touched, and the insert
+   * skips tombstoned books, so a late creation does not bring back a loan for a deleted book.
+   */
+  private void apply(List<BookEvent> events) {
+    var received = events.stream().filter(Objects::nonNull).toList();
+    if (received.isEmpty()) {
+      return;
+    }
+    bookReplicaService.applyAll(received);
+    var created = new LinkedHashSet<Long>();
+    var deleted = new LinkedHashSet<Long>();
+    for (var event : received) {
+      switch (event.type()) {
+        case CREATED -> created.add(event.bookId());
+        case DELETED -> deleted.add(event.bookId());
+        case UPDATED -> {
+          // loans do not depend on book details
+        }
+      }
+      if (event.type() != BookEventType.CREATED) {
+        bookResponseCache.invalidate(event.bookId());
+      }
+    }
+    if (!created.isEmpty()) {
+      bookLoansRepository.insertAvailableIgnoringExisting(
+          created.toArray(Long[]::new), auditorAware.getCurrentAuditor().orElseThrow());
+    }
+    if (!deleted.isEmpty()) {
+      bookLoansRepository.softDeleteAllByBookIdIn(deleted.toArray(Long[]::new));
+    }
   }
 }
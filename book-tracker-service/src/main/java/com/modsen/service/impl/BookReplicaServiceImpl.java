@@ -0,0 +1,217 @@
+package com.modsen.service.impl;
+
+import com.modsen.client.BookStorageServiceClient;
+import com.modsen.client.FeignRequestInterceptor;
+import com.modsen.client.ServiceCredentials;
+import com.modsen.event.BookEvent;
+import com.modsen.event.BookEventCodec;
+import com.modsen.event.BookEventConsumerLag;
+import com.modsen.model.dto.response.BookReplicaStatusResponse;
+import com.modsen.model.dto.response.BookResponse;
+import com.modsen.repository.BookReplicaRepository;
+import com.modsen.service.api.BookReplicaService;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code book_replicas} in step with book-storage-service.
+ *
+ * <p>The replica is filled by a bulk synchronization that scrolls through every book page by page,
+ * each page upserted in its own transaction, and is then kept current by the book events. The
+ * synchronization runs as a background job with the tracker's own credentials, and only one runs at
+ * a time. Rows an event wrote after the synchronization started are newer than anything the
+ * synchronization reads, so they are never overwritten by it, and deleted books leave a tombstone
+ * that keeps both the synchronization and late events of other topics from bringing them back. A
+ * tombstone is only pruned once the consumer group has caught up past its deletion by the retention
+ * period, so every event published before the deletion has been applied by then. The replica is
+ * considered fresh once a synchronization has completed, the consumer group has caught up with the
+ * book topics within the tolerated lag and the last event reached it within that lag as well.
+ */
+@Service
+public class BookReplicaServiceImpl implements BookReplicaService {
+
+  private final BookReplicaRepository bookReplicaRepository;
+  private final BookStorageServiceClient bookStorageServiceClient;
+  private final TransactionTemplate transactionTemplate;
+  private final BookEventConsumerLag bookEventConsumerLag;
+  private final ServiceCredentials serviceCredentials;
+  private final int syncPageSize;
+  private final Duration maxLag;
+  private final Duration tombstoneRetention;
+  private final AtomicReference<EventMark> lastEvent = new AtomicReference<>();
+  private final AtomicBoolean syncing = new AtomicBoolean();
+  private final ExecutorService syncExecutor =
+      Executors.newSingleThreadExecutor(Thread.ofVirtual().name("book-replica-sync").factory());
+  private volatile Instant syncedAt;
+  private volatile Instant syncFailedAt;
+
+  public BookReplicaServiceImpl(
+      BookReplicaRepository bookReplicaRepository,
+      BookStorageServiceClient bookStorageServiceClient,
+      TransactionTemplate transactionTemplate,
+      BookEventConsumerLag bookEventConsumerLag,
+      ServiceCredentials serviceCredentials,
+      @Value("${books.replica.sync-page-size:100}") int syncPageSize,
+      @Value("${books.replica.max-lag:1m}") Duration maxLag,
+      @Value("${books.replica.tombstone-retention:7d}") Duration tombstoneRetention) {
+    this.bookReplicaRepository = bookReplicaRepository;
+    this.bookStorageServiceClient = bookStorageServiceClient;
+    this.transactionTemplate = transactionTemplate;
+    this.bookEventConsumerLag = bookEventConsumerLag;
+    this.serviceCredentials = serviceCredentials;
+    this.syncPageSize = syncPageSize;
+    this.maxLag = maxLag;
+    this.tombstoneRetention = tombstoneRetention;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadSyncedAt() {
+    syncedAt = bookReplicaRepository.findSyncedAt().orElse(null);
+  }
+
+  @Override
+  public void apply(BookEvent event) {
+    var book = event.book();
+    switch (event.type()) {
+      case CREATED, UPDATED -> {
+        if (Objects.isNull(book)) {
+          // events written before the envelope carry no book; the next sync fills the gap
+          return;
+        }
+        bookReplicaRepository.upsert(
+            event.bookId(),
+            book.isbn(),
+            book.name(),
+            book.genre(),
+            book.description(),
+            book.author(),
+            event.bookVersion());
+      }
+      case DELETED -> {
+        bookReplicaRepository.deleteByBookId(event.bookId());
+        bookReplicaRepository.insertTombstone(event.bookId());
+      }
+    }
+    if (event.schemaVersion() >= BookEventCodec.MIN_SCHEMA_VERSION) {
+      var lag = Duration.between(event.occurredAt(), Instant.now());
+      lastEvent.set(new EventMark(event.occurredAt(), Math.max(lag.toMillis(), 0)));
+    }
+  }
+
+  @Override
+  public void applyAll(List<BookEvent> events) {
+    var latest = new LinkedHashMap<Long, BookEvent>();
+    events.forEach(
+        event -> {
+          latest.remove(event.bookId());
+          latest.put(event.bookId(), event);
+        });
+    latest.values().forEach(this::apply);
+  }
+
+  @Override
+  public BookReplicaStatusResponse startSync() {
+    if (syncing.compareAndSet(false, true)) {
+      syncExecutor.execute(
+          () -> {
+            try {
+              FeignRequestInterceptor.callWithAuthorization(
+                  serviceCredentials.authorization(),
+                  () -> {
+                    sync();
+                    return null;
+                  });
+              syncFailedAt = null;
+            } catch (RuntimeException exception) {
+              syncFailedAt = Instant.now();
+            } finally {
+              syncing.set(false);
+            }
+          });
+    }
+    return getStatus();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    syncExecutor.shutdownNow();
+  }
+
+  void sync() {
+    var startedAt = bookReplicaRepository.currentTimestamp();
+    String cursor = null;
+    do {
+      var page = bookStorageServiceClient.scroll(cursor, syncPageSize).getBody();
+      transactionTemplate.executeWithoutResult(status -> upsertPage(page.content(), startedAt));
+      cursor = page.nextCursor();
+    } while (Objects.nonNull(cursor));
+    var caughtUpAt = bookEventConsumerLag.caughtUpAt();
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          bookReplicaRepository.deleteReplicatedBefore(startedAt);
+          // a tombstone must outlive every event published before the deletion it records
+          caughtUpAt.ifPresent(
+              position ->
+                  bookReplicaRepository.deleteTombstonesBefore(
+                      (position.isBefore(startedAt) ? position : startedAt)
+                          .minus(tombstoneRetention)));
+          bookReplicaRepository.updateSyncedAt(startedAt);
+        });
+    syncedAt = startedAt;
+  }
+
+  @Override
+  public BookReplicaStatusResponse getStatus() {
+    var mark = lastEvent.get();
+    return new BookReplicaStatusResponse(
+        syncedAt,
+        syncing.get(),
+        syncFailedAt,
+        bookEventConsumerLag.caughtUpAt().orElse(null),
+        Objects.isNull(mark) ? null : mark.occurredAt(),
+        Objects.isNull(mark) ? null : mark.lagMillis(),
+        isFresh());
+  }
+
+  @Override
+  public boolean isFresh() {
+    var mark = lastEvent.get();
+    var now = Instant.now();
+    return Objects.nonNull(syncedAt)
+        && bookEventConsumerLag
+            .caughtUpAt()
+            .map(caughtUpAt -> Duration.between(caughtUpAt, now).compareTo(maxLag) <= 0)
+            .orElse(false)
+        && (Objects.isNull(mark) || mark.lagMillis() <= maxLag.toMillis());
+  }
+
+  private void upsertPage(List<BookResponse> books, Instant startedAt) {
+    if (books.isEmpty()) {
+      return;
+    }
+    bookReplicaRepository.upsertAllUntouchedSince(
+        books.stream().map(BookResponse::id).toArray(Long[]::new),
+        books.stream().map(BookResponse::isbn).toArray(String[]::new),
+        books.stream().map(BookResponse::name).toArray(String[]::new),
+        books.stream().map(BookResponse::genre).toArray(String[]::new),
+        books.stream().map(BookResponse::description).toArray(String[]::new),
+        books.stream().map(BookResponse::author).toArray(String[]::new),
+        startedAt);
+  }
+
+  /** When the last applied event happened upstream and how long it took to arrive. */
+  private record EventMark(Instant occurredAt, long lagMillis) {}
+}
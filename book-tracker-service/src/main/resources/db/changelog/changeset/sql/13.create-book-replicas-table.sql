@@ -0,0 +1,19 @@
+CREATE TABLE book_replicas (
+                       book_id BIGINT PRIMARY KEY,
+                       isbn VARCHAR(20) NOT NULL,
+                       name VARCHAR(255) NOT NULL,
+                       genre VARCHAR(255) NOT NULL,
+                       description TEXT NOT NULL,
+                       author VARCHAR(255) NOT NULL,
+                       book_version BIGINT,
+                       replicated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_book_replicas_replicated_at ON book_replicas (replicated_at);
+
+CREATE TABLE book_replica_state (
+                       id SMALLINT PRIMARY KEY CHECK (id = 1),
+                       synced_at TIMESTAMP WITH TIME ZONE
+);
+
+INSERT INTO book_replica_state (id, synced_at) VALUES (1, NULL);
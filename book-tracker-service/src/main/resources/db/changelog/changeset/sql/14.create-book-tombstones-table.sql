@@ -0,0 +1,6 @@
+CREATE TABLE book_tombstones (
+                       book_id BIGINT PRIMARY KEY,
+                       deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_book_tombstones_deleted_at ON book_tombstones (deleted_at);
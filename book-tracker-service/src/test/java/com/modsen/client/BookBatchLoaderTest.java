@@ -0,0 +1,142 @@
+package com.modsen.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.modsen.data.BookResponseTestData;
+import com.modsen.exception.BookStorageUnavailableException;
+import com.modsen.model.dto.response.BookLookupResponse;
+import com.modsen.model.dto.response.BookResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class BookBatchLoaderTest {
+  private static final Duration WINDOW = Duration.ofMillis(100);
+
+  @Mock private BookStorageServiceClient bookStorageServiceClient;
+  @Mock private ServiceCredentials serviceCredentials;
+  @Captor private ArgumentCaptor<List<Long>> requested;
+
+  private BookBatchLoader bookBatchLoader;
+
+  @AfterEach
+  void tearDown() {
+    bookBatchLoader.shutdown();
+  }
+
+  @Test
+  void loadAllShouldCoalesceConcurrentLookupsIntoOneCall() {
+    // given
+    bookBatchLoader =
+        new BookBatchLoader(bookStorageServiceClient, serviceCredentials, WINDOW, 100, 100, 4);
+    answerWithBooksForRequestedIds();
+
+    // when
+    var first = CompletableFuture.supplyAsync(() -> bookBatchLoader.loadAll(List.of(1L, 2L)));
+    var second = CompletableFuture.supplyAsync(() -> bookBatchLoader.loadAll(List.of(3L, 2L)));
+
+    // then
+    assertThat(ids(first.join())).containsExactly(1L, 2L);
+    assertThat(ids(second.join())).containsExactly(3L, 2L);
+    verify(bookStorageServiceClient).getAllByIds(requested.capture());
+    assertThat(requested.getValue()).containsExactlyInAnyOrder(1L, 2L, 3L);
+  }
+
+  @Test
+  void loadAllShouldSplitLargeBatchesIntoChunks() {
+    // given
+    bookBatchLoader =
+        new BookBatchLoader(bookStorageServiceClient, serviceCredentials, WINDOW, 100, 2, 4);
+    answerWithBooksForRequestedIds();
+
+    // when
+    var books = bookBatchLoader.loadAll(List.of(5L, 4L, 3L, 2L, 1L));
+
+    // then
+    assertThat(ids(books)).containsExactly(5L, 4L, 3L, 2L, 1L);
+    verify(bookStorageServiceClient, times(3)).getAllByIds(anyList());
+  }
+
+  @Test
+  void loadAllShouldShareBatchesBetweenCallersUsingServiceCredentials() {
+    // given
+    bookBatchLoader =
+        new BookBatchLoader(bookStorageServiceClient, serviceCredentials, WINDOW, 100, 100, 4);
+    var forwarded = new CopyOnWriteArrayList<String>();
+    doReturn("Bearer service").when(serviceCredentials).authorization();
+    doAnswer(
+            invocation -> {
+              forwarded.add(FeignRequestInterceptor.currentAuthorization());
+              var book = BookResponseTestData.builder().withId(1L).build().buildBookResponse();
+              return ResponseEntity.ok(new BookLookupResponse<>(List.of(book), List.of()));
+            })
+        .when(bookStorageServiceClient)
+        .getAllByIds(anyList());
+
+    // when
+    var first =
+        CompletableFuture.runAsync(
+            () ->
+                FeignRequestInterceptor.callWithAuthorization(
+                    "Bearer first", () -> bookBatchLoader.loadAll(List.of(1L))));
+    var second =
+        CompletableFuture.runAsync(
+            () ->
+                FeignRequestInterceptor.callWithAuthorization(
+                    "Bearer second", () -> bookBatchLoader.loadAll(List.of(1L))));
+    CompletableFuture.allOf(first, second).join();
+
+    // then
+    verify(bookStorageServiceClient).getAllByIds(List.of(1L));
+    assertThat(forwarded).containsExactly("Bearer service");
+  }
+
+  @Test
+  void loadAllShouldRethrowRemoteFailure() {
+    // given
+    bookBatchLoader =
+        new BookBatchLoader(bookStorageServiceClient, serviceCredentials, WINDOW, 100, 100, 4);
+    var failure = new BookStorageUnavailableException(new IllegalStateException());
+    doThrow(failure).when(bookStorageServiceClient).getAllByIds(List.of(1L));
+
+    // when, then
+    assertThatThrownBy(() -> bookBatchLoader.loadAll(List.of(1L))).isSameAs(failure);
+  }
+
+  private void answerWithBooksForRequestedIds() {
+    doAnswer(
+            invocation -> {
+              List<Long> ids = invocation.getArgument(0);
+              var books =
+                  ids.stream()
+                      .map(
+                          id ->
+                              BookResponseTestData.builder().withId(id).build().buildBookResponse())
+                      .toList();
+              return ResponseEntity.ok(new BookLookupResponse<>(books, List.of()));
+            })
+        .when(bookStorageServiceClient)
+        .getAllByIds(anyList());
+  }
+
+  private static List<Long> ids(List<BookResponse> books) {
+    return books.stream().map(BookResponse::id).toList();
+  }
+}
@@ -0,0 +1,175 @@
+package com.modsen.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.modsen.data.BookResponseTestData;
+import com.modsen.exception.BookStorageUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookResponseCacheTest {
+  private static final Duration SOFT_TTL = Duration.ofMinutes(5);
+  private static final Duration HARD_TTL = Duration.ofHours(1);
+  private static final Duration STALE_IF_ERROR = Duration.ofDays(1);
+
+  @Mock private BookBatchLoader bookBatchLoader;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private BookResponseCache bookResponseCache;
+
+  @BeforeEach
+  void setUp() {
+    bookResponseCache =
+        new BookResponseCache(
+            bookBatchLoader,
+            new SimpleMeterRegistry(),
+            100,
+            SOFT_TTL,
+            HARD_TTL,
+            STALE_IF_ERROR,
+            nanos::get);
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookResponseCache.shutdown();
+  }
+
+  @Test
+  void getAllShouldServeFreshEntriesFromCache() {
+    // given
+    var book = BookResponseTestData.builder().withId(1L).build().buildBookResponse();
+    doReturn(List.of(book)).when(bookBatchLoader).loadAll(List.of(1L));
+
+    // when
+    bookResponseCache.getAll(List.of(1L));
+    var books = bookResponseCache.getAll(List.of(1L));
+
+    // then
+    assertThat(books).containsExactly(book);
+    verify(bookBatchLoader).loadAll(List.of(1L));
+  }
+
+  @Test
+  void getAllShouldServeStaleEntryAndRefreshItInBackground() {
+    // given
+    var book = BookResponseTestData.builder().withId(1L).build().buildBookResponse();
+    var renamed =
+        BookResponseTestData.builder().withId(1L).withName("renamed").build().buildBookResponse();
+    doReturn(List.of(book), List.of(renamed)).when(bookBatchLoader).loadAll(List.of(1L));
+    bookResponseCache.getAll(List.of(1L));
+    advance(SOFT_TTL);
+
+    // when
+    var stale = bookResponseCache.getAll(List.of(1L));
+
+    // then
+    assertThat(stale).containsExactly(book);
+    await()
+        .atMost(Duration.ofSeconds(1))
+        .untilAsserted(
+            () -> assertThat(bookResponseCache.getAll(List.of(1L))).containsExactly(renamed));
+  }
+
+  @Test
+  void getAllShouldServeExpiredEntryWhileStorageIsUnavailable() {
+    // given
+    var book = BookResponseTestData.builder().withId(1L).build().buildBookResponse();
+    var failure = new BookStorageUnavailableException(new IllegalStateException());
+    doReturn(List.of(book)).when(bookBatchLoader).loadAll(List.of(1L));
+    bookResponseCache.getAll(List.of(1L));
+    advance(HARD_TTL);
+    doThrow(failure).when(bookBatchLoader).loadAll(List.of(1L));
+
+    // when
+    var books = bookResponseCache.getAll(List.of(1L));
+
+    // then
+    assertThat(books).containsExactly(book);
+  }
+
+  @Test
+  void getAllShouldServeRetainedBooksAndOmitOthersWhileStorageIsUnavailable() {
+    // given
+    var book = BookResponseTestData.builder().withId(1L).build().buildBookResponse();
+    var failure = new BookStorageUnavailableException(new IllegalStateException());
+    doReturn(List.of(book)).when(bookBatchLoader).loadAll(List.of(1L));
+    bookResponseCache.getAll(List.of(1L));
+    advance(HARD_TTL);
+    doThrow(failure).when(bookBatchLoader).loadAll(anyList());
+
+    // when
+    var books = bookResponseCache.getAll(List.of(2L, 1L));
+
+    // then
+    assertThat(books).containsExactly(book);
+  }
+
+  @Test
+  void getAllShouldRethrowWhenUncachedBookCannotBeLoaded() {
+    // given
+    var failure = new BookStorageUnavailableException(new IllegalStateException());
+    doThrow(failure).when(bookBatchLoader).loadAll(List.of(1L));
+
+    // when, then
+    assertThatThrownBy(() -> bookResponseCache.getAll(List.of(1L))).isSameAs(failure);
+  }
+
+  @Test
+  void invalidateShouldMakeNextLookupLoadAgain() {
+    // given
+    var book = BookResponseTestData.builder().withId(1L).build().buildBookResponse();
+    doReturn(List.of(book)).when(bookBatchLoader).loadAll(List.of(1L));
+    bookResponseCache.getAll(List.of(1L));
+
+    // when
+    bookResponseCache.invalidate(1L);
+    bookResponseCache.getAll(List.of(1L));
+
+    // then
+    verify(bookBatchLoader, times(2)).loadAll(List.of(1L));
+  }
+
+  @Test
+  void loadShouldNotCacheBookInvalidatedWhileItWasLoading() {
+    // given
+    var book = BookResponseTestData.builder().withId(1L).build().buildBookResponse();
+    doAnswer(
+            invocation -> {
+              bookResponseCache.invalidate(1L);
+              return List.of(book);
+            })
+        .doReturn(List.of(book))
+        .when(bookBatchLoader)
+        .loadAll(List.of(1L));
+
+    // when
+    bookResponseCache.getAll(List.of(1L));
+    bookResponseCache.getAll(List.of(1L));
+    bookResponseCache.getAll(List.of(1L));
+
+    // then
+    verify(bookBatchLoader, times(2)).loadAll(List.of(1L));
+  }
+
+  private void advance(Duration duration) {
+    nanos.addAndGet(duration.toNanos());
+  }
+}
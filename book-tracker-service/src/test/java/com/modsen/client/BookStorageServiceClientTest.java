@@ -0,0 +1,150 @@
+package com.modsen.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.modsen.exception.BookStorageUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JAutoConfiguration;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class BookStorageServiceClientTest {
+
+  private HttpServer server;
+  private final AtomicInteger calls = new AtomicInteger();
+  private ApplicationContextRunner contextRunner;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/books/ids",
+        exchange -> {
+          calls.incrementAndGet();
+          exchange.sendResponseHeaders(500, -1);
+          exchange.close();
+        });
+    server.createContext(
+        "/books/scroll",
+        exchange -> {
+          try {
+            Thread.sleep(2_000);
+          } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    server.start();
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+    contextRunner =
+        new ApplicationContextRunner()
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            .withConfiguration(
+                AutoConfigurations.of(
+                    JacksonAutoConfiguration.class,
+                    HttpMessageConvertersAutoConfiguration.class,
+                    MetricsAutoConfiguration.class,
+                    CompositeMeterRegistryAutoConfiguration.class,
+                    SimpleMetricsExportAutoConfiguration.class,
+                    io.github.resilience4j.springboot3.circuitbreaker.autoconfigure
+                        .CircuitBreakerAutoConfiguration.class,
+                    io.github.resilience4j.springboot3.bulkhead.autoconfigure
+                        .BulkheadAutoConfiguration.class,
+                    io.github.resilience4j.springboot3.timelimiter.autoconfigure
+                        .TimeLimiterAutoConfiguration.class,
+                    Resilience4JAutoConfiguration.class,
+                    FeignAutoConfiguration.class))
+            .withUserConfiguration(Config.class)
+            .withPropertyValues(
+                "book-storage-service.url=http://localhost:"
+                    + server.getAddress().getPort()
+                    + "/books",
+                "spring.cloud.openfeign.client.config.book-storage-service.read-timeout=200",
+                "resilience4j.circuitbreaker.configs.default.sliding-window-size=2",
+                "resilience4j.circuitbreaker.configs.default.minimum-number-of-calls=2");
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+    server.stop(0);
+  }
+
+  @Test
+  void clientShouldUsePooledHttpClient() {
+    contextRunner.run(
+        context -> assertThat(context.getBean(Client.class)).isInstanceOf(ApacheHttp5Client.class));
+  }
+
+  @Test
+  void slowCallShouldFailWithinReadTimeout() {
+    contextRunner.run(
+        context -> {
+          var client = context.getBean(BookStorageServiceClient.class);
+          var startedAt = System.nanoTime();
+
+          assertThatThrownBy(() -> client.scroll(null, 10))
+              .isInstanceOf(BookStorageUnavailableException.class);
+          assertThat(System.nanoTime() - startedAt).isLessThan(1_500_000_000L);
+        });
+  }
+
+  @Test
+  void circuitShouldOpenAfterRepeatedFailures() {
+    contextRunner.run(
+        context -> {
+          var client = context.getBean(BookStorageServiceClient.class);
+
+          for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> client.getAllByIds(List.of(1L)))
+                .isInstanceOf(BookStorageUnavailableException.class);
+          }
+
+          assertThatThrownBy(() -> client.getAllByIds(List.of(1L)))
+              .isInstanceOf(BookStorageUnavailableException.class)
+              .hasCauseInstanceOf(CallNotPermittedException.class);
+          assertThat(calls).hasValue(2);
+          var meterRegistry = context.getBean(MeterRegistry.class);
+          assertThat(meterRegistry.get("feign.Client").tag("method", "getAllByIds").timer().count())
+              .isEqualTo(2);
+          assertThat(
+                  meterRegistry
+                      .get("resilience4j.circuitbreaker.not.permitted.calls")
+                      .counter()
+                      .count())
+              .isEqualTo(1);
+        });
+  }
+
+  @Configuration
+  @Import(BookStorageServiceClientFallbackFactory.class)
+  @EnableFeignClients(clients = BookStorageServiceClient.class)
+  static class Config {}
+}
@@ -0,0 +1,71 @@
+package com.modsen.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ServiceCredentialsTest {
+  private static final String SECRET =
+      "244226452948404D6351655468576D5A7134743777217A25432A462D4A614E645267556A586E"
+          + "3272357538782F413F4428472B4B6250655368566D5970337336d";
+  private static final String ISSUER = "test";
+  private static final String SUBJECT = "book-tracker-service";
+  private static final Duration TTL = Duration.ofMinutes(5);
+  private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+
+  private ServiceCredentials serviceCredentials;
+
+  @BeforeEach
+  void setUp() {
+    serviceCredentials = new ServiceCredentials(SECRET, ISSUER, SUBJECT, TTL);
+    serviceCredentials.clock = Clock.fixed(NOW, ZoneOffset.UTC);
+  }
+
+  @Test
+  void authorizationShouldCarryServiceTokenGrantingBookRead() {
+    // when
+    var authorization = serviceCredentials.authorization();
+
+    // then
+    assertTrue(authorization.startsWith("Bearer "));
+    var claims =
+        Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+            .requireIssuer(ISSUER)
+            .setClock(() -> Date.from(NOW))
+            .build()
+            .parseClaimsJws(authorization.substring("Bearer ".length()))
+            .getBody();
+    assertEquals(SUBJECT, claims.getSubject());
+    assertEquals(List.of("book:read"), claims.get("authorities", List.class));
+    assertEquals(NOW.plus(TTL), claims.getExpiration().toInstant());
+  }
+
+  @Test
+  void authorizationShouldBeReusedUntilHalfOfItsLifetimeHasPassed() {
+    // given
+    var first = serviceCredentials.authorization();
+
+    // when
+    serviceCredentials.clock = Clock.fixed(NOW.plus(TTL.dividedBy(3)), ZoneOffset.UTC);
+    var reused = serviceCredentials.authorization();
+    serviceCredentials.clock = Clock.fixed(NOW.plus(TTL.dividedBy(2)), ZoneOffset.UTC);
+    var renewed = serviceCredentials.authorization();
+
+    // then
+    assertEquals(first, reused);
+    assertNotEquals(first, renewed);
+  }
+}
@@ -160,7 +160,7 @@ public class BookLoansRestControllerControllerTest {
     }
 
     @Test
-    @WithMockUser(authorities = {"user:read"})
+    @WithMockUser(authorities = {"user:read", "book:read"})
     void getAllAvailableBookShouldReturnPageOfBookResponses() throws Exception {
       // given
       var pageable = Pageable.ofSize(PAGE_SIZE);
@@ -194,6 +194,18 @@ public class BookLoansRestControllerControllerTest {
 
       verify(bookLoansService, never()).getAll(pageable);
     }
+
+    @Test
+    @WithMockUser(authorities = {"user:read"})
+    void getAllAvailableBookShouldReturnForbiddenWithoutBookRead() throws Exception {
+      // when
+      mockMvc
+          .perform(get(URL_GET_ALL_AVAILABLE_BOOKS).contentType(MediaType.APPLICATION_JSON))
+          // then
+          .andExpect(status().isForbidden());
+
+      verify(bookLoansService, never()).getAllAvailableBook(any(Pageable.class));
+    }
   }
 
   @Nested
@@ -0,0 +1,62 @@
+package com.modsen.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaAdmin;
+
+class BookEventConsumerLagTest {
+  private static final TopicPartition PARTITION = new TopicPartition("book-created", 0);
+  private static final Instant FIRST_PROBE = Instant.parse("2025-03-01T10:00:00Z");
+  private static final Instant SECOND_PROBE = FIRST_PROBE.plusSeconds(5);
+
+  private final BookEventConsumerLag consumerLag =
+      new BookEventConsumerLag(new KafkaAdmin(Map.of()), false);
+
+  @Test
+  void caughtUpAtShouldBeEmptyUntilConsumerReachesEndOffsets() {
+    // when
+    consumerLag.record(FIRST_PROBE, Map.of(PARTITION, 10L), Map.of(PARTITION, 7L));
+
+    // then
+    assertTrue(consumerLag.caughtUpAt().isEmpty());
+  }
+
+  @Test
+  void caughtUpAtShouldBeTimeOfLatestProbeConsumerHasReached() {
+    // given
+    consumerLag.record(FIRST_PROBE, Map.of(PARTITION, 10L), Map.of(PARTITION, 7L));
+
+    // when
+    consumerLag.record(SECOND_PROBE, Map.of(PARTITION, 15L), Map.of(PARTITION, 12L));
+
+    // then
+    assertEquals(Optional.of(FIRST_PROBE), consumerLag.caughtUpAt());
+  }
+
+  @Test
+  void caughtUpAtShouldNotAdvanceWhileConsumerIsStalled() {
+    // given
+    consumerLag.record(FIRST_PROBE, Map.of(PARTITION, 10L), Map.of(PARTITION, 10L));
+
+    // when
+    consumerLag.record(SECOND_PROBE, Map.of(PARTITION, 11L), Map.of(PARTITION, 10L));
+
+    // then
+    assertEquals(Optional.of(FIRST_PROBE), consumerLag.caughtUpAt());
+  }
+
+  @Test
+  void caughtUpAtShouldTreatPartitionsWithoutCommittedOffsetAsUnread() {
+    // when
+    consumerLag.record(FIRST_PROBE, Map.of(PARTITION, 1L), Map.of());
+
+    // then
+    assertTrue(consumerLag.caughtUpAt().isEmpty());
+  }
+}
@@ -0,0 +1,55 @@
+package com.modsen.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+class BookEventDeserializerTest {
+  private static final String TOPIC_BOOK_CREATED = "book-created";
+  private static final String TOPIC_BOOK_DELETED = "book-deleted";
+
+  private final BookEventDeserializer deserializer = new BookEventDeserializer();
+
+  @Test
+  void deserializeShouldDecodeEnvelope() {
+    // given
+    var event =
+        BookEvent.of(
+            BookEventType.CREATED,
+            7L,
+            0L,
+            new BookSnapshot("isbn", "name", "FICTION", "description", "author"));
+
+    // when
+    var actual = deserializer.deserialize(TOPIC_BOOK_CREATED, BookEventCodec.encode(event));
+
+    // then
+    assertEquals(event.bookId(), actual.bookId());
+    assertEquals(event.book(), actual.book());
+  }
+
+  @Test
+  void deserializeShouldAcceptLegacyIdPayloadUsingTopicAsType() {
+    // when
+    var actual = deserializer.deserialize(TOPIC_BOOK_DELETED, "7".getBytes(StandardCharsets.UTF_8));
+
+    // then
+    assertEquals(BookEventType.DELETED, actual.type());
+    assertEquals(7L, actual.bookId());
+    assertNull(actual.book());
+  }
+
+  @Test
+  void deserializeShouldThrowSerializationExceptionForGarbage() {
+    // given
+    var garbage = "not an id".getBytes(StandardCharsets.UTF_8);
+
+    // when & then
+    assertThrows(
+        SerializationException.class, () -> deserializer.deserialize(TOPIC_BOOK_CREATED, garbage));
+  }
+}
@@ -5,19 +5,26 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-import com.modsen.client.BookStorageServiceClient;
+import com.modsen.client.BookResponseCache;
 import com.modsen.data.BookLoansTestData;
 import com.modsen.data.BookResponseTestData;
+import com.modsen.event.BookEvent;
+import com.modsen.event.BookEventType;
 import com.modsen.exception.EntityAlreadyExistsException;
 import com.modsen.exception.EntityNotFoundException;
 import com.modsen.mapper.BookLoansMapper;
-import com.modsen.model.entity.BookLoans;
+import com.modsen.model.dto.response.BookResponse;
 import com.modsen.repository.BookLoansRepository;
+import com.modsen.service.api.BookReplicaService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.IntStream;
@@ -27,21 +34,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.ResponseEntity;
 
 @ExtendWith(MockitoExtension.class)
 class BookLoansServiceImplTest {
   private static final String ERROR_MESSAGE = "BookLoans with ID %s was not found";
   public static final int PAGE_SIZE = 2;
+  private static final LocalDateTime RETURNED_AT = LocalDateTime.of(2025, 1, 15, 12, 0);
 
   @InjectMocks private BookLoansServiceImpl bookLoansService;
 
   @Mock private BookLoansMapper bookLoansMapper;
   @Mock private BookLoansRepository bookLoansRepository;
-  @Mock private BookStorageServiceClient bookStorageServiceClient;
+  @Mock private BookResponseCache bookResponseCache;
+  @Mock private BookReplicaService bookReplicaService;
+  @Mock private AuditorAware<LocalDateTime> auditorAware;
 
   @Nested
   class Create {
@@ -71,18 +81,16 @@ class BookLoansServiceImplTest {
     @Test
     void createWhenBookDoesNotExistSavesNewBookLoans() {
       // given
-      var expected = BookLoansTestData.builder().build().buildBookLoans();
-      var bookId = expected.getBookId();
+      var bookId = BookLoansTestData.builder().build().buildBookLoans().getBookId();
 
-      when(bookLoansRepository.existsByBookId(bookId)).thenReturn(Boolean.FALSE);
-      when(bookLoansRepository.save(any(BookLoans.class))).thenReturn(expected);
+      when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of(RETURNED_AT));
 
       // when
-      bookLoansService.create(String.valueOf(bookId));
+      bookLoansService.create(List.of(BookEvent.of(BookEventType.CREATED, bookId, 0L, null)));
 
       // then
-      verify(bookLoansRepository).existsByBookId(bookId);
-      verify(bookLoansRepository).save(any(BookLoans.class));
+      verify(bookLoansRepository).insertAvailableIgnoringExisting(new Long[] {bookId}, RETURNED_AT);
+      verify(bookLoansRepository, never()).softDeleteAllByBookIdIn(any());
     }
 
     @Test
@@ -98,17 +106,32 @@ class BookLoansServiceImplTest {
     }
 
     @Test
-    void shouldThrowEntityAlreadyExistsExceptionInKafka() {
+    void createShouldInsertRedeliveredEventsOnce() {
       // given
-      var bookId = BookLoansTestData.builder().build().buildBookLoansRequest().bookId();
+      var event = BookEvent.of(BookEventType.CREATED, 1L, 0L, null);
+      var events = List.of(event, BookEvent.of(BookEventType.CREATED, 2L, 0L, null), event);
 
-      when(bookLoansRepository.existsByBookId(bookId)).thenReturn(Boolean.TRUE);
+      when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of(RETURNED_AT));
 
-      // when & then
-      assertThrows(
-          EntityAlreadyExistsException.class,
-          () -> bookLoansService.create(String.valueOf(bookId)));
-      verify(bookLoansRepository).existsByBookId(bookId);
+      // when
+      bookLoansService.create(events);
+
+      // then
+      verify(bookReplicaService).applyAll(events);
+      verify(bookLoansRepository).insertAvailableIgnoringExisting(new Long[] {1L, 2L}, RETURNED_AT);
+    }
+
+    @Test
+    void createShouldSkipRecordsThatFailedToDeserialize() {
+      // given
+      var events = new ArrayList<BookEvent>();
+      events.add(null);
+
+      // when
+      bookLoansService.create(events);
+
+      // then
+      verifyNoInteractions(bookReplicaService, bookLoansRepository);
     }
   }
 
@@ -151,10 +174,7 @@ class BookLoansServiceImplTest {
           .when(bookLoansRepository)
           .findAllBooksIdWhereBookStatusIsAvailable(pageable);
 
-      var bookResponsePage = new PageImpl<>(expectedResponses, pageable, expectedResponses.size());
-      doReturn(ResponseEntity.ok(bookResponsePage))
-          .when(bookStorageServiceClient)
-          .getBooksByIds(listOfIds, pageable);
+      doReturn(expectedResponses).when(bookResponseCache).getAll(listOfIds);
 
       // when
       var actualResponses = bookLoansService.getAllAvailableBook(pageable).getContent();
@@ -162,6 +182,46 @@ class BookLoansServiceImplTest {
       // then
       assertEquals(expectedResponses, actualResponses);
     }
+
+    @Test
+    void getAllAvailableBookShouldJoinReplicaLocallyWhenFresh() {
+      // given
+      var pageable = Pageable.ofSize(PAGE_SIZE);
+      var books = List.of(BookResponseTestData.builder().build().buildBookResponse());
+
+      doReturn(true).when(bookReplicaService).isFresh();
+      doReturn(new PageImpl<>(books, pageable, 1))
+          .when(bookLoansRepository)
+          .findAllAvailableBooks(pageable);
+
+      // when
+      var actual = bookLoansService.getAllAvailableBook(pageable).getContent();
+
+      // then
+      assertEquals(books, actual);
+      verifyNoInteractions(bookResponseCache);
+    }
+
+    @Test
+    void getAllAvailableBookShouldFetchBooksMissingFromReplica() {
+      // given
+      var pageable = Pageable.ofSize(PAGE_SIZE);
+      var replicated = BookResponseTestData.builder().withId(1L).build().buildBookResponse();
+      var fetched = BookResponseTestData.builder().withId(2L).build().buildBookResponse();
+      var notReplicated = new BookResponse(2L, null, null, null, null, null);
+
+      doReturn(true).when(bookReplicaService).isFresh();
+      doReturn(new PageImpl<>(List.of(notReplicated, replicated), pageable, 2))
+          .when(bookLoansRepository)
+          .findAllAvailableBooks(pageable);
+      doReturn(List.of(fetched)).when(bookResponseCache).getAll(List.of(2L));
+
+      // when
+      var actual = bookLoansService.getAllAvailableBook(pageable).getContent();
+
+      // then
+      assertEquals(List.of(fetched, replicated), actual);
+    }
   }
 
   @Nested
@@ -248,6 +308,20 @@ class BookLoansServiceImplTest {
       assertEquals(ERROR_MESSAGE.formatted(id), exception.getMessage());
     }
 
+    @Test
+    void updateShouldRefreshReplicaAndCacheForUpdatedEvents() {
+      // given
+      var events = List.of(BookEvent.of(BookEventType.UPDATED, 1L, 2L, null));
+
+      // when
+      bookLoansService.update(events);
+
+      // then
+      verify(bookReplicaService).applyAll(events);
+      verify(bookResponseCache).invalidate(1L);
+      verifyNoInteractions(bookLoansRepository);
+    }
+
     @Test
     void updateShouldReturnPageEmptyWhenFindAllBooksIdWhereBookStatusIsAvailableReturnEmpty() {
       // given
@@ -295,39 +369,63 @@ class BookLoansServiceImplTest {
     }
 
     @Test
-    void deleteShouldVerifyBookLoansWhenUserIsCreatedSuccessfully() {
+    void deleteWhenBooksExistSoftDeletesThemInOneStatement() {
       // given
-      var expected = BookLoansTestData.builder().build().buildBookLoans();
-      var bookId = expected.getBookId();
-
-      when(bookLoansRepository.existsByBookId(bookId)).thenReturn(Boolean.FALSE);
-      when(bookLoansRepository.save(any(BookLoans.class))).thenReturn(expected);
+      var events =
+          List.of(
+              BookEvent.of(BookEventType.DELETED, 1L, 0L, null),
+              BookEvent.of(BookEventType.DELETED, 2L, 0L, null));
 
       // when
-      bookLoansService.create(String.valueOf(bookId));
+      bookLoansService.delete(events);
 
       // then
-      verify(bookLoansRepository).existsByBookId(bookId);
-      verify(bookLoansRepository).save(any(BookLoans.class));
+      verify(bookReplicaService).applyAll(events);
+      verify(bookLoansRepository).softDeleteAllByBookIdIn(new Long[] {1L, 2L});
+      verify(bookResponseCache).invalidate(1L);
+      verify(bookResponseCache).invalidate(2L);
+      verify(bookLoansRepository, never()).insertAvailableIgnoringExisting(any(), any());
     }
+  }
 
+  @Nested
+  class Handle {
     @Test
-    void deleteWhenBookExistSavesNewBookLoans() {
+    void handleShouldInsertCreatedBeforeDeletingDeletedBooks() {
       // given
-      var bookLoansResponse = BookLoansTestData.builder().build().buildBookLoansResponse();
-      var bookLoans = BookLoansTestData.builder().build().buildBookLoans();
-      var bookId = bookLoansResponse.bookId();
+      var events =
+          List.of(
+              BookEvent.of(BookEventType.CREATED, 1L, 0L, null),
+              BookEvent.of(BookEventType.CREATED, 2L, 0L, null),
+              BookEvent.of(BookEventType.DELETED, 1L, 1L, null));
+
+      when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of(RETURNED_AT));
 
-      when(bookLoansRepository.findByBookId(bookId)).thenReturn(Optional.ofNullable(bookLoans));
-      when(bookLoansMapper.toBookLoansResponse(any())).thenReturn(bookLoansResponse);
-      doNothing().when(bookLoansRepository).deleteByBookId(bookId);
+      // when
+      bookLoansService.handle(events);
+
+      // then
+      var inOrder = inOrder(bookLoansRepository);
+      inOrder
+          .verify(bookLoansRepository)
+          .insertAvailableIgnoringExisting(new Long[] {1L, 2L}, RETURNED_AT);
+      inOrder.verify(bookLoansRepository).softDeleteAllByBookIdIn(new Long[] {1L});
+      verify(bookResponseCache).invalidate(1L);
+      verify(bookResponseCache, never()).invalidate(2L);
+    }
+
+    @Test
+    void handleShouldRefreshBookDetailsForUpdatedEvent() {
+      // given
+      var events = List.of(BookEvent.of(BookEventType.UPDATED, 1L, 1L, null));
 
       // when
-      bookLoansService.delete(String.valueOf(bookId));
+      bookLoansService.handle(events);
 
       // then
-      verify(bookLoansRepository).findByBookId(bookId);
-      verify(bookLoansRepository).deleteByBookId(bookId);
+      verify(bookReplicaService).applyAll(events);
+      verify(bookResponseCache).invalidate(1L);
+      verifyNoInteractions(bookLoansRepository);
     }
   }
 }
@@ -0,0 +1,365 @@
+package com.modsen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.modsen.client.BookStorageServiceClient;
+import com.modsen.client.FeignRequestInterceptor;
+import com.modsen.client.ServiceCredentials;
+import com.modsen.data.BookResponseTestData;
+import com.modsen.event.BookEvent;
+import com.modsen.event.BookEventConsumerLag;
+import com.modsen.event.BookEventType;
+import com.modsen.event.BookSnapshot;
+import com.modsen.model.dto.response.BookReplicaStatusResponse;
+import com.modsen.model.dto.response.CursorPageResponse;
+import com.modsen.repository.BookReplicaRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class BookReplicaServiceImplTest {
+  private static final int PAGE_SIZE = 2;
+  private static final Duration MAX_LAG = Duration.ofMinutes(1);
+  private static final Duration TOMBSTONE_RETENTION = Duration.ofDays(7);
+
+  @Mock private BookReplicaRepository bookReplicaRepository;
+  @Mock private BookStorageServiceClient bookStorageServiceClient;
+  @Mock private TransactionTemplate transactionTemplate;
+  @Mock private BookEventConsumerLag bookEventConsumerLag;
+  @Mock private ServiceCredentials serviceCredentials;
+
+  private BookReplicaServiceImpl bookReplicaService;
+
+  @BeforeEach
+  void setUp() {
+    bookReplicaService =
+        new BookReplicaServiceImpl(
+            bookReplicaRepository,
+            bookStorageServiceClient,
+            transactionTemplate,
+            bookEventConsumerLag,
+            serviceCredentials,
+            PAGE_SIZE,
+            MAX_LAG,
+            TOMBSTONE_RETENTION);
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookReplicaService.shutdown();
+  }
+
+  @Nested
+  class Apply {
+    @Test
+    void applyShouldUpsertBookCarriedByEvent() {
+      // given
+      var book = new BookSnapshot("isbn", "name", "FICTION", "description", "author");
+      var event = BookEvent.of(BookEventType.UPDATED, 1L, 3L, book);
+
+      // when
+      bookReplicaService.apply(event);
+
+      // then
+      verify(bookReplicaRepository)
+          .upsert(1L, "isbn", "name", "FICTION", "description", "author", 3L);
+    }
+
+    @Test
+    void applyShouldDeleteReplicaAndLeaveTombstoneForDeletedEvent() {
+      // when
+      bookReplicaService.apply(BookEvent.of(BookEventType.DELETED, 1L, 4L, null));
+
+      // then
+      verify(bookReplicaRepository).deleteByBookId(1L);
+      verify(bookReplicaRepository).insertTombstone(1L);
+    }
+
+    @Test
+    void applyShouldSkipCreatedEventWithoutBook() {
+      // when
+      bookReplicaService.apply(BookEvent.of(BookEventType.CREATED, 1L, null, null));
+
+      // then
+      verifyNoInteractions(bookReplicaRepository);
+    }
+
+    @Test
+    void applyAllShouldApplyOnlyLastEventOfEachBook() {
+      // given
+      var book = new BookSnapshot("isbn", "name", "FICTION", "description", "author");
+      var events =
+          List.of(
+              BookEvent.of(BookEventType.CREATED, 1L, 0L, book),
+              BookEvent.of(BookEventType.UPDATED, 2L, 1L, book),
+              BookEvent.of(BookEventType.DELETED, 1L, 1L, null));
+
+      // when
+      bookReplicaService.applyAll(events);
+
+      // then
+      var inOrder = inOrder(bookReplicaRepository);
+      inOrder
+          .verify(bookReplicaRepository)
+          .upsert(2L, "isbn", "name", "FICTION", "description", "author", 1L);
+      inOrder.verify(bookReplicaRepository).deleteByBookId(1L);
+      inOrder.verify(bookReplicaRepository).insertTombstone(1L);
+      inOrder.verifyNoMoreInteractions();
+    }
+  }
+
+  @Nested
+  class Sync {
+    @Test
+    void syncShouldScrollAllPagesAndRemoveBooksItDidNotSee() {
+      // given
+      var startedAt = Instant.parse("2025-03-01T10:00:00Z");
+      var first = BookResponseTestData.builder().withId(1L).build().buildBookResponse();
+      var second = BookResponseTestData.builder().withId(2L).build().buildBookResponse();
+
+      runTransactionCallbacks();
+      doReturn(Optional.of(Instant.now())).when(bookEventConsumerLag).caughtUpAt();
+      doReturn(startedAt).when(bookReplicaRepository).currentTimestamp();
+      doReturn(ResponseEntity.ok(new CursorPageResponse<>(List.of(first), PAGE_SIZE, "next")))
+          .when(bookStorageServiceClient)
+          .scroll(null, PAGE_SIZE);
+      doReturn(ResponseEntity.ok(new CursorPageResponse<>(List.of(second), PAGE_SIZE, null)))
+          .when(bookStorageServiceClient)
+          .scroll("next", PAGE_SIZE);
+
+      // when
+      bookReplicaService.sync();
+      var status = bookReplicaService.getStatus();
+
+      // then
+      var inOrder = inOrder(bookReplicaRepository);
+      inOrder
+          .verify(bookReplicaRepository)
+          .upsertAllUntouchedSince(
+              eq(new Long[] {1L}), any(), any(), any(), any(), any(), eq(startedAt));
+      inOrder
+          .verify(bookReplicaRepository)
+          .upsertAllUntouchedSince(
+              eq(new Long[] {2L}), any(), any(), any(), any(), any(), eq(startedAt));
+      inOrder.verify(bookReplicaRepository).deleteReplicatedBefore(startedAt);
+      inOrder
+          .verify(bookReplicaRepository)
+          .deleteTombstonesBefore(startedAt.minus(TOMBSTONE_RETENTION));
+      inOrder.verify(bookReplicaRepository).updateSyncedAt(startedAt);
+      assertEquals(startedAt, status.syncedAt());
+      assertTrue(status.fresh());
+    }
+
+    @Test
+    void syncShouldKeepTombstonesWhileConsumerHasNotCaughtUp() {
+      // given
+      var startedAt = Instant.parse("2025-03-01T10:00:00Z");
+
+      runTransactionCallbacks();
+      doReturn(Optional.empty()).when(bookEventConsumerLag).caughtUpAt();
+      doReturn(startedAt).when(bookReplicaRepository).currentTimestamp();
+      doReturn(ResponseEntity.ok(new CursorPageResponse<>(List.of(), PAGE_SIZE, null)))
+          .when(bookStorageServiceClient)
+          .scroll(null, PAGE_SIZE);
+
+      // when
+      bookReplicaService.sync();
+
+      // then
+      verify(bookReplicaRepository, never()).deleteTombstonesBefore(any());
+      verify(bookReplicaRepository).updateSyncedAt(startedAt);
+    }
+
+    @Test
+    void syncShouldPruneOnlyTombstonesTheConsumerHasMovedPast() {
+      // given
+      var startedAt = Instant.parse("2025-03-01T10:00:00Z");
+      var caughtUpAt = startedAt.minus(Duration.ofDays(3));
+
+      runTransactionCallbacks();
+      doReturn(Optional.of(caughtUpAt)).when(bookEventConsumerLag).caughtUpAt();
+      doReturn(startedAt).when(bookReplicaRepository).currentTimestamp();
+      doReturn(ResponseEntity.ok(new CursorPageResponse<>(List.of(), PAGE_SIZE, null)))
+          .when(bookStorageServiceClient)
+          .scroll(null, PAGE_SIZE);
+
+      // when
+      bookReplicaService.sync();
+
+      // then
+      verify(bookReplicaRepository).deleteTombstonesBefore(caughtUpAt.minus(TOMBSTONE_RETENTION));
+    }
+
+    @Test
+    void startSyncShouldRunInBackgroundWithServiceCredentials() throws InterruptedException {
+      // given
+      var authorization = "Bearer service";
+      var forwarded = new AtomicReference<String>();
+      var release = new CountDownLatch(1);
+
+      runTransactionCallbacks();
+      doReturn(authorization).when(serviceCredentials).authorization();
+      doReturn(Instant.now()).when(bookReplicaRepository).currentTimestamp();
+      doAnswer(
+              invocation -> {
+                forwarded.set(FeignRequestInterceptor.currentAuthorization());
+                release.await(5, TimeUnit.SECONDS);
+                return ResponseEntity.ok(new CursorPageResponse<>(List.of(), PAGE_SIZE, null));
+              })
+          .when(bookStorageServiceClient)
+          .scroll(null, PAGE_SIZE);
+
+      // when
+      var started = bookReplicaService.startSync();
+      var again = bookReplicaService.startSync();
+      release.countDown();
+
+      var status = awaitSyncFinished();
+
+      // then
+      assertTrue(started.syncing());
+      assertTrue(again.syncing());
+      assertFalse(status.syncing());
+      assertNull(status.syncFailedAt());
+      verify(bookStorageServiceClient).scroll(null, PAGE_SIZE);
+      verify(bookReplicaRepository).updateSyncedAt(any());
+      assertEquals(authorization, forwarded.get());
+    }
+
+    @Test
+    void startSyncShouldRecordFailure() throws InterruptedException {
+      // given
+      doReturn("Bearer service").when(serviceCredentials).authorization();
+      doReturn(Instant.now()).when(bookReplicaRepository).currentTimestamp();
+      doAnswer(
+              invocation -> {
+                throw new IllegalStateException();
+              })
+          .when(bookStorageServiceClient)
+          .scroll(null, PAGE_SIZE);
+
+      // when
+      bookReplicaService.startSync();
+
+      var status = awaitSyncFinished();
+
+      // then
+      assertNotNull(status.syncFailedAt());
+      assertNull(status.syncedAt());
+      verify(bookReplicaRepository, never()).updateSyncedAt(any());
+    }
+
+    private BookReplicaStatusResponse awaitSyncFinished() throws InterruptedException {
+      var deadline = Instant.now().plusSeconds(5);
+      var status = bookReplicaService.getStatus();
+      while (status.syncing() && Instant.now().isBefore(deadline)) {
+        Thread.sleep(10);
+        status = bookReplicaService.getStatus();
+      }
+      return status;
+    }
+
+    private void runTransactionCallbacks() {
+      doAnswer(
+              invocation -> {
+                invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                return null;
+              })
+          .when(transactionTemplate)
+          .executeWithoutResult(any());
+    }
+  }
+
+  @Nested
+  class IsFresh {
+    @Test
+    void isFreshShouldBeFalseBeforeFirstSync() {
+      // given
+      doReturn(Optional.empty()).when(bookReplicaRepository).findSyncedAt();
+      bookReplicaService.loadSyncedAt();
+
+      // when
+      var fresh = bookReplicaService.isFresh();
+
+      // then
+      assertFalse(fresh);
+    }
+
+    @Test
+    void isFreshShouldBeTrueWhenConsumerCaughtUpRecently() {
+      // given
+      doReturn(Optional.of(Instant.now())).when(bookReplicaRepository).findSyncedAt();
+      doReturn(Optional.of(Instant.now())).when(bookEventConsumerLag).caughtUpAt();
+      bookReplicaService.loadSyncedAt();
+
+      // when
+      var fresh = bookReplicaService.isFresh();
+
+      // then
+      assertTrue(fresh);
+    }
+
+    @Test
+    void isFreshShouldBeFalseWhenConsumerHasNotCaughtUpWithinMaxLag() {
+      // given
+      var caughtUpAt = Instant.now().minus(MAX_LAG.multipliedBy(2));
+      doReturn(Optional.of(Instant.now())).when(bookReplicaRepository).findSyncedAt();
+      doReturn(Optional.of(caughtUpAt)).when(bookEventConsumerLag).caughtUpAt();
+      bookReplicaService.loadSyncedAt();
+
+      // when
+      var status = bookReplicaService.getStatus();
+
+      // then
+      assertFalse(status.fresh());
+      assertEquals(caughtUpAt, status.caughtUpAt());
+    }
+
+    @Test
+    void isFreshShouldBeFalseWhenEventsLagBehind() {
+      // given
+      doReturn(Optional.of(Instant.now())).when(bookReplicaRepository).findSyncedAt();
+      doReturn(Optional.of(Instant.now())).when(bookEventConsumerLag).caughtUpAt();
+      bookReplicaService.loadSyncedAt();
+      var occurredAt = Instant.now().minus(MAX_LAG.multipliedBy(2));
+      var event = new BookEvent(1, BookEventType.DELETED, 1L, 1L, occurredAt, null, null);
+
+      // when
+      bookReplicaService.apply(event);
+      var status = bookReplicaService.getStatus();
+
+      // then
+      assertFalse(status.fresh());
+      assertEquals(occurredAt, status.lastEventAt());
+      assertTrue(status.lagMillis() >= MAX_LAG.toMillis());
+    }
+  }
+}